@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.dto.CommandInputDTO;
+import io.fabric8.forge.rest.client.dto.NextStepResult;
+import io.fabric8.forge.rest.client.dto.ValidationResult;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Loads the JSON payloads recorded from the backend which are used by the benchmarks
+ */
+public class BenchmarkPayloads {
+    public static final String COMMAND_INPUT_PROJECT_NEW = "command-input-project-new";
+    public static final String VALIDATE_CATALOG = "validate-catalog";
+    public static final String NEXT_STEP_PIPELINE = "next-step-pipeline";
+    public static final String EXECUTE_IMPORT = "execute-import";
+
+    public static byte[] loadPayload(String name) throws IOException {
+        String resource = "payloads/" + name + ".json";
+        try (InputStream inputStream = BenchmarkPayloads.class.getResourceAsStream(resource)) {
+            if (inputStream == null) {
+                throw new IllegalArgumentException("No payload found on the classpath for " + resource);
+            }
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            byte[] bytes = new byte[8192];
+            int length;
+            while ((length = inputStream.read(bytes)) > 0) {
+                buffer.write(bytes, 0, length);
+            }
+            return buffer.toByteArray();
+        }
+    }
+
+    /**
+     * Returns the DTO class the backend returns the given payload as
+     */
+    public static Class<?> payloadType(String name) {
+        switch (name) {
+            case COMMAND_INPUT_PROJECT_NEW:
+                return CommandInputDTO.class;
+            case VALIDATE_CATALOG:
+                return ValidationResult.class;
+            case NEXT_STEP_PIPELINE:
+                return NextStepResult.class;
+            default:
+                throw new IllegalArgumentException("Unknown payload " + name);
+        }
+    }
+
+    /**
+     * Creates a JSON response with a new entity of the given type as returned by the different JAXRS transports
+     */
+    public static Response createResponse(String entityType, byte[] data) {
+        return Response.ok(createEntity(entityType, data), MediaType.APPLICATION_JSON_TYPE).build();
+    }
+
+    protected static Object createEntity(String entityType, byte[] data) {
+        switch (entityType) {
+            case "reader":
+                return new InputStreamReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8);
+            case "inputStream":
+                return new ByteArrayInputStream(data);
+            case "string":
+                return new String(data, StandardCharsets.UTF_8);
+            case "bytes":
+                return data;
+            default:
+                throw new IllegalArgumentException("Unknown entity type " + entityType);
+        }
+    }
+}
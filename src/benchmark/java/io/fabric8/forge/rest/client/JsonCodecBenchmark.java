@@ -0,0 +1,110 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.fabric8.forge.rest.client.dto.PropertyDTO;
+import io.fabric8.forge.rest.client.dto.ValidationResult;
+import io.fabric8.forge.rest.client.dto.WizardState;
+import io.fabric8.utils.cxf.JsonHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing a validate response with a new {@link ObjectMapper} per call, as
+ * {@link ForgeClient} used to do, against the shared {@link ForgeJsonCodec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonCodecBenchmark {
+
+    @Param({"10", "500"})
+    public int choiceCount;
+
+    private ForgeJsonCodec codec;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws Exception {
+        codec = new ForgeJsonCodec();
+        json = codec.getObjectMapper().writeValueAsBytes(createValidationResult(choiceCount));
+    }
+
+    @Benchmark
+    public ValidationResult newObjectMapperPerResponse() throws Exception {
+        ObjectMapper objectMapper = JsonHelper.createObjectMapper();
+        return objectMapper.readerFor(ValidationResult.class).readValue(json);
+    }
+
+    @Benchmark
+    public ValidationResult sharedCodec() throws Exception {
+        return codec.readerFor(ValidationResult.class).readValue(json);
+    }
+
+    protected static ValidationResult createValidationResult(int choiceCount) {
+        WizardState state = new WizardState();
+        state.setValid(true);
+        state.setCanMoveToNextStep(true);
+        state.setWizard(true);
+
+        List<PropertyDTO> inputs = new ArrayList<>();
+        for (String name : new String[]{"named", "type", "catalog", "pipeline"}) {
+            PropertyDTO property = new PropertyDTO();
+            property.setName(name);
+            property.setLabel("Label for " + name);
+            property.setDescription("The " + name + " of the project");
+            property.setValueType("java.lang.String");
+            property.setInputType("org.jboss.forge.inputType.DEFAULT");
+            property.setEnabled(true);
+            property.setRequired(true);
+            List<Object> choices = new ArrayList<>();
+            for (int i = 0; i < choiceCount; i++) {
+                Map<String, Object> choice = new HashMap<>();
+                choice.put("id", name + "-" + i);
+                choice.put("name", "Choice " + i + " for " + name);
+                choice.put("description", "A description of choice " + i);
+                choices.add(choice);
+            }
+            property.setValueChoices(choices);
+            inputs.add(property);
+        }
+
+        ValidationResult result = new ValidationResult();
+        result.setState(state);
+        result.setInputs(inputs);
+        return result;
+    }
+}
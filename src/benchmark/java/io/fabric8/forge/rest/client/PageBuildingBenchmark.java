@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.dto.InputValueDTO;
+import io.fabric8.forge.rest.client.dto.InputValueList;
+import io.fabric8.forge.rest.client.dto.PropertyDTO;
+import io.fabric8.forge.rest.client.dto.ValidationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building the wizard pages of an {@link io.fabric8.forge.rest.client.dto.ExecutionRequest} with
+ * {@link ForgeClientHelpers} from recorded responses with large value choices and typeahead data
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageBuildingBenchmark {
+
+    @Param({BenchmarkPayloads.VALIDATE_CATALOG, BenchmarkPayloads.NEXT_STEP_PIPELINE})
+    public String payload;
+
+    @Param({"1", "4"})
+    public int pageCount;
+
+    private List<PropertyDTO> inputs;
+    private Map<String, PropertyDTO> properties;
+    private List<InputValueDTO> previousPages;
+    private ValueProvider valueProvider;
+
+    @Setup
+    public void setUp() throws Exception {
+        ForgeJsonCodec codec = new ForgeJsonCodec();
+        byte[] data = BenchmarkPayloads.loadPayload(payload);
+        ValidationResult result = codec.readerFor(ValidationResult.class).readValue(data);
+        inputs = result.getInputs();
+        properties = ForgeClientHelpers.inputsAsMap(inputs);
+        valueProvider = new ValueProvider();
+        previousPages = new InputValueList();
+        for (int i = 1; i < pageCount; i++) {
+            ForgeClientHelpers.addPage(previousPages, properties, valueProvider);
+        }
+    }
+
+    @Benchmark
+    public Map<String, PropertyDTO> inputsAsMap() {
+        return ForgeClientHelpers.inputsAsMap(inputs);
+    }
+
+    @Benchmark
+    public List<InputValueDTO> addPage() {
+        List<InputValueDTO> inputList = new InputValueList(previousPages);
+        ForgeClientHelpers.addPage(inputList, properties, valueProvider);
+        return inputList;
+    }
+
+    @Benchmark
+    public Map<String, Object> updatePageValues() {
+        Map<String, Object> page = new HashMap<>();
+        ForgeClientHelpers.updatePageValues(previousPages, properties, valueProvider, page);
+        return page;
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.dto.ExecutionResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ForgeClient#parseExecutionResult(javax.ws.rs.core.Response)} on a recorded execute response
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseExecutionResultBenchmark {
+
+    @Param({"reader", "inputStream", "string", "bytes"})
+    public String entityType;
+
+    @Param({"false", "true"})
+    public boolean lazy;
+
+    private ForgeClient forgeClient;
+    private byte[] data;
+
+    @Setup
+    public void setUp() throws Exception {
+        forgeClient = new ForgeClient();
+        forgeClient.setLazyExecutionResults(lazy);
+        data = BenchmarkPayloads.loadPayload(BenchmarkPayloads.EXECUTE_IMPORT);
+    }
+
+    @Benchmark
+    public ExecutionResult parseExecutionResult() throws Exception {
+        return forgeClient.parseExecutionResult(BenchmarkPayloads.createResponse(entityType, data));
+    }
+
+    @Benchmark
+    public Object parseExecutionResultAndReadJson() throws Exception {
+        return forgeClient.parseExecutionResult(BenchmarkPayloads.createResponse(entityType, data)).getJson();
+    }
+}
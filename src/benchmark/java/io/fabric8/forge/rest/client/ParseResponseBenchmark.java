@@ -0,0 +1,66 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ForgeClient#parseResponse(javax.ws.rs.core.Response, Class)} for each kind of entity
+ * the JAXRS transports return using recorded backend payloads
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseResponseBenchmark {
+
+    @Param({BenchmarkPayloads.COMMAND_INPUT_PROJECT_NEW, BenchmarkPayloads.VALIDATE_CATALOG, BenchmarkPayloads.NEXT_STEP_PIPELINE})
+    public String payload;
+
+    @Param({"reader", "inputStream", "string", "bytes"})
+    public String entityType;
+
+    private ForgeClient forgeClient;
+    private byte[] data;
+    private Class<?> type;
+
+    @Setup
+    public void setUp() throws Exception {
+        forgeClient = new ForgeClient();
+        data = BenchmarkPayloads.loadPayload(payload);
+        type = BenchmarkPayloads.payloadType(payload);
+    }
+
+    @Benchmark
+    public Object parseResponse() throws Exception {
+        return forgeClient.parseResponse(BenchmarkPayloads.createResponse(entityType, data), type);
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.dto.VersionDTO;
+import io.fabric8.forge.rest.client.stub.StubForgeServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cold start time from creating a {@link ForgeClient} in a new JVM to the response of its first
+ * {@link ForgeClient#getInfo()} call against a {@link StubForgeServer}.
+ * <p>
+ * Each fork measures a single call so the results include class loading and client setup; use
+ * <code>kubernetesClient=true</code> to include creating the kubernetes client as callers which use it do.
+ * With <code>setAddress=false</code> the client resolves the backend from the <code>FABRIC8_GENERATOR_URL</code>
+ * variable, given here as a system property, as clients created without an explicit address do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupBenchmark {
+
+    @Param({"CXF", "POOLED"})
+    public TransportMode transportMode;
+
+    @Param({"false", "true"})
+    public boolean kubernetesClient;
+
+    @Param({"true", "false"})
+    public boolean setAddress;
+
+    private StubForgeServer server;
+    private ForgeClient forgeClient;
+
+    @Setup
+    public void setUp() throws Exception {
+        server = new StubForgeServer();
+        server.start();
+        if (!setAddress) {
+            System.setProperty(EnvironmentVariables.GENERATOR_BACKEND_URL, server.getAddress());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        if (forgeClient != null) {
+            forgeClient.close();
+        }
+        server.stop();
+        System.clearProperty(EnvironmentVariables.GENERATOR_BACKEND_URL);
+    }
+
+    @Benchmark
+    public VersionDTO timeToFirstGetInfo() throws Exception {
+        forgeClient = new ForgeClient();
+        if (setAddress) {
+            forgeClient.setAddress(server.getAddress());
+        }
+        forgeClient.setTransportMode(transportMode);
+        if (kubernetesClient) {
+            forgeClient.getKubernetesClient();
+        }
+        return forgeClient.getInfo();
+    }
+}
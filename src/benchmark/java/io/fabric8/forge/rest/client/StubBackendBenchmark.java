@@ -0,0 +1,112 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.dto.PropertyDTO;
+import io.fabric8.forge.rest.client.stub.StubForgeServer;
+import io.fabric8.forge.rest.client.stub.StubWizard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static io.fabric8.forge.rest.client.stub.StubWizard.choice;
+import static io.fabric8.forge.rest.client.stub.StubWizard.input;
+
+/**
+ * Measures the throughput and latency distribution of running a whole wizard with concurrent threads
+ * sharing one {@link ForgeClient} against a {@link StubForgeServer}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class StubBackendBenchmark {
+    public static final String WIZARD = "stub-quickstart";
+
+    @Param({"CXF", "POOLED"})
+    public TransportMode transportMode;
+
+    @Param({"0", "5"})
+    public long latencyMillis;
+
+    @Param({"0", "500"})
+    public int extraChoiceCount;
+
+    private StubForgeServer server;
+    private ForgeClient forgeClient;
+    private WizardRunner wizardRunner;
+    private ValueProvider valueProvider;
+
+    @Setup
+    public void setUp() throws Exception {
+        server = new StubForgeServer();
+        server.addWizard(new StubWizard(WIZARD).
+                page(input("named", "demo"), input("version", "1.0.0-SNAPSHOT"), choice("type", 1)).
+                page(choice("pipeline", 1)).
+                page(input("gitRepository", "demo"), choice("space", 1)));
+        server.setLatencyMillis(latencyMillis);
+        server.setExtraChoiceCount(extraChoiceCount);
+        server.start();
+
+        forgeClient = new ForgeClient();
+        forgeClient.setAddress(server.getAddress());
+        forgeClient.setNamespace("myproject");
+        forgeClient.setTransportMode(transportMode);
+        wizardRunner = new WizardRunner(forgeClient);
+        valueProvider = new ValueProvider() {
+            @Override
+            public Object getValue(String propertyName, PropertyDTO property, int pageNumber) {
+                List<Object> valueChoices = property.getValueChoices();
+                if (property.getValue() == null && valueChoices != null && !valueChoices.isEmpty()) {
+                    return valueChoices.get(0);
+                }
+                return super.getValue(propertyName, property, pageNumber);
+            }
+        };
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        forgeClient.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public WizardRunResult runWizard() throws Exception {
+        WizardRunResult result = wizardRunner.run(WIZARD, valueProvider);
+        if (!result.isSuccessful()) {
+            throw new IllegalStateException("Wizard failed: " + result);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.utils.Strings;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Streams the archetypes of an <code>archetype-catalog.xml</code> with StAX so that the catalog
+ * never has to be held in memory as a DOM and each archetype can be processed as soon as it is read.
+ */
+public class ArchetypeCatalogReader {
+    private static final XMLInputFactory FACTORY = createInputFactory();
+
+    /**
+     * Passes each <code>archetype</code> element of the catalog to the consumer in document order,
+     * skipping any without an <code>artifactId</code>
+     */
+    public static void read(InputStream in, Consumer<CatalogArchetype> consumer) throws IOException {
+        XMLStreamReader reader = null;
+        try {
+            reader = FACTORY.createXMLStreamReader(in);
+            String groupId = null;
+            String artifactId = null;
+            String version = null;
+            String description = null;
+            boolean inArchetype = false;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if ("archetype".equals(name)) {
+                        inArchetype = true;
+                        groupId = artifactId = version = description = null;
+                    } else if (inArchetype) {
+                        switch (name) {
+                            case "groupId":
+                                groupId = reader.getElementText().trim();
+                                break;
+                            case "artifactId":
+                                artifactId = reader.getElementText().trim();
+                                break;
+                            case "version":
+                                version = reader.getElementText().trim();
+                                break;
+                            case "description":
+                                description = reader.getElementText().trim();
+                                break;
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && "archetype".equals(reader.getLocalName())) {
+                    inArchetype = false;
+                    if (Strings.isNotBlank(artifactId)) {
+                        consumer.accept(new CatalogArchetype(groupId, artifactId, version, description));
+                    }
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to parse archetype catalog: " + e, e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.dto.ExecutionResult;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Writes one tab separated line per archetype as soon as its wizard completes and flushes it straight away
+ * so that the results of a sweep survive the sweep being aborted.
+ * <p>
+ * The columns are: name, command, successful, durationMillis, roundTrips, status, failure
+ */
+public class ArchetypeSweepReport implements Closeable {
+    public static final String HEADER = "name\tcommand\tsuccessful\tdurationMillis\troundTrips\tstatus\tfailure";
+
+    private final Writer writer;
+
+    public ArchetypeSweepReport(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Opens the report file, appending to it if it already exists and writing the header otherwise
+     */
+    public static ArchetypeSweepReport open(File file) throws IOException {
+        boolean exists = file.isFile() && file.length() > 0;
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null) {
+            dir.mkdirs();
+        }
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8);
+        ArchetypeSweepReport answer = new ArchetypeSweepReport(writer);
+        if (!exists) {
+            answer.writeLine(HEADER);
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the names of the archetypes that a previous sweep has already recorded as successful
+     * so that a resumed sweep can skip them
+     */
+    public static Set<String> readSucceededNames(File file) throws IOException {
+        Set<String> answer = new HashSet<>();
+        if (!file.isFile()) {
+            return answer;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(file.toPath()), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] columns = line.split("\t", -1);
+                if (columns.length > 2 && "true".equals(columns[2])) {
+                    answer.add(columns[0]);
+                }
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Appends the result of a single archetype and flushes it
+     */
+    public void record(WizardJobResult result) throws IOException {
+        WizardJob job = result.getJob();
+        WizardRunResult runResult = result.getRunResult();
+        ExecutionResult executionResult = result.getExecutionResult();
+        Throwable failure = result.getFailure();
+        String line = clean(job.getName()) + '\t' +
+                clean(job.getCommandName()) + '\t' +
+                result.isSuccessful() + '\t' +
+                result.getDurationMillis() + '\t' +
+                (runResult != null ? runResult.getRoundTrips() : 0) + '\t' +
+                (executionResult != null ? executionResult.getStatus() : "") + '\t' +
+                (failure != null ? clean(failure.toString()) : "");
+        writeLine(line);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    protected synchronized void writeLine(String line) throws IOException {
+        writer.write(line);
+        writer.write('\n');
+        writer.flush();
+    }
+
+    private static String clean(String text) {
+        return text != null ? text.replace('\t', ' ').replace('\r', ' ').replace('\n', ' ') : "";
+    }
+}
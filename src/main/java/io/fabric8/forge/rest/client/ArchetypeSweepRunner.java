@@ -0,0 +1,171 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Sweeps an archetype catalog by running a wizard for each archetype with at most <code>parallelism</code>
+ * wizards in flight at once.
+ * <p>
+ * The catalog is streamed with {@link ArchetypeCatalogReader} and each archetype is submitted as soon as it
+ * is read; the reader blocks while all of the workers are busy so only a handful of archetypes are pending
+ * at any time. Each result is written to the {@link ArchetypeSweepReport} as soon as its wizard completes.
+ */
+public class ArchetypeSweepRunner {
+    private static final transient Logger LOG = LoggerFactory.getLogger(ArchetypeSweepRunner.class);
+
+    private final BulkWizardRunner bulkWizardRunner;
+    private final Function<CatalogArchetype, WizardJob> jobFactory;
+    private Set<String> skipNames = Collections.emptySet();
+
+    public ArchetypeSweepRunner(ForgeClient forgeClient, int parallelism, Function<CatalogArchetype, WizardJob> jobFactory) {
+        this(new BulkWizardRunner(forgeClient, parallelism), jobFactory);
+    }
+
+    public ArchetypeSweepRunner(BulkWizardRunner bulkWizardRunner, Function<CatalogArchetype, WizardJob> jobFactory) {
+        this.bulkWizardRunner = bulkWizardRunner;
+        this.jobFactory = jobFactory;
+    }
+
+    public BulkWizardRunner getBulkWizardRunner() {
+        return bulkWizardRunner;
+    }
+
+    public int getParallelism() {
+        return bulkWizardRunner.getParallelism();
+    }
+
+    /**
+     * Returns the names of the jobs which are not run such as the archetypes that succeeded in a previous sweep
+     */
+    public Set<String> getSkipNames() {
+        return skipNames;
+    }
+
+    public void setSkipNames(Set<String> skipNames) {
+        this.skipNames = skipNames != null ? skipNames : Collections.emptySet();
+    }
+
+    /**
+     * Sweeps the catalog at the given URL appending the results to the report file.
+     * <p>
+     * If the report file already exists then the archetypes it records as successful are skipped
+     * so that an aborted sweep can be resumed.
+     */
+    public BulkWizardResults run(URL catalog, File reportFile) throws IOException, InterruptedException {
+        Set<String> skip = new HashSet<>(skipNames);
+        skip.addAll(ArchetypeSweepReport.readSucceededNames(reportFile));
+        if (!skip.isEmpty()) {
+            LOG.info("Skipping " + skip.size() + " archetypes which have already succeeded in " + reportFile);
+        }
+        try (InputStream in = catalog.openStream();
+             ArchetypeSweepReport report = ArchetypeSweepReport.open(reportFile)) {
+            return run(in, report, skip);
+        }
+    }
+
+    /**
+     * Sweeps the catalog, running the job of each distinct job name once, blocking until every wizard has completed or failed
+     */
+    public BulkWizardResults run(InputStream catalog, ArchetypeSweepReport report) throws IOException, InterruptedException {
+        return run(catalog, report, skipNames);
+    }
+
+    protected BulkWizardResults run(InputStream catalog, ArchetypeSweepReport report, Set<String> skip) throws IOException, InterruptedException {
+        int parallelism = getParallelism();
+        // lets keep one archetype queued per worker so that workers never wait for the reader
+        Semaphore pending = new Semaphore(parallelism * 2);
+        List<WizardJobResult> results = Collections.synchronizedList(new ArrayList<>());
+        Set<String> seen = new HashSet<>();
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "forge-archetype-sweep-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.currentTimeMillis();
+        try {
+            ArchetypeCatalogReader.read(catalog, archetype -> {
+                // lets key on the job name as that is what the report records for a resumed sweep to skip
+                WizardJob job = jobFactory.apply(archetype);
+                String name = job.getName();
+                if (!seen.add(name) || skip.contains(name)) {
+                    return;
+                }
+                try {
+                    pending.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while sweeping archetype " + name, e);
+                }
+                try {
+                    executor.execute(() -> {
+                        try {
+                            WizardJobResult result = bulkWizardRunner.runJob(job);
+                            results.add(result);
+                            record(report, result);
+                        } finally {
+                            pending.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    pending.release();
+                    throw e;
+                }
+            });
+        } finally {
+            // lets let the archetypes in flight complete and be recorded even if the catalog could not be read
+            // or we were interrupted, without an InterruptedException hiding the original failure
+            try {
+                pending.acquireUninterruptibly(parallelism * 2);
+                pending.release(parallelism * 2);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        BulkWizardResults answer = new BulkWizardResults(new ArrayList<>(results), parallelism, System.currentTimeMillis() - start);
+        LOG.info("Swept archetypes: " + answer);
+        return answer;
+    }
+
+    protected void record(ArchetypeSweepReport report, WizardJobResult result) {
+        try {
+            report.record(result);
+        } catch (IOException e) {
+            LOG.warn("Failed to record " + result + " in the sweep report. " + e, e);
+        }
+        LOG.info((result.isSuccessful() ? "Created " : "Failed ") + result.getJob().getName() + " in " + result.getDurationMillis() + " ms");
+    }
+}
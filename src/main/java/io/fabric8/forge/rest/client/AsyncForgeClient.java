@@ -0,0 +1,174 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.dto.CommandInputDTO;
+import io.fabric8.forge.rest.client.dto.ExecutionRequest;
+import io.fabric8.forge.rest.client.dto.ExecutionResult;
+import io.fabric8.forge.rest.client.dto.NextStepResult;
+import io.fabric8.forge.rest.client.dto.ValidationResult;
+import io.fabric8.forge.rest.client.dto.VersionDTO;
+import io.fabric8.forge.rest.client.metrics.ForgeClientMetrics;
+import io.fabric8.forge.rest.client.metrics.OperationMetrics;
+import org.apache.cxf.jaxrs.client.WebClient;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.InvocationCallback;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A non blocking facade over the Forge REST API which returns a {@link CompletableFuture} for each call.
+ * <p>
+ * Requests are sent using the CXF asynchronous HTTP conduit so no thread is parked while waiting for the
+ * backend; responses are parsed and the futures completed on the given {@link Executor}.
+ * <p>
+ * Calls go straight to the backend address of the {@link ForgeClient} so they skip the command cache, the
+ * validation memo, retries, circuit breakers and load balancing which {@link ForgeClient} adds to its own calls;
+ * only the metrics and the compression settings are shared. An error status fails the returned future with a
+ * {@link WebApplicationException} except for {@link #executeCommand(String, ExecutionRequest)} whose result
+ * carries the status.
+ * <p>
+ * Instances are thread safe; create one per {@link ForgeClient} and reuse it.
+ */
+public class AsyncForgeClient {
+    public static final String USE_ASYNC_HTTP_CONDUIT = "use.async.http.conduit";
+
+    private final ForgeClient forgeClient;
+    private final Executor executor;
+    private final WebClient webClient;
+
+    public AsyncForgeClient(ForgeClient forgeClient) {
+        this(forgeClient, ForkJoinPool.commonPool());
+    }
+
+    public AsyncForgeClient(ForgeClient forgeClient, Executor executor) {
+        this.forgeClient = forgeClient;
+        this.executor = executor;
+        this.webClient = forgeClient.createWebClient(true);
+        WebClient.getConfig(webClient).getRequestContext().put(USE_ASYNC_HTTP_CONDUIT, Boolean.TRUE);
+    }
+
+    public ForgeClient getForgeClient() {
+        return forgeClient;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public CompletableFuture<VersionDTO> getInfo() {
+        return invoke(ForgeOperation.VERSION, null, HttpMethod.GET, null, "version").thenApplyAsync(response -> parseSuccessfulResponse(response, VersionDTO.class), executor);
+    }
+
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<List<String>> getCommandNames() {
+        return invoke(ForgeOperation.COMMAND_NAMES, null, HttpMethod.GET, null, "commandNames").thenApplyAsync(response -> (List<String>) parseSuccessfulResponse(response, List.class), executor);
+    }
+
+    public CompletableFuture<CommandInputDTO> getCommandInput(String name) {
+        return invoke(ForgeOperation.COMMAND_INPUT, name, HttpMethod.GET, null, "commands", name).thenApplyAsync(response -> parseSuccessfulResponse(response, CommandInputDTO.class), executor);
+    }
+
+    public CompletableFuture<ValidationResult> validateCommand(String name, ExecutionRequest executionRequest) {
+        return invoke(ForgeOperation.VALIDATE, name, HttpMethod.POST, Entity.json(executionRequest), "commands", name, "validate").thenApplyAsync(response -> parseSuccessfulResponse(response, ValidationResult.class), executor);
+    }
+
+    public CompletableFuture<NextStepResult> nextStep(String name, ExecutionRequest executionRequest) {
+        return invoke(ForgeOperation.NEXT_STEP, name, HttpMethod.POST, Entity.json(executionRequest), "commands", name, "next").thenApplyAsync(response -> parseSuccessfulResponse(response, NextStepResult.class), executor);
+    }
+
+    public CompletableFuture<ExecutionResult> executeCommand(String name, ExecutionRequest executionRequest) {
+        Entity<?> form = Entity.form(ForgeClient.createForm(executionRequest));
+        return invoke(ForgeOperation.EXECUTE, name, HttpMethod.POST, form, "commands", name, "execute").thenApplyAsync(forgeClient::parseExecutionResult, executor);
+    }
+
+    /**
+     * Sends the request without blocking, returning a future which completes when the response arrives
+     */
+    protected CompletableFuture<Response> invoke(ForgeOperation operation, String commandName, String method, Entity<?> entity, String... paths) {
+        CompletableFuture<Response> answer = new CompletableFuture<>();
+        ForgeClientMetrics metrics = forgeClient.getMetrics();
+        OperationMetrics operationMetrics = metrics != null ? metrics.getOperationMetrics(operation, commandName) : null;
+        long start = System.nanoTime();
+        if (operationMetrics != null) {
+            operationMetrics.requestStarted();
+        }
+        // the web client is thread safe so the path and headers set here are local to this thread
+        WebClient client = webClient.reset().path("forge");
+        for (String path : paths) {
+            client = client.path(path);
+        }
+        client.accept(MediaType.APPLICATION_JSON_TYPE);
+        InvocationCallback<Response> callback = new InvocationCallback<Response>() {
+            @Override
+            public void completed(Response response) {
+                if (operationMetrics != null) {
+                    operationMetrics.requestCompleted(response.getStatus(), System.nanoTime() - start);
+                }
+                answer.complete(response);
+            }
+
+            @Override
+            public void failed(Throwable throwable) {
+                if (operationMetrics != null) {
+                    operationMetrics.requestFailed(System.nanoTime() - start);
+                }
+                answer.completeExceptionally(throwable);
+            }
+        };
+        try {
+            send(client, method, entity, callback);
+        } catch (RuntimeException e) {
+            callback.failed(e);
+        }
+        return answer;
+    }
+
+    /**
+     * Hands the request to the asynchronous conduit which invokes the callback when the response arrives
+     */
+    protected void send(WebClient client, String method, Entity<?> entity, InvocationCallback<Response> callback) {
+        if (entity != null) {
+            client.async().method(method, entity, callback);
+        } else {
+            client.async().method(method, callback);
+        }
+    }
+
+    protected <T> T parseSuccessfulResponse(Response response, Class<T> clazz) {
+        if (response.getStatus() >= 300) {
+            throw new WebApplicationException(response);
+        }
+        return parseResponse(response, clazz);
+    }
+
+    protected <T> T parseResponse(Response response, Class<T> clazz) {
+        try {
+            return forgeClient.parseResponse(response, clazz);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to parse entity response for " + response.getLocation() + ". " + e, e);
+        }
+    }
+}
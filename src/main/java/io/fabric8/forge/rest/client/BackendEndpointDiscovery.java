@@ -0,0 +1,113 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.kubernetes.api.model.EndpointAddress;
+import io.fabric8.kubernetes.api.model.EndpointPort;
+import io.fabric8.kubernetes.api.model.EndpointSubset;
+import io.fabric8.kubernetes.api.model.Endpoints;
+import io.fabric8.utils.Strings;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Returns the URLs of the ready pods of the backend from the Endpoints of its Service so that requests can be
+ * balanced across the pods rather than going through the Service IP.
+ * <p>
+ * The Endpoints are read from the watched cache of a {@link ServiceEndpointResolver} so each refresh is a map read.
+ */
+public class BackendEndpointDiscovery implements Supplier<List<String>> {
+    private final ServiceEndpointResolver resolver;
+    private final LoadBalancerConfig config;
+    private final String address;
+
+    /**
+     * @param address the URL of the backend Service whose scheme and path are used for the URL of each pod
+     */
+    public BackendEndpointDiscovery(ServiceEndpointResolver resolver, LoadBalancerConfig config, String address) {
+        this.resolver = resolver;
+        this.config = config;
+        this.address = address;
+    }
+
+    @Override
+    public String toString() {
+        return "BackendEndpointDiscovery{" +
+                "serviceName='" + config.getServiceName() + '\'' +
+                ", namespace='" + getNamespace() + '\'' +
+                '}';
+    }
+
+    @Override
+    public List<String> get() {
+        Endpoints endpoints = resolver.getEndpoints(config.getServiceName(), getNamespace());
+        return toEndpointURLs(endpoints, config.getPortName(), address);
+    }
+
+    public String getNamespace() {
+        String answer = config.getNamespace();
+        if (Strings.isNullOrBlank(answer)) {
+            answer = resolver.getKubernetesClient().getNamespace();
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the URL of each ready address of the endpoints using the scheme and path of the given service URL
+     */
+    public static List<String> toEndpointURLs(Endpoints endpoints, String portName, String address) {
+        if (endpoints == null || endpoints.getSubsets() == null) {
+            return Collections.emptyList();
+        }
+        URI uri = URI.create(address);
+        String scheme = uri.getScheme() != null ? uri.getScheme() : "http";
+        String path = uri.getRawPath() != null ? uri.getRawPath() : "";
+        List<String> answer = new ArrayList<>();
+        for (EndpointSubset subset : endpoints.getSubsets()) {
+            Integer port = findPort(subset.getPorts(), portName);
+            if (port == null || subset.getAddresses() == null) {
+                continue;
+            }
+            for (EndpointAddress endpointAddress : subset.getAddresses()) {
+                String ip = endpointAddress.getIp();
+                if (Strings.isNotBlank(ip)) {
+                    answer.add(scheme + "://" + ip + ":" + port + path);
+                }
+            }
+        }
+        return answer;
+    }
+
+    private static Integer findPort(List<EndpointPort> ports, String portName) {
+        if (ports == null || ports.isEmpty()) {
+            return null;
+        }
+        if (Strings.isNullOrBlank(portName)) {
+            return ports.get(0).getPort();
+        }
+        for (EndpointPort port : ports) {
+            if (portName.equals(port.getName())) {
+                return port.getPort();
+            }
+        }
+        return null;
+    }
+}
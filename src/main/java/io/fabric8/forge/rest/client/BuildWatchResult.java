@@ -0,0 +1,72 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import com.offbytwo.jenkins.model.BuildResult;
+
+/**
+ * The completed build of a job watched by {@link BuildWatchService}
+ */
+public class BuildWatchResult {
+    private final String folderName;
+    private final String jobName;
+    private final int buildNumber;
+    private final String buildUrl;
+    private final BuildResult result;
+
+    public BuildWatchResult(String folderName, String jobName, int buildNumber, String buildUrl, BuildResult result) {
+        this.folderName = folderName;
+        this.jobName = jobName;
+        this.buildNumber = buildNumber;
+        this.buildUrl = buildUrl;
+        this.result = result;
+    }
+
+    @Override
+    public String toString() {
+        return "BuildWatchResult{" +
+                "folderName='" + folderName + '\'' +
+                ", jobName='" + jobName + '\'' +
+                ", buildNumber=" + buildNumber +
+                ", result=" + result +
+                '}';
+    }
+
+    public boolean isSuccessful() {
+        return result == BuildResult.SUCCESS;
+    }
+
+    public String getFolderName() {
+        return folderName;
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public int getBuildNumber() {
+        return buildNumber;
+    }
+
+    public String getBuildUrl() {
+        return buildUrl;
+    }
+
+    public BuildResult getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,283 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.offbytwo.jenkins.client.JenkinsHttpClient;
+import com.offbytwo.jenkins.model.BuildResult;
+import io.fabric8.utils.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Watches many Jenkins builds from a single scheduler thread.
+ * <p>
+ * On each tick the watched jobs are grouped by folder and the last build of every job in a folder is fetched
+ * with one Jenkins query, so watching many jobs in the same folder costs one request per poll rather than
+ * one per job. Each watch completes its future with the {@link BuildWatchResult} once the build finishes.
+ */
+public class BuildWatchService implements Closeable {
+    private static final transient Logger LOG = LoggerFactory.getLogger(BuildWatchService.class);
+
+    private static final String JOBS_TREE = "?tree=jobs%5Bname,lastBuild%5Bnumber,url,building,result%5D%5D";
+
+    private final JenkinsHttpClient jenkinsClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ConcurrentLinkedQueue<Watch> watches = new ConcurrentLinkedQueue<>();
+    private long pollIntervalMillis = 5000;
+    private ScheduledExecutorService scheduler;
+    private volatile boolean closed;
+
+    public BuildWatchService(JenkinsHttpClient jenkinsClient) {
+        this.jenkinsClient = jenkinsClient;
+    }
+
+    public long getPollIntervalMillis() {
+        return pollIntervalMillis;
+    }
+
+    /**
+     * Sets how often the watched jobs are polled; this must be set before the first watch is added
+     */
+    public void setPollIntervalMillis(long pollIntervalMillis) {
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+
+    /**
+     * Returns the number of builds still being watched
+     */
+    public int getWatchCount() {
+        return watches.size();
+    }
+
+    /**
+     * Watches the next build of the job to complete, which is the build currently running if there is one or else
+     * the next build to start.
+     * <p>
+     * This queries Jenkins for the current last build of the job when registering the watch so callers registering
+     * many watches should pass the build number they already know to
+     * {@link #watch(String, String, int, long)} instead.
+     */
+    public CompletableFuture<BuildWatchResult> watch(String folderName, String jobName, long timeoutMillis) {
+        int afterBuildNumber;
+        try {
+            afterBuildNumber = getLastCompletedBuildNumber(folderName, jobName);
+        } catch (IOException e) {
+            CompletableFuture<BuildWatchResult> answer = new CompletableFuture<>();
+            answer.completeExceptionally(e);
+            return answer;
+        }
+        return watch(folderName, jobName, afterBuildNumber, timeoutMillis);
+    }
+
+    /**
+     * Watches the job until a build with a number greater than <code>afterBuildNumber</code> has completed,
+     * failing the future with a {@link TimeoutException} if that does not happen within the timeout
+     *
+     * @param folderName the folder containing the job which may be nested using <code>/</code> or null for a top level job
+     */
+    public CompletableFuture<BuildWatchResult> watch(String folderName, String jobName, int afterBuildNumber, long timeoutMillis) {
+        if (closed) {
+            throw new IllegalStateException("BuildWatchService has been closed");
+        }
+        Watch watch = new Watch(folderName, jobName, afterBuildNumber, System.currentTimeMillis() + timeoutMillis);
+        watches.add(watch);
+        startScheduler();
+        return watch.future;
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        Watch watch;
+        while ((watch = watches.poll()) != null) {
+            watch.future.cancel(false);
+        }
+    }
+
+    protected synchronized void startScheduler() {
+        if (scheduler == null && !closed) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "forge-build-watch");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::poll, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Polls each folder with a watched job once and completes the watches whose builds have finished.
+     * <p>
+     * Any exception is caught and logged as it would otherwise cancel the scheduled polling of every watch;
+     * a watch whose update fails is completed exceptionally on its own.
+     */
+    protected void poll() {
+        try {
+            Map<String, List<Watch>> folders = new HashMap<>();
+            for (Iterator<Watch> iter = watches.iterator(); iter.hasNext(); ) {
+                Watch watch = iter.next();
+                if (watch.future.isDone()) {
+                    iter.remove();
+                } else {
+                    folders.computeIfAbsent(watch.folderName, key -> new ArrayList<>()).add(watch);
+                }
+            }
+            long now = System.currentTimeMillis();
+            for (Map.Entry<String, List<Watch>> entry : folders.entrySet()) {
+                String folderName = entry.getKey();
+                Map<String, JsonNode> lastBuilds = null;
+                try {
+                    lastBuilds = getLastBuilds(folderName);
+                } catch (Exception e) {
+                    LOG.warn("Failed to query the jobs in Jenkins folder " + folderName + ". " + e, e);
+                }
+                for (Watch watch : entry.getValue()) {
+                    try {
+                        if (lastBuilds != null && watch.update(lastBuilds.get(watch.jobName))) {
+                            watches.remove(watch);
+                        } else if (now > watch.deadline) {
+                            watches.remove(watch);
+                            watch.future.completeExceptionally(new TimeoutException("Timed out waiting for the build of job " + watch.getFullName() + " to complete"));
+                        }
+                    } catch (RuntimeException e) {
+                        LOG.warn("Failed to update the watch of job " + watch.getFullName() + ". " + e, e);
+                        watches.remove(watch);
+                        watch.future.completeExceptionally(e);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Failed to poll the watched Jenkins builds. " + e, e);
+        }
+    }
+
+    /**
+     * Returns the last build of each job in the folder keyed by job name using a single Jenkins query
+     */
+    protected Map<String, JsonNode> getLastBuilds(String folderName) throws IOException {
+        JsonNode tree = objectMapper.readTree(queryJobs(folderName));
+        Map<String, JsonNode> answer = new HashMap<>();
+        JsonNode jobs = tree != null ? tree.get("jobs") : null;
+        if (jobs != null) {
+            for (JsonNode job : jobs) {
+                JsonNode name = job.get("name");
+                if (name != null) {
+                    answer.put(name.asText(), job.get("lastBuild"));
+                }
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the number of the last build of the job which is not still building or 0 if there is none
+     */
+    protected int getLastCompletedBuildNumber(String folderName, String jobName) throws IOException {
+        JsonNode lastBuild = getLastBuilds(folderName).get(jobName);
+        if (lastBuild == null || lastBuild.isNull()) {
+            return 0;
+        }
+        int number = lastBuild.path("number").asInt();
+        return lastBuild.path("building").asBoolean() ? number - 1 : number;
+    }
+
+    /**
+     * Returns the JSON of the jobs in the folder along with their last builds
+     */
+    protected String queryJobs(String folderName) throws IOException {
+        return jenkinsClient.get(getFolderPath(folderName) + JOBS_TREE);
+    }
+
+    protected static String getFolderPath(String folderName) {
+        StringBuilder builder = new StringBuilder();
+        if (Strings.isNotBlank(folderName)) {
+            for (String name : folderName.split("/")) {
+                if (Strings.isNotBlank(name)) {
+                    builder.append("job/").append(name).append("/");
+                }
+            }
+        }
+        return builder.toString();
+    }
+
+    private static BuildResult toBuildResult(JsonNode result) {
+        if (result == null || result.isNull()) {
+            return BuildResult.UNKNOWN;
+        }
+        try {
+            return BuildResult.valueOf(result.asText());
+        } catch (IllegalArgumentException e) {
+            return BuildResult.UNKNOWN;
+        }
+    }
+
+    private static class Watch {
+        private final String folderName;
+        private final String jobName;
+        private final int afterBuildNumber;
+        private final long deadline;
+        private final CompletableFuture<BuildWatchResult> future = new CompletableFuture<>();
+
+        Watch(String folderName, String jobName, int afterBuildNumber, long deadline) {
+            this.folderName = folderName;
+            this.jobName = jobName;
+            this.afterBuildNumber = afterBuildNumber;
+            this.deadline = deadline;
+        }
+
+        String getFullName() {
+            return Strings.isNotBlank(folderName) ? folderName + "/" + jobName : jobName;
+        }
+
+        /**
+         * Completes the future if the last build has finished returning true if it did
+         */
+        boolean update(JsonNode lastBuild) {
+            if (lastBuild == null || lastBuild.isNull()) {
+                return false;
+            }
+            int number = lastBuild.path("number").asInt();
+            if (number <= afterBuildNumber || lastBuild.path("building").asBoolean()) {
+                return false;
+            }
+            BuildWatchResult result = new BuildWatchResult(folderName, jobName, number, lastBuild.path("url").asText(null), toBuildResult(lastBuild.get("result")));
+            LOG.info("Build completed: " + result);
+            future.complete(result);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import java.util.List;
+
+/**
+ * The results of running many {@link WizardJob}s with {@link BulkWizardRunner} along with throughput statistics
+ */
+public class BulkWizardResults {
+    private final List<WizardJobResult> results;
+    private final int parallelism;
+    private final long elapsedMillis;
+
+    public BulkWizardResults(List<WizardJobResult> results, int parallelism, long elapsedMillis) {
+        this.results = results;
+        this.parallelism = parallelism;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkWizardResults{" +
+                "jobs=" + getJobCount() +
+                ", succeeded=" + getSucceededCount() +
+                ", failed=" + getFailedCount() +
+                ", parallelism=" + parallelism +
+                ", elapsedMillis=" + elapsedMillis +
+                ", throughputPerSecond=" + String.format("%.2f", getThroughputPerSecond()) +
+                ", meanLatencyMillis=" + getMeanLatencyMillis() +
+                ", maxLatencyMillis=" + getMaxLatencyMillis() +
+                ", roundTrips=" + getRoundTrips() +
+                '}';
+    }
+
+    /**
+     * Returns the result of each job in the order the jobs were given
+     */
+    public List<WizardJobResult> getResults() {
+        return results;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Returns the wall clock time taken to run all of the jobs
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public int getJobCount() {
+        return results.size();
+    }
+
+    public int getSucceededCount() {
+        int answer = 0;
+        for (WizardJobResult result : results) {
+            if (result.isSuccessful()) {
+                answer++;
+            }
+        }
+        return answer;
+    }
+
+    public int getFailedCount() {
+        return getJobCount() - getSucceededCount();
+    }
+
+    /**
+     * Returns the number of jobs completed per second of wall clock time
+     */
+    public double getThroughputPerSecond() {
+        if (elapsedMillis <= 0) {
+            return 0;
+        }
+        return results.size() * 1000.0 / elapsedMillis;
+    }
+
+    public long getMeanLatencyMillis() {
+        if (results.isEmpty()) {
+            return 0;
+        }
+        long total = 0;
+        for (WizardJobResult result : results) {
+            total += result.getDurationMillis();
+        }
+        return total / results.size();
+    }
+
+    public long getMaxLatencyMillis() {
+        long answer = 0;
+        for (WizardJobResult result : results) {
+            answer = Math.max(answer, result.getDurationMillis());
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the total number of backend round trips made by the jobs that ran
+     */
+    public int getRoundTrips() {
+        int answer = 0;
+        for (WizardJobResult result : results) {
+            WizardRunResult runResult = result.getRunResult();
+            if (runResult != null) {
+                answer += runResult.getRoundTrips();
+            }
+        }
+        return answer;
+    }
+}
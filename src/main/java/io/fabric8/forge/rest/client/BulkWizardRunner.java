@@ -0,0 +1,103 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs many {@link WizardJob}s concurrently on a shared {@link ForgeClient} with at most
+ * <code>parallelism</code> wizards in flight at once.
+ */
+public class BulkWizardRunner {
+    private static final transient Logger LOG = LoggerFactory.getLogger(BulkWizardRunner.class);
+
+    private final WizardRunner wizardRunner;
+    private final int parallelism;
+
+    public BulkWizardRunner(ForgeClient forgeClient, int parallelism) {
+        this(new WizardRunner(forgeClient), parallelism);
+    }
+
+    public BulkWizardRunner(WizardRunner wizardRunner, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1 but was " + parallelism);
+        }
+        this.wizardRunner = wizardRunner;
+        this.parallelism = parallelism;
+    }
+
+    public WizardRunner getWizardRunner() {
+        return wizardRunner;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Runs all of the jobs, blocking until they have completed or failed
+     */
+    public BulkWizardResults run(List<WizardJob> jobs) throws InterruptedException {
+        int threads = Math.max(1, Math.min(parallelism, jobs.size()));
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "forge-bulk-wizard-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            long start = System.currentTimeMillis();
+            List<Future<WizardJobResult>> futures = new ArrayList<>(jobs.size());
+            for (WizardJob job : jobs) {
+                futures.add(executor.submit(() -> runJob(job)));
+            }
+            List<WizardJobResult> results = new ArrayList<>(jobs.size());
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    results.add(new WizardJobResult(jobs.get(i), null, e.getCause(), 0));
+                }
+            }
+            BulkWizardResults answer = new BulkWizardResults(results, parallelism, System.currentTimeMillis() - start);
+            LOG.info("Ran wizards: " + answer);
+            return answer;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    protected WizardJobResult runJob(WizardJob job) {
+        long start = System.currentTimeMillis();
+        try {
+            WizardRunResult runResult = wizardRunner.run(job.getCommandName(), job.getValueProvider(), job.getNumberOfPages());
+            return new WizardJobResult(job, runResult, null, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            LOG.warn("Failed to run " + job + ". " + e, e);
+            return new WizardJobResult(job, null, e, System.currentTimeMillis() - start);
+        }
+    }
+}
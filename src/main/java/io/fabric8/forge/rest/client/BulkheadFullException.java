@@ -0,0 +1,39 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+/**
+ * Thrown when a call is not made as the maximum number of concurrent calls of its operation are already in flight
+ */
+public class BulkheadFullException extends RuntimeException {
+    private final ForgeOperation operation;
+    private final int maxConcurrentCalls;
+
+    public BulkheadFullException(ForgeOperation operation, int maxConcurrentCalls) {
+        super("Already " + maxConcurrentCalls + " concurrent calls of " + operation.getLabel() + " in flight");
+        this.operation = operation;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+    }
+
+    public ForgeOperation getOperation() {
+        return operation;
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+}
@@ -0,0 +1,353 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.dto.VersionDTO;
+import io.fabric8.utils.IOHelpers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches the command inputs and command names returned by the backend as they only change when the backend is
+ * redeployed. Cached responses are used for the configured TTL and then revalidated with <code>If-None-Match</code>
+ * when the backend returned an <code>ETag</code>. The whole cache is cleared when the version returned by
+ * {@link #getInfo()} changes, which is checked periodically while the cache is used.
+ * <p>
+ * The response bodies are kept as bytes so each caller parses its own copy of the DTOs.
+ */
+public class CachingCommandsAPI extends DelegatingCommandsAPI {
+    private static final transient Logger LOG = LoggerFactory.getLogger(CachingCommandsAPI.class);
+
+    private static final String COMMAND_NAMES_KEY = "commandNames";
+    private static final String COMMAND_INPUT_KEY_PREFIX = "commands/";
+
+    private final ForgeJsonCodec jsonCodec;
+    private final CommandCacheConfig config;
+    private final ConcurrentMap<String, CachedResponse> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Object> locks = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong versionCheckedAt = new AtomicLong();
+    private volatile VersionDTO version;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public CachingCommandsAPI(CommandsAPI delegate, ForgeJsonCodec jsonCodec, CommandCacheConfig config) {
+        super(delegate);
+        this.jsonCodec = jsonCodec;
+        this.config = config;
+    }
+
+    @Override
+    public String toString() {
+        return "CachingCommandsAPI{" +
+                "size=" + getSize() +
+                ", hits=" + getHits() +
+                ", revalidations=" + getRevalidations() +
+                ", misses=" + getMisses() +
+                ", invalidations=" + getInvalidations() +
+                ", version=" + version +
+                '}';
+    }
+
+    @Override
+    public VersionDTO getInfo() {
+        VersionDTO answer = getDelegate().getInfo();
+        updateVersion(answer);
+        return answer;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<String> getCommandNames() {
+        Response response;
+        try {
+            response = getCached(COMMAND_NAMES_KEY, ifNoneMatch -> getDelegate().getCommandNames(ifNoneMatch));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to get the command names. " + e, e);
+        }
+        if (response.getStatus() >= 300) {
+            throw new WebApplicationException(response);
+        }
+        try {
+            return jsonCodec.readerFor(List.class).readValue((byte[]) response.getEntity());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to parse the command names. " + e, e);
+        }
+    }
+
+    @Override
+    public Response getCommandInput(String name) throws Exception {
+        return getCached(COMMAND_INPUT_KEY_PREFIX + name, ifNoneMatch -> getDelegate().getCommandInput(name, ifNoneMatch));
+    }
+
+    /**
+     * Clears the cache; e.g. after the backend has been redeployed
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+        invalidations.increment();
+    }
+
+    public void invalidateCommandInput(String name) {
+        generation.incrementAndGet();
+        entries.remove(COMMAND_INPUT_KEY_PREFIX + name);
+    }
+
+    /**
+     * Returns the number of calls answered from the cache without a request to the backend
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of calls answered from the cache after the backend replied <code>304 Not Modified</code>
+     */
+    public long getRevalidations() {
+        return revalidations.sum();
+    }
+
+    /**
+     * Returns the number of calls which had to fetch the full response from the backend
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    public int getSize() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the backend version the cached responses were fetched from, if known
+     */
+    public VersionDTO getVersion() {
+        return version;
+    }
+
+    protected Response getCached(String key, ConditionalRequest request) throws Exception {
+        checkVersion();
+        CachedResponse entry = entries.get(key);
+        if (entry != null && !entry.isExpired(System.currentTimeMillis(), config.getTtlMillis())) {
+            hits.increment();
+            return entry.toResponse();
+        }
+        // only one caller fetches each key so that concurrent wizards do not all refetch an expired entry
+        while (true) {
+            Object lock = locks.computeIfAbsent(key, k -> new Object());
+            synchronized (lock) {
+                if (locks.get(key) != lock) {
+                    // the fetch we waited for has finished and removed its lock so use the current one
+                    continue;
+                }
+                try {
+                    return fetch(key, request);
+                } finally {
+                    locks.remove(key, lock);
+                }
+            }
+        }
+    }
+
+    protected Response fetch(String key, ConditionalRequest request) throws Exception {
+        CachedResponse entry = entries.get(key);
+        long now = System.currentTimeMillis();
+        if (entry != null && !entry.isExpired(now, config.getTtlMillis())) {
+            hits.increment();
+            return entry.toResponse();
+        }
+        long fetchGeneration = generation.get();
+        String entityTag = entry != null ? entry.getEntityTag() : null;
+        Response response;
+        try {
+            response = request.invoke(entityTag);
+        } catch (WebApplicationException e) {
+            // the CXF proxy reports a 304 as an exception
+            if (entry == null || e.getResponse() == null || e.getResponse().getStatus() != Response.Status.NOT_MODIFIED.getStatusCode()) {
+                throw e;
+            }
+            response = e.getResponse();
+        }
+        if (entry != null && response.getStatus() == Response.Status.NOT_MODIFIED.getStatusCode()) {
+            response.close();
+            revalidations.increment();
+            entry = entry.revalidated(now);
+            put(key, entry, fetchGeneration);
+            return entry.toResponse();
+        }
+        misses.increment();
+        byte[] data = readEntity(response);
+        if (response.getStatus() == Response.Status.OK.getStatusCode()) {
+            put(key, new CachedResponse(data, response.getHeaderString(HttpHeaders.CONTENT_TYPE),
+                    response.getHeaderString(HttpHeaders.ETAG), now), fetchGeneration);
+        }
+        return copyResponse(response, data);
+    }
+
+    /**
+     * Caches the fetched response unless the cache was invalidated while it was being fetched
+     */
+    private void put(String key, CachedResponse entry, long fetchGeneration) {
+        entries.put(key, entry);
+        // an invalidation that started after this check clears the entry itself
+        if (generation.get() != fetchGeneration) {
+            entries.remove(key, entry);
+        }
+    }
+
+    protected void checkVersion() {
+        long interval = config.getVersionCheckIntervalMillis();
+        if (interval <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long checkedAt = versionCheckedAt.get();
+        if (now - checkedAt >= interval && versionCheckedAt.compareAndSet(checkedAt, now)) {
+            try {
+                getInfo();
+            } catch (RuntimeException e) {
+                LOG.warn("Failed to check the backend version so keeping the cached commands: " + e, e);
+            }
+        }
+    }
+
+    protected void updateVersion(VersionDTO newVersion) {
+        versionCheckedAt.set(System.currentTimeMillis());
+        if (newVersion == null) {
+            return;
+        }
+        VersionDTO oldVersion = version;
+        version = newVersion;
+        if (oldVersion != null && (!Objects.equals(oldVersion.getBackendVersion(), newVersion.getBackendVersion()) ||
+                !Objects.equals(oldVersion.getForgeVersion(), newVersion.getForgeVersion()))) {
+            LOG.info("Backend version changed from " + oldVersion + " to " + newVersion + " so clearing the cached commands");
+            invalidateAll();
+        }
+    }
+
+    protected static byte[] readEntity(Response response) throws IOException {
+        Object entity = response.getEntity();
+        try {
+            if (entity instanceof byte[]) {
+                return (byte[]) entity;
+            } else if (entity instanceof InputStream) {
+                return readBytes((InputStream) entity);
+            } else if (entity instanceof Reader) {
+                return IOHelpers.readFully((Reader) entity).getBytes(StandardCharsets.UTF_8);
+            } else if (entity instanceof String) {
+                return ((String) entity).getBytes(StandardCharsets.UTF_8);
+            } else if (entity == null) {
+                return new byte[0];
+            } else {
+                throw new IllegalArgumentException("Could not read the returned entity of class " + entity.getClass().getName());
+            }
+        } finally {
+            response.close();
+        }
+    }
+
+    private static byte[] readBytes(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] bytes = new byte[8192];
+        int length;
+        while ((length = inputStream.read(bytes)) > 0) {
+            buffer.write(bytes, 0, length);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static Response copyResponse(Response response, byte[] data) {
+        Response.ResponseBuilder builder = Response.status(response.getStatus());
+        MultivaluedMap<String, String> headers = response.getStringHeaders();
+        for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+            for (String value : entry.getValue()) {
+                builder.header(entry.getKey(), value);
+            }
+        }
+        return builder.entity(data).build();
+    }
+
+    /**
+     * Invokes a conditional GET on the backend
+     */
+    protected interface ConditionalRequest {
+        Response invoke(String ifNoneMatch) throws Exception;
+    }
+
+    private static final class CachedResponse {
+        private final byte[] data;
+        private final String contentType;
+        private final String entityTag;
+        private final long validatedAt;
+
+        CachedResponse(byte[] data, String contentType, String entityTag, long validatedAt) {
+            this.data = data;
+            this.contentType = contentType;
+            this.entityTag = entityTag;
+            this.validatedAt = validatedAt;
+        }
+
+        boolean isExpired(long now, long ttlMillis) {
+            return now - validatedAt >= ttlMillis;
+        }
+
+        String getEntityTag() {
+            return entityTag;
+        }
+
+        CachedResponse revalidated(long now) {
+            return new CachedResponse(data, contentType, entityTag, now);
+        }
+
+        Response toResponse() {
+            Response.ResponseBuilder builder = Response.ok(data);
+            if (contentType != null) {
+                builder.header(HttpHeaders.CONTENT_TYPE, contentType);
+            }
+            if (entityTag != null) {
+                builder.header(HttpHeaders.ETAG, entityTag);
+            }
+            return builder.build();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+/**
+ * Copies the first <code>headBytes</code> and the last <code>tailBytes</code> read from a stream into
+ * fixed size buffers so that a response can be logged while it is parsed without buffering all of it.
+ */
+public class CapturingInputStream extends FilterInputStream {
+    private final byte[] head;
+    private final byte[] tail;
+    private int headLength;
+    private long tailCount;
+    private long count;
+
+    public CapturingInputStream(InputStream in, int headBytes, int tailBytes) {
+        super(in);
+        this.head = new byte[Math.max(0, headBytes)];
+        this.tail = new byte[Math.max(0, tailBytes)];
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            capture((byte) b);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int answer = super.read(buffer, offset, length);
+        if (answer > 0) {
+            capture(buffer, offset, answer);
+        }
+        return answer;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // read rather than skip so that the skipped bytes are captured
+        byte[] buffer = new byte[(int) Math.min(n, 4096)];
+        int answer = read(buffer, 0, buffer.length);
+        return Math.max(answer, 0);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * Returns the total number of bytes read from the stream
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the captured start and end of the stream with a marker for the bytes in between which were not kept
+     */
+    public String getCapturedText(Charset charset) {
+        StringBuilder builder = new StringBuilder(new String(head, 0, headLength, charset));
+        int tailLength = (int) Math.min(tailCount, tail.length);
+        long skipped = count - headLength - tailLength;
+        if (skipped > 0) {
+            builder.append("... [").append(skipped).append(" bytes skipped] ...");
+        }
+        if (tailLength > 0) {
+            int start = (int) (tailCount % tail.length);
+            byte[] data = new byte[tailLength];
+            if (tailCount <= tail.length) {
+                System.arraycopy(tail, 0, data, 0, tailLength);
+            } else {
+                System.arraycopy(tail, start, data, 0, tail.length - start);
+                System.arraycopy(tail, 0, data, tail.length - start, start);
+            }
+            builder.append(new String(data, charset));
+        }
+        return builder.toString();
+    }
+
+    private void capture(byte b) {
+        count++;
+        if (headLength < head.length) {
+            head[headLength++] = b;
+        } else if (tail.length > 0) {
+            tail[(int) (tailCount++ % tail.length)] = b;
+        }
+    }
+
+    private void capture(byte[] buffer, int offset, int length) {
+        count += length;
+        int headCopy = Math.min(length, head.length - headLength);
+        if (headCopy > 0) {
+            System.arraycopy(buffer, offset, head, headLength, headCopy);
+            headLength += headCopy;
+            offset += headCopy;
+            length -= headCopy;
+        }
+        if (length <= 0 || tail.length == 0) {
+            return;
+        }
+        if (length >= tail.length) {
+            // only the last bytes of this read can end up in the tail
+            tailCount += length - tail.length;
+            offset += length - tail.length;
+            length = tail.length;
+        }
+        while (length > 0) {
+            int position = (int) (tailCount % tail.length);
+            int chunk = Math.min(length, tail.length - position);
+            System.arraycopy(buffer, offset, tail, position, chunk);
+            tailCount += chunk;
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+}
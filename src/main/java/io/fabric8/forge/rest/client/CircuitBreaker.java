@@ -0,0 +1,168 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The circuit breaker and bulkhead of a single {@link ForgeOperation}.
+ * <p>
+ * The breaker opens after {@link CircuitBreakerConfig#getFailureThreshold()} consecutive failures and then rejects
+ * calls until {@link CircuitBreakerConfig#getOpenMillis()} has passed, when it lets a single trial call through
+ * which closes it again if it succeeds.
+ */
+public class CircuitBreaker {
+    private static final transient Logger LOG = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final ForgeOperation operation;
+    private final CircuitBreakerConfig config;
+    private final int maxConcurrentCalls;
+    private final Semaphore bulkhead;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAt;
+    private final LongAdder rejectedByBreaker = new LongAdder();
+    private final LongAdder rejectedByBulkhead = new LongAdder();
+
+    public CircuitBreaker(ForgeOperation operation, CircuitBreakerConfig config) {
+        this.operation = operation;
+        this.config = config;
+        this.maxConcurrentCalls = config.getMaxConcurrentCalls(operation);
+        this.bulkhead = maxConcurrentCalls > 0 ? new Semaphore(maxConcurrentCalls) : null;
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker{" +
+                "operation=" + operation.getLabel() +
+                ", state=" + state.get() +
+                ", consecutiveFailures=" + consecutiveFailures.get() +
+                ", rejectedByBreaker=" + getRejectedByBreaker() +
+                ", rejectedByBulkhead=" + getRejectedByBulkhead() +
+                '}';
+    }
+
+    /**
+     * Acquires a slot in the bulkhead and checks that the breaker lets the call through, throwing an exception if not.
+     * Each successful call must be followed by {@link #onSuccess()} or {@link #onFailure()}.
+     */
+    public void acquire() throws InterruptedException {
+        checkState();
+        if (bulkhead != null) {
+            long wait = config.getBulkheadWaitMillis();
+            boolean acquired;
+            try {
+                acquired = wait > 0 ? bulkhead.tryAcquire(wait, TimeUnit.MILLISECONDS) : bulkhead.tryAcquire();
+            } catch (InterruptedException e) {
+                abandonTrial();
+                throw e;
+            }
+            if (!acquired) {
+                rejectedByBulkhead.increment();
+                abandonTrial();
+                throw new BulkheadFullException(operation, maxConcurrentCalls);
+            }
+        }
+    }
+
+    public void onSuccess() {
+        release();
+        consecutiveFailures.set(0);
+        if (state.getAndSet(State.CLOSED) != State.CLOSED) {
+            LOG.info("Closed the circuit breaker of " + operation.getLabel() + " as the backend has recovered");
+        }
+    }
+
+    public void onFailure() {
+        release();
+        int failures = consecutiveFailures.incrementAndGet();
+        State current = state.get();
+        if (current == State.HALF_OPEN || (current == State.CLOSED && failures >= config.getFailureThreshold())) {
+            if (state.compareAndSet(current, State.OPEN)) {
+                openedAt = System.currentTimeMillis();
+                LOG.warn("Opened the circuit breaker of " + operation.getLabel() + " after " + failures + " consecutive failures");
+            }
+        }
+    }
+
+    public ForgeOperation getOperation() {
+        return operation;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * Returns the number of calls rejected as the breaker was open
+     */
+    public long getRejectedByBreaker() {
+        return rejectedByBreaker.sum();
+    }
+
+    /**
+     * Returns the number of calls rejected as the bulkhead was full
+     */
+    public long getRejectedByBulkhead() {
+        return rejectedByBulkhead.sum();
+    }
+
+    /**
+     * Returns the number of calls currently in flight or -1 if the operation has no bulkhead
+     */
+    public int getInFlight() {
+        return bulkhead != null ? maxConcurrentCalls - bulkhead.availablePermits() : -1;
+    }
+
+    protected void checkState() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return;
+        }
+        long remaining = openedAt + config.getOpenMillis() - System.currentTimeMillis();
+        if (current == State.OPEN && remaining <= 0 && state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+            LOG.info("Trying " + operation.getLabel() + " again as its circuit breaker has been open for " + config.getOpenMillis() + " millis");
+            return;
+        }
+        rejectedByBreaker.increment();
+        throw new CircuitBreakerOpenException(operation, Math.max(0, remaining));
+    }
+
+    /**
+     * Opens the breaker again if it was half open so that another call can make the trial
+     */
+    private void abandonTrial() {
+        state.compareAndSet(State.HALF_OPEN, State.OPEN);
+    }
+
+    private void release() {
+        if (bulkhead != null) {
+            bulkhead.release();
+        }
+    }
+}
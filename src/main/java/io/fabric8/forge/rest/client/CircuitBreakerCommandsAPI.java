@@ -0,0 +1,132 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.dto.ExecutionRequest;
+import io.fabric8.forge.rest.client.dto.VersionDTO;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Form;
+import javax.ws.rs.core.Response;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Guards each {@link ForgeOperation} with its own {@link CircuitBreaker} so that when the backend degrades callers
+ * fail fast with a {@link CircuitBreakerOpenException} rather than piling more requests onto it, and with its own
+ * bulkhead so that a slow operation such as execute cannot use up the capacity needed by the other operations.
+ * <p>
+ * A call fails if it throws an exception or the backend returns a 5xx status; other statuses are successes as the
+ * backend is responding.
+ */
+public class CircuitBreakerCommandsAPI extends DelegatingCommandsAPI {
+    private final Map<ForgeOperation, CircuitBreaker> breakers = new EnumMap<>(ForgeOperation.class);
+
+    public CircuitBreakerCommandsAPI(CommandsAPI delegate, CircuitBreakerConfig config) {
+        super(delegate);
+        for (ForgeOperation operation : ForgeOperation.values()) {
+            breakers.put(operation, new CircuitBreaker(operation, config));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreakerCommandsAPI" + breakers.values();
+    }
+
+    @Override
+    public VersionDTO getInfo() {
+        return invokeUnchecked(ForgeOperation.VERSION, () -> getDelegate().getInfo());
+    }
+
+    @Override
+    public List<String> getCommandNames() {
+        return invokeUnchecked(ForgeOperation.COMMAND_NAMES, () -> getDelegate().getCommandNames());
+    }
+
+    @Override
+    public Response getCommandNames(String ifNoneMatch) {
+        return invokeUnchecked(ForgeOperation.COMMAND_NAMES, () -> getDelegate().getCommandNames(ifNoneMatch));
+    }
+
+    @Override
+    public Response validateCommand(String name, ExecutionRequest executionRequest) throws Exception {
+        return invoke(ForgeOperation.VALIDATE, () -> getDelegate().validateCommand(name, executionRequest));
+    }
+
+    @Override
+    public Response getCommandInput(String name) throws Exception {
+        return invoke(ForgeOperation.COMMAND_INPUT, () -> getDelegate().getCommandInput(name));
+    }
+
+    @Override
+    public Response getCommandInput(String name, String ifNoneMatch) throws Exception {
+        return invoke(ForgeOperation.COMMAND_INPUT, () -> getDelegate().getCommandInput(name, ifNoneMatch));
+    }
+
+    @Override
+    public Response nextStep(String name, ExecutionRequest executionRequest) throws Exception {
+        return invoke(ForgeOperation.NEXT_STEP, () -> getDelegate().nextStep(name, executionRequest));
+    }
+
+    @Override
+    public Response executeCommand(String name, ExecutionRequest executionRequest) throws Exception {
+        return invoke(ForgeOperation.EXECUTE, () -> getDelegate().executeCommand(name, executionRequest));
+    }
+
+    @Override
+    public Response executeCommand(String commandName, Form form) throws Exception {
+        return invoke(ForgeOperation.EXECUTE, () -> getDelegate().executeCommand(commandName, form));
+    }
+
+    public CircuitBreaker getCircuitBreaker(ForgeOperation operation) {
+        return breakers.get(operation);
+    }
+
+    protected <T> T invoke(ForgeOperation operation, Callable<T> call) throws Exception {
+        CircuitBreaker breaker = breakers.get(operation);
+        breaker.acquire();
+        boolean success = false;
+        try {
+            T answer = call.call();
+            success = !(answer instanceof Response) || ((Response) answer).getStatus() < 500;
+            return answer;
+        } catch (WebApplicationException e) {
+            Response response = e.getResponse();
+            success = response != null && response.getStatus() < 500;
+            throw e;
+        } finally {
+            if (success) {
+                breaker.onSuccess();
+            } else {
+                breaker.onFailure();
+            }
+        }
+    }
+
+    private <T> T invokeUnchecked(ForgeOperation operation, Callable<T> call) {
+        try {
+            return invoke(operation, call);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to invoke " + operation.getLabel() + ". " + e, e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The settings of the circuit breakers and bulkheads of each {@link ForgeOperation} used by {@link ForgeClient}
+ * when enabled.
+ * <p>
+ * The bulkhead of {@link ForgeOperation#EXECUTE} is smaller than the default connection pool size per route so that
+ * long running executions cannot take every connection away from the cheap validate and next step calls.
+ */
+public class CircuitBreakerConfig {
+    private boolean enabled;
+    private int failureThreshold = 5;
+    private long openMillis = 30 * 1000L;
+    private long bulkheadWaitMillis;
+    private final Map<ForgeOperation, Integer> maxConcurrentCalls = new EnumMap<>(ForgeOperation.class);
+
+    public CircuitBreakerConfig() {
+        maxConcurrentCalls.put(ForgeOperation.EXECUTE, 8);
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreakerConfig{" +
+                "enabled=" + enabled +
+                ", failureThreshold=" + failureThreshold +
+                ", openMillis=" + openMillis +
+                ", bulkheadWaitMillis=" + bulkheadWaitMillis +
+                ", maxConcurrentCalls=" + maxConcurrentCalls +
+                '}';
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns the number of consecutive failures of an operation which opens its circuit breaker
+     */
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public void setFailureThreshold(int failureThreshold) {
+        this.failureThreshold = failureThreshold;
+    }
+
+    /**
+     * Returns how long an open circuit breaker fails calls fast before letting a trial call through
+     */
+    public long getOpenMillis() {
+        return openMillis;
+    }
+
+    public void setOpenMillis(long openMillis) {
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * Returns how long a call waits for a free slot in a full bulkhead before it is rejected; 0 rejects it immediately
+     */
+    public long getBulkheadWaitMillis() {
+        return bulkheadWaitMillis;
+    }
+
+    public void setBulkheadWaitMillis(long bulkheadWaitMillis) {
+        this.bulkheadWaitMillis = bulkheadWaitMillis;
+    }
+
+    /**
+     * Returns the maximum number of concurrent calls of the given operation or 0 if they are not limited
+     */
+    public int getMaxConcurrentCalls(ForgeOperation operation) {
+        Integer answer = maxConcurrentCalls.get(operation);
+        return answer != null ? answer : 0;
+    }
+
+    public void setMaxConcurrentCalls(ForgeOperation operation, int max) {
+        maxConcurrentCalls.put(operation, max);
+    }
+}
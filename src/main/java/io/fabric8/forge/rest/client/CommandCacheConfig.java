@@ -0,0 +1,66 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+/**
+ * The settings of the cache of command inputs and command names used by {@link ForgeClient} when enabled
+ */
+public class CommandCacheConfig {
+    private boolean enabled;
+    private long ttlMillis = 5 * 60 * 1000L;
+    private long versionCheckIntervalMillis = 30 * 1000L;
+
+    @Override
+    public String toString() {
+        return "CommandCacheConfig{" +
+                "enabled=" + enabled +
+                ", ttlMillis=" + ttlMillis +
+                ", versionCheckIntervalMillis=" + versionCheckIntervalMillis +
+                '}';
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns how long a cached response is used before it is revalidated with the backend
+     */
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    public void setTtlMillis(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Returns how often the backend version is checked while the cache is used so that the cache is cleared
+     * when the backend is redeployed; 0 only checks when {@link ForgeClient#getInfo()} is called
+     */
+    public long getVersionCheckIntervalMillis() {
+        return versionCheckIntervalMillis;
+    }
+
+    public void setVersionCheckIntervalMillis(long versionCheckIntervalMillis) {
+        this.versionCheckIntervalMillis = versionCheckIntervalMillis;
+    }
+}
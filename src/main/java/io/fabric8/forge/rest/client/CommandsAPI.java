@@ -22,11 +22,13 @@ import io.fabric8.forge.rest.client.dto.VersionDTO;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Form;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.util.List;
@@ -46,6 +48,14 @@ public interface CommandsAPI {
     @Produces(MediaType.APPLICATION_JSON)
     List<String> getCommandNames();
 
+    /**
+     * Returns the command names or a <code>304 Not Modified</code> response if they still match the given entity tag
+     */
+    @GET
+    @Path("/commandNames")
+    @Produces(MediaType.APPLICATION_JSON)
+    Response getCommandNames(@HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch);
+
 
     @POST
     @Path("/commands/{name}/validate")
@@ -59,6 +69,14 @@ public interface CommandsAPI {
     @Produces(MediaType.APPLICATION_JSON)
     Response getCommandInput(@PathParam("name") String name) throws Exception;
 
+    /**
+     * Returns the command input or a <code>304 Not Modified</code> response if it still matches the given entity tag
+     */
+    @GET
+    @Path("/commands/{name}")
+    @Produces(MediaType.APPLICATION_JSON)
+    Response getCommandInput(@PathParam("name") String name, @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) throws Exception;
+
 
     @POST
     @Path("/commands/{commandName}/next")
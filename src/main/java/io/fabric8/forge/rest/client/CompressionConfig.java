@@ -0,0 +1,77 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+/**
+ * The settings of gzip compression of the requests to and responses from the backend used by {@link ForgeClient}
+ * when enabled
+ */
+public class CompressionConfig {
+    private boolean enabled;
+    private boolean compressRequests = true;
+    private int requestThresholdBytes = 4 * 1024;
+
+    @Override
+    public String toString() {
+        return "CompressionConfig{" +
+                "enabled=" + enabled +
+                ", compressRequests=" + compressRequests +
+                ", requestThresholdBytes=" + requestThresholdBytes +
+                '}';
+    }
+
+    /**
+     * Returns true if compression is enabled; responses are then requested with <code>Accept-Encoding: gzip</code>
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns true if request bodies larger than the threshold are sent gzipped; the backend must support
+     * <code>Content-Encoding: gzip</code> on requests
+     */
+    public boolean isCompressRequests() {
+        return compressRequests;
+    }
+
+    public void setCompressRequests(boolean compressRequests) {
+        this.compressRequests = compressRequests;
+    }
+
+    /**
+     * Returns the size of request body below which it is sent uncompressed as it would not be worth it
+     */
+    public int getRequestThresholdBytes() {
+        return requestThresholdBytes;
+    }
+
+    public void setRequestThresholdBytes(int requestThresholdBytes) {
+        this.requestThresholdBytes = requestThresholdBytes;
+    }
+
+    /**
+     * Returns true if a request body of the given size should be compressed
+     */
+    public boolean shouldCompressRequest(long length) {
+        return enabled && compressRequests && length >= requestThresholdBytes;
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+/**
+ * The connection pool settings used when {@link ForgeClient} uses the {@link TransportMode#POOLED} transport
+ */
+public class ConnectionPoolConfig {
+    private int maxTotal = 50;
+    private int maxPerRoute = 20;
+    private long keepAliveMillis = 60 * 1000L;
+    private long idleTimeoutMillis = 30 * 1000L;
+    private long evictionIntervalMillis = 5 * 1000L;
+    private long connectionRequestTimeoutMillis = 60 * 1000L;
+
+    @Override
+    public String toString() {
+        return "ConnectionPoolConfig{" +
+                "maxTotal=" + maxTotal +
+                ", maxPerRoute=" + maxPerRoute +
+                ", keepAliveMillis=" + keepAliveMillis +
+                ", idleTimeoutMillis=" + idleTimeoutMillis +
+                ", evictionIntervalMillis=" + evictionIntervalMillis +
+                ", connectionRequestTimeoutMillis=" + connectionRequestTimeoutMillis +
+                '}';
+    }
+
+    /**
+     * Returns the maximum number of connections in the pool across all routes
+     */
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    public void setMaxTotal(int maxTotal) {
+        this.maxTotal = maxTotal;
+    }
+
+    /**
+     * Returns the maximum number of connections to a single host
+     */
+    public int getMaxPerRoute() {
+        return maxPerRoute;
+    }
+
+    public void setMaxPerRoute(int maxPerRoute) {
+        this.maxPerRoute = maxPerRoute;
+    }
+
+    /**
+     * Returns how long an idle connection is kept alive when the server does not send a <code>Keep-Alive</code> timeout
+     */
+    public long getKeepAliveMillis() {
+        return keepAliveMillis;
+    }
+
+    public void setKeepAliveMillis(long keepAliveMillis) {
+        this.keepAliveMillis = keepAliveMillis;
+    }
+
+    /**
+     * Returns how long a connection may stay idle in the pool before it is evicted
+     */
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * Returns how often expired and idle connections are evicted; 0 disables background eviction
+     */
+    public long getEvictionIntervalMillis() {
+        return evictionIntervalMillis;
+    }
+
+    public void setEvictionIntervalMillis(long evictionIntervalMillis) {
+        this.evictionIntervalMillis = evictionIntervalMillis;
+    }
+
+    /**
+     * Returns how long a request waits to lease a connection when the pool is exhausted
+     */
+    public long getConnectionRequestTimeoutMillis() {
+        return connectionRequestTimeoutMillis;
+    }
+
+    public void setConnectionRequestTimeoutMillis(long connectionRequestTimeoutMillis) {
+        this.connectionRequestTimeoutMillis = connectionRequestTimeoutMillis;
+    }
+}
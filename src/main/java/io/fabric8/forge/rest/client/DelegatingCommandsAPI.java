@@ -0,0 +1,110 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.dto.ExecutionRequest;
+import io.fabric8.forge.rest.client.dto.VersionDTO;
+import io.fabric8.utils.Closeables;
+
+import javax.ws.rs.core.Form;
+import javax.ws.rs.core.Response;
+import java.io.Closeable;
+import java.util.List;
+
+/**
+ * A base class for decorators of a {@link CommandsAPI} which by default invoke the delegate
+ */
+public abstract class DelegatingCommandsAPI implements CommandsAPI, Closeable {
+    private final CommandsAPI delegate;
+
+    public DelegatingCommandsAPI(CommandsAPI delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Returns the first {@link CommandsAPI} of the given type in the chain of decorators starting at the given client
+     */
+    public static <T> T unwrap(CommandsAPI api, Class<T> type) {
+        while (api != null) {
+            if (type.isInstance(api)) {
+                return type.cast(api);
+            }
+            if (api instanceof DelegatingCommandsAPI) {
+                api = ((DelegatingCommandsAPI) api).getDelegate();
+            } else {
+                api = null;
+            }
+        }
+        return null;
+    }
+
+    public CommandsAPI getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public VersionDTO getInfo() {
+        return delegate.getInfo();
+    }
+
+    @Override
+    public List<String> getCommandNames() {
+        return delegate.getCommandNames();
+    }
+
+    @Override
+    public Response getCommandNames(String ifNoneMatch) {
+        return delegate.getCommandNames(ifNoneMatch);
+    }
+
+    @Override
+    public Response validateCommand(String name, ExecutionRequest executionRequest) throws Exception {
+        return delegate.validateCommand(name, executionRequest);
+    }
+
+    @Override
+    public Response getCommandInput(String name) throws Exception {
+        return delegate.getCommandInput(name);
+    }
+
+    @Override
+    public Response getCommandInput(String name, String ifNoneMatch) throws Exception {
+        return delegate.getCommandInput(name, ifNoneMatch);
+    }
+
+    @Override
+    public Response nextStep(String name, ExecutionRequest executionRequest) throws Exception {
+        return delegate.nextStep(name, executionRequest);
+    }
+
+    @Override
+    public Response executeCommand(String name, ExecutionRequest executionRequest) throws Exception {
+        return delegate.executeCommand(name, executionRequest);
+    }
+
+    @Override
+    public Response executeCommand(String commandName, Form form) throws Exception {
+        return delegate.executeCommand(commandName, form);
+    }
+
+    @Override
+    public void close() {
+        if (delegate instanceof Closeable) {
+            Closeables.closeQuietly((Closeable) delegate);
+        }
+    }
+}
@@ -20,19 +20,32 @@ import io.fabric8.utils.Strings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 /**
  */
 public class EnvironmentVariables {
     public static final String GENERATOR_BACKEND_URL = "FABRIC8_GENERATOR_URL";
     public static final String JENKINS_URL = "JENKINS_URL";
     private static final transient Logger LOG = LoggerFactory.getLogger(EnvironmentVariables.class);
+    private static final ConcurrentMap<String, String> loggedValues = new ConcurrentHashMap<>();
 
+    /**
+     * Returns the value of the environment variable, or of the system property of the same name if the
+     * variable is not set, or else the default value, logging the value used only the first time it is looked up
+     */
     public static String getEnvironmentValue(String envVarName, String defaultValue) {
         String answer = System.getenv(envVarName);
+        if (Strings.isNullOrBlank(answer)) {
+            answer = System.getProperty(envVarName);
+        }
         if (Strings.isNullOrBlank(answer)) {
             answer = defaultValue;
         }
-        LOG.info("Using $" + envVarName + " value " + answer);
+        if (answer != null && !answer.equals(loggedValues.put(envVarName, answer))) {
+            LOG.info("Using $" + envVarName + " value " + answer);
+        }
         return answer;
     }
 }
@@ -17,7 +17,6 @@
 package io.fabric8.forge.rest.client;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import io.fabric8.forge.rest.client.dto.CommandInputDTO;
 import io.fabric8.forge.rest.client.dto.ExecutionRequest;
@@ -27,22 +26,28 @@ import io.fabric8.forge.rest.client.dto.NextStepResult;
 import io.fabric8.forge.rest.client.dto.ValidationResult;
 import io.fabric8.forge.rest.client.dto.VersionDTO;
 import io.fabric8.forge.rest.client.dto.WizardState;
+import io.fabric8.forge.rest.client.metrics.CompressionMetrics;
+import io.fabric8.forge.rest.client.metrics.ForgeClientMetrics;
 import io.fabric8.kubernetes.api.Controller;
 import io.fabric8.kubernetes.api.KubernetesHelper;
+import io.fabric8.kubernetes.client.Config;
+import io.fabric8.kubernetes.client.ConfigBuilder;
 import io.fabric8.kubernetes.client.DefaultKubernetesClient;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.openshift.client.OpenShiftClient;
 import io.fabric8.project.support.UserDetails;
+import io.fabric8.utils.Closeables;
 import io.fabric8.utils.IOHelpers;
 import io.fabric8.utils.Strings;
 import io.fabric8.utils.URLUtils;
-import io.fabric8.utils.cxf.JsonHelper;
 import io.fabric8.utils.cxf.WebClients;
 import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.jaxrs.client.ClientConfiguration;
 import org.apache.cxf.jaxrs.client.JAXRSClientFactory;
 import org.apache.cxf.jaxrs.client.WebClient;
 import org.apache.cxf.transport.http.HTTPConduit;
 import org.apache.cxf.transports.http.configuration.HTTPClientPolicy;
+import org.apache.http.pool.PoolStats;
 import org.eclipse.jgit.lib.PersonIdent;
 import org.eclipse.jgit.transport.CredentialsProvider;
 import org.slf4j.Logger;
@@ -51,10 +56,15 @@ import org.slf4j.LoggerFactory;
 import javax.ws.rs.core.Form;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static io.fabric8.forge.rest.client.EnvironmentVariables.getEnvironmentValue;
 import static io.fabric8.utils.cxf.WebClients.disableSslChecks;
@@ -62,38 +72,104 @@ import static io.fabric8.utils.cxf.WebClients.disableSslChecks;
 /**
  * A simple Java Facade for interacting with the Fabric8 Forge
  */
-public class ForgeClient {
+public class ForgeClient implements Closeable {
     private static final transient Logger LOG = LoggerFactory.getLogger(ForgeClient.class);
 
     //private String address = getEnvironmentValue(EnvironmentVariables.GENERATOR_BACKEND_URL, "http://generator-backend/");
-    private String address = getEnvironmentValue(EnvironmentVariables.GENERATOR_BACKEND_URL, "http://localhost:8080/");
-    private CommandsAPI clientAPI;
-    private String namespace;
+    private volatile String address;
+    private volatile CommandsAPI clientAPI;
+    private volatile String namespace;
     private String secret = "default-gogs-git";
     private String secretNamespace = "user-secrets-source-admin";
     private String kubeUserName = "admin";
     private boolean debugResponses;
-    private KubernetesClient kubernetesClient = new DefaultKubernetesClient();
+    private volatile KubernetesClient kubernetesClient;
+    private volatile OpenShiftClient openShiftClient;
+    private volatile ServiceEndpointResolver serviceEndpointResolver;
     private long connectionTimeoutMillis = 10 * 60 * 1000L;
-    private PersonIdent personIdent;
+    private volatile PersonIdent personIdent;
     private String gitUser = "gogsadmin";
     private String gitPassword = "RedHat$1";
     private String gitEmail = "gogsadmin@acme.com";
+    private final ForgeJsonCodec jsonCodec = new ForgeJsonCodec();
+    private TransportMode transportMode = TransportMode.CXF;
+    private ConnectionPoolConfig connectionPoolConfig = new ConnectionPoolConfig();
+    private ForgeClientMetrics metrics = new ForgeClientMetrics();
+    private CommandCacheConfig commandCacheConfig = new CommandCacheConfig();
+    private CompressionConfig compressionConfig = new CompressionConfig();
+    private ValidationMemoConfig validationMemoConfig = new ValidationMemoConfig();
+    private RetryConfig retryConfig = new RetryConfig();
+    private CircuitBreakerConfig circuitBreakerConfig = new CircuitBreakerConfig();
+    private LoadBalancerConfig loadBalancerConfig = new LoadBalancerConfig();
+    private boolean lazyExecutionResults;
+    private ResponseCaptureConfig responseCaptureConfig = new ResponseCaptureConfig();
 
     public ForgeClient() {
     }
 
+    /**
+     * Returns the kubernetes client, creating it on first use so that clients which only talk to the
+     * backend do not pay for loading the kubernetes configuration
+     */
     public KubernetesClient getKubernetesClient() {
-        return kubernetesClient;
+        KubernetesClient answer = kubernetesClient;
+        if (answer == null) {
+            synchronized (this) {
+                answer = kubernetesClient;
+                if (answer == null) {
+                    answer = new DefaultKubernetesClient(KubernetesConfigHolder.CONFIG);
+                    kubernetesClient = answer;
+                }
+            }
+        }
+        return answer;
     }
 
-    public void setKubernetesClient(KubernetesClient kubernetesClient) {
+    public synchronized void setKubernetesClient(KubernetesClient kubernetesClient) {
         this.kubernetesClient = kubernetesClient;
+        this.openShiftClient = null;
+        setServiceEndpointResolver(null);
     }
 
+    /**
+     * Returns the resolver of the service URLs of the cluster, creating it on first use
+     */
+    public ServiceEndpointResolver getServiceEndpointResolver() {
+        ServiceEndpointResolver answer = serviceEndpointResolver;
+        if (answer == null) {
+            synchronized (this) {
+                answer = serviceEndpointResolver;
+                if (answer == null) {
+                    answer = new ServiceEndpointResolver(getKubernetesClient());
+                    serviceEndpointResolver = answer;
+                }
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Sets the resolver of the service URLs, closing any previous resolver
+     */
+    public synchronized void setServiceEndpointResolver(ServiceEndpointResolver serviceEndpointResolver) {
+        ServiceEndpointResolver old = this.serviceEndpointResolver;
+        this.serviceEndpointResolver = serviceEndpointResolver;
+        if (old != null && old != serviceEndpointResolver) {
+            old.close();
+        }
+    }
 
     public OpenShiftClient getOpenShiftOrJenkinshiftClient() {
-        return new Controller(kubernetesClient).getOpenShiftClientOrJenkinshift();
+        OpenShiftClient answer = openShiftClient;
+        if (answer == null) {
+            answer = new Controller(getKubernetesClient()).getOpenShiftClientOrJenkinshift();
+            openShiftClient = answer;
+        }
+        return answer;
+    }
+
+    public ForgeJsonCodec getJsonCodec() {
+        return jsonCodec;
     }
 
     public long getConnectionTimeoutMillis() {
@@ -104,6 +180,223 @@ public class ForgeClient {
         this.connectionTimeoutMillis = connectionTimeoutMillis;
     }
 
+    public TransportMode getTransportMode() {
+        return transportMode;
+    }
+
+    public void setTransportMode(TransportMode transportMode) {
+        this.transportMode = transportMode;
+    }
+
+    public ConnectionPoolConfig getConnectionPoolConfig() {
+        return connectionPoolConfig;
+    }
+
+    public void setConnectionPoolConfig(ConnectionPoolConfig connectionPoolConfig) {
+        this.connectionPoolConfig = connectionPoolConfig;
+    }
+
+    /**
+     * Returns the connection pool statistics when using the {@link TransportMode#POOLED} transport or null otherwise
+     */
+    public PoolStats getConnectionPoolStats() {
+        PooledCommandsAPI api = DelegatingCommandsAPI.unwrap(this.clientAPI, PooledCommandsAPI.class);
+        if (api != null) {
+            return api.getPoolStats();
+        }
+        return null;
+    }
+
+    public CommandCacheConfig getCommandCacheConfig() {
+        return commandCacheConfig;
+    }
+
+    /**
+     * Sets the configuration of the cache of command inputs and names; this must be set before the first call to the backend
+     */
+    public void setCommandCacheConfig(CommandCacheConfig commandCacheConfig) {
+        this.commandCacheConfig = commandCacheConfig;
+    }
+
+    public CompressionConfig getCompressionConfig() {
+        return compressionConfig;
+    }
+
+    /**
+     * Sets the gzip compression settings of requests and responses; this must be set before the first call to the backend
+     */
+    public void setCompressionConfig(CompressionConfig compressionConfig) {
+        this.compressionConfig = compressionConfig;
+    }
+
+    /**
+     * Returns the cache of command inputs and names with its hit and miss statistics or null if it is not enabled
+     */
+    public CachingCommandsAPI getCommandCache() {
+        return DelegatingCommandsAPI.unwrap(getClientAPI(), CachingCommandsAPI.class);
+    }
+
+    public LoadBalancerConfig getLoadBalancerConfig() {
+        return loadBalancerConfig;
+    }
+
+    /**
+     * Sets the settings of balancing the calls across the pods of the backend; this must be set before the first
+     * call to the backend
+     */
+    public void setLoadBalancerConfig(LoadBalancerConfig loadBalancerConfig) {
+        this.loadBalancerConfig = loadBalancerConfig;
+    }
+
+    /**
+     * Returns the load balancer across the pods of the backend or null if load balancing is not enabled
+     */
+    public LoadBalancingCommandsAPI getLoadBalancer() {
+        return DelegatingCommandsAPI.unwrap(getClientAPI(), LoadBalancingCommandsAPI.class);
+    }
+
+    public CircuitBreakerConfig getCircuitBreakerConfig() {
+        return circuitBreakerConfig;
+    }
+
+    /**
+     * Sets the circuit breaker and bulkhead settings of the calls to the backend; this must be set before the
+     * first call to the backend
+     */
+    public void setCircuitBreakerConfig(CircuitBreakerConfig circuitBreakerConfig) {
+        this.circuitBreakerConfig = circuitBreakerConfig;
+    }
+
+    /**
+     * Returns the circuit breaker of the given operation or null if circuit breakers are not enabled
+     */
+    public CircuitBreaker getCircuitBreaker(ForgeOperation operation) {
+        CircuitBreakerCommandsAPI api = DelegatingCommandsAPI.unwrap(getClientAPI(), CircuitBreakerCommandsAPI.class);
+        return api != null ? api.getCircuitBreaker(operation) : null;
+    }
+
+    public RetryConfig getRetryConfig() {
+        return retryConfig;
+    }
+
+    /**
+     * Sets the retry policies of the calls to the backend; this must be set before the first call to the backend
+     */
+    public void setRetryConfig(RetryConfig retryConfig) {
+        this.retryConfig = retryConfig;
+    }
+
+    /**
+     * Returns the retrying client with its retry and hedging statistics or null if retries are not enabled
+     */
+    public RetryingCommandsAPI getRetryingCommandsAPI() {
+        return DelegatingCommandsAPI.unwrap(getClientAPI(), RetryingCommandsAPI.class);
+    }
+
+    public ValidationMemoConfig getValidationMemoConfig() {
+        return validationMemoConfig;
+    }
+
+    /**
+     * Sets the configuration of the memo of validation results; this must be set before the first call to the backend
+     */
+    public void setValidationMemoConfig(ValidationMemoConfig validationMemoConfig) {
+        this.validationMemoConfig = validationMemoConfig;
+    }
+
+    /**
+     * Returns the memo of validation results with its hit and miss statistics or null if it is not enabled
+     */
+    public MemoizingCommandsAPI getValidationMemo() {
+        return DelegatingCommandsAPI.unwrap(getClientAPI(), MemoizingCommandsAPI.class);
+    }
+
+    public boolean isLazyExecutionResults() {
+        return lazyExecutionResults;
+    }
+
+    /**
+     * Whether execution results should keep only the raw bytes of the response and decode the text or
+     * parse the JSON on first use rather than holding both eagerly
+     */
+    public void setLazyExecutionResults(boolean lazyExecutionResults) {
+        this.lazyExecutionResults = lazyExecutionResults;
+    }
+
+    /**
+     * Returns the latency, status code and in flight metrics of the calls to the backend or null if disabled
+     */
+    public ForgeClientMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the metrics to record calls to the backend in, which may be shared by many clients, or null to disable them.
+     * This must be set before the first call to the backend.
+     */
+    public void setMetrics(ForgeClientMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Releases any pooled connections to the backend and closes the watches of the service endpoints
+     */
+    @Override
+    public void close() {
+        CommandsAPI api;
+        ServiceEndpointResolver resolver;
+        synchronized (this) {
+            api = this.clientAPI;
+            clientAPI = null;
+            resolver = serviceEndpointResolver;
+            serviceEndpointResolver = null;
+        }
+        if (api instanceof Closeable) {
+            Closeables.closeQuietly((Closeable) api);
+        }
+        if (resolver != null) {
+            resolver.close();
+        }
+    }
+
+    /**
+     * Returns the URL of the backend defaulting to the <code>FABRIC8_GENERATOR_URL</code> environment variable
+     * or else the generator backend service in the namespace
+     */
+    public String getAddress() {
+        String answer = address;
+        if (answer == null) {
+            answer = resolveAddress();
+            address = answer;
+        }
+        return answer;
+    }
+
+    /**
+     * Resolves the URL of the backend from the <code>FABRIC8_GENERATOR_URL</code> environment variable or else using
+     * {@link ForgeClientHelpers#getGeneratorBackendURL(ServiceEndpointResolver, String)}, falling back to the default
+     * URL if the cluster cannot be reached. The kubernetes client is only created if the variable is not set.
+     */
+    protected String resolveAddress() {
+        String answer = getEnvironmentValue(EnvironmentVariables.GENERATOR_BACKEND_URL, null);
+        if (Strings.isNotBlank(answer)) {
+            return answer;
+        }
+        try {
+            return ForgeClientHelpers.getGeneratorBackendURL(getServiceEndpointResolver(), getNamespace());
+        } catch (RuntimeException e) {
+            LOG.warn("Could not resolve the " + ForgeClientHelpers.GENERATOR_BACKEND_SERVICE + " service. " + e);
+            return getEnvironmentValue(EnvironmentVariables.GENERATOR_BACKEND_URL, ForgeClientHelpers.DEFAULT_GENERATOR_BACKEND_URL);
+        }
+    }
+
+    /**
+     * Sets the URL of the backend; this must be set before the first call to the backend
+     */
+    public void setAddress(String address) {
+        this.address = address;
+    }
+
     public boolean isDebugResponses() {
         return debugResponses;
     }
@@ -112,17 +405,30 @@ public class ForgeClient {
         this.debugResponses = debugResponses;
     }
 
+    /**
+     * Returns how much of each response is logged and how often when {@link #isDebugResponses()} is enabled
+     */
+    public ResponseCaptureConfig getResponseCaptureConfig() {
+        return responseCaptureConfig;
+    }
+
+    public void setResponseCaptureConfig(ResponseCaptureConfig responseCaptureConfig) {
+        this.responseCaptureConfig = responseCaptureConfig;
+    }
+
     public String getNamespace() {
-        if (Strings.isNullOrBlank(namespace)) {
-            namespace = kubernetesClient.getNamespace();
+        String answer = namespace;
+        if (Strings.isNullOrBlank(answer)) {
+            answer = getKubernetesClient().getNamespace();
         }
-        if (Strings.isNullOrBlank(namespace)) {
-            namespace = KubernetesHelper.defaultNamespace();
+        if (Strings.isNullOrBlank(answer)) {
+            answer = KubernetesHelper.defaultNamespace();
         }
-        if (Strings.isNullOrBlank(namespace)) {
-            namespace = "default";
+        if (Strings.isNullOrBlank(answer)) {
+            answer = "default";
         }
-        return namespace;
+        namespace = answer;
+        return answer;
     }
 
     public void setNamespace(String namespace) {
@@ -155,10 +461,12 @@ public class ForgeClient {
 
 
     public PersonIdent getPersonIdent() {
-        if (personIdent == null) {
-            personIdent = new PersonIdent(gitUser, gitEmail);
+        PersonIdent answer = personIdent;
+        if (answer == null) {
+            answer = new PersonIdent(gitUser, gitEmail);
+            personIdent = answer;
         }
-        return personIdent;
+        return answer;
     }
 
     public void setPersonIdent(PersonIdent personIdent) {
@@ -273,6 +581,20 @@ public class ForgeClient {
     }
 
     protected Response doExecuteCommand(String name, ExecutionRequest executionRequest) throws Exception {
+        Form form = createForm(executionRequest);
+        CommandsAPI api = getClientAPI();
+        LoadBalancingCommandsAPI loadBalancer = DelegatingCommandsAPI.unwrap(api, LoadBalancingCommandsAPI.class);
+        if (loadBalancer != null) {
+            // execute on the pod which validated the request
+            loadBalancer.bindAffinity(form, executionRequest);
+        }
+        return api.executeCommand(name, form);
+    }
+
+    /**
+     * Creates the form posted to the execute operation from the inputs of the request
+     */
+    protected static Form createForm(ExecutionRequest executionRequest) {
         Form form = new Form();
         List<InputValueDTO> inputs = executionRequest.getInputs();
         if (inputs != null) {
@@ -280,65 +602,154 @@ public class ForgeClient {
                 input.addToForm(form);
             }
         }
-        return getClientAPI().executeCommand(name, form);
+        return form;
     }
 
     protected Response doValidateCommand(String name, ExecutionRequest executionRequest) throws Exception {
         return getClientAPI().validateCommand(name, executionRequest);
     }
 
+    /**
+     * Returns the client for the backend which is created once and then shared by all threads using this client
+     */
     protected CommandsAPI getClientAPI() {
-        if (clientAPI == null) {
-            clientAPI = createWebClient(CommandsAPI.class);
+        CommandsAPI answer = clientAPI;
+        if (answer == null) {
+            synchronized (this) {
+                answer = clientAPI;
+                if (answer == null) {
+                    answer = createClientAPI();
+                    clientAPI = answer;
+                }
+            }
         }
-        return clientAPI;
+        return answer;
     }
 
     /**
-     * Creates a JAXRS web client for the given JAXRS client
+     * Creates the client for the backend using the current {@link TransportMode}
+     */
+    protected CommandsAPI createClientAPI() {
+        CommandsAPI answer;
+        if (loadBalancerConfig != null && loadBalancerConfig.isEnabled()) {
+            answer = new LoadBalancingCommandsAPI(createEndpointDiscovery(), this::createTransport,
+                    loadBalancerConfig.getRefreshIntervalMillis(), getAddress());
+        } else {
+            answer = createTransport(getAddress());
+        }
+        if (metrics != null) {
+            answer = new InstrumentedCommandsAPI(answer, metrics);
+        }
+        if (circuitBreakerConfig != null && circuitBreakerConfig.isEnabled()) {
+            answer = new CircuitBreakerCommandsAPI(answer, circuitBreakerConfig);
+        }
+        if (retryConfig != null && retryConfig.isEnabled()) {
+            answer = new RetryingCommandsAPI(answer, retryConfig);
+        }
+        if (commandCacheConfig != null && commandCacheConfig.isEnabled()) {
+            answer = new CachingCommandsAPI(answer, jsonCodec, commandCacheConfig);
+        }
+        if (validationMemoConfig != null && validationMemoConfig.isEnabled()) {
+            answer = new MemoizingCommandsAPI(answer, jsonCodec, validationMemoConfig);
+        }
+        return answer;
+    }
+
+    /**
+     * Creates the discovery of the addresses of the backend pods to balance the calls across
+     */
+    protected Supplier<List<String>> createEndpointDiscovery() {
+        return new BackendEndpointDiscovery(getServiceEndpointResolver(), loadBalancerConfig, getAddress());
+    }
+
+    /**
+     * Creates the client of the backend at the given address using the current {@link TransportMode}
+     */
+    protected CommandsAPI createTransport(String address) {
+        if (transportMode == TransportMode.POOLED) {
+            return new PooledCommandsAPI(address, jsonCodec, connectionPoolConfig, connectionTimeoutMillis,
+                    compressionConfig, metrics != null ? metrics.getCompression() : null);
+        } else {
+            return createWebClient(CommandsAPI.class, address);
+        }
+    }
+
+    /**
+     * Creates a thread safe JAXRS web client for the given JAXRS client so that a proxy can be shared by concurrent wizards
      */
     protected <T> T createWebClient(Class<T> clientType) {
+        return createWebClient(clientType, getAddress());
+    }
+
+    protected <T> T createWebClient(Class<T> clientType, String address) {
+        // the proxy shares the configuration of the web client so it already has the compression interceptors
+        WebClient webClient = createWebClient(true, address);
+        return JAXRSClientFactory.fromClient(webClient, clientType);
+    }
+
+    /**
+     * Creates a {@link WebClient} on the backend address using the SSL and timeout configuration of this client
+     */
+    protected WebClient createWebClient(boolean threadSafe) {
+        return createWebClient(threadSafe, getAddress());
+    }
+
+    protected WebClient createWebClient(boolean threadSafe, String address) {
         List<Object> providers = WebClients.createProviders();
         String queryString = "";
-        String commandsAddress = URLUtils.pathJoin(this.address, "" + queryString);
-        WebClient webClient = WebClient.create(commandsAddress, providers);
+        String commandsAddress = URLUtils.pathJoin(address, "" + queryString);
+        WebClient webClient = WebClient.create(commandsAddress, providers, threadSafe);
         disableSslChecks(webClient);
         HTTPConduit conduit = WebClient.getConfig(webClient).getHttpConduit();
         HTTPClientPolicy httpClientPolicy = new HTTPClientPolicy();
         httpClientPolicy.setConnectionTimeout(connectionTimeoutMillis);
         httpClientPolicy.setReceiveTimeout(connectionTimeoutMillis);
         conduit.setClient(httpClientPolicy);
+        configureCompression(WebClient.getConfig(webClient));
+        return webClient;
+    }
 
-        return JAXRSClientFactory.fromClient(webClient, clientType);
+    /**
+     * Adds the interceptors for gzip compression if it is enabled
+     */
+    protected void configureCompression(ClientConfiguration config) {
+        if (compressionConfig != null && compressionConfig.isEnabled()) {
+            CompressionMetrics compressionMetrics = metrics != null ? metrics.getCompression() : null;
+            config.getOutInterceptors().add(new GzipOutInterceptor(compressionConfig, compressionMetrics));
+            config.getInInterceptors().add(new GzipInInterceptor(compressionMetrics));
+        }
     }
 
 
     protected <T> T parseResponse(Response response, Class<T> clazz) throws IOException {
         Object entity = response.getEntity();
-        ObjectMapper objectMapper = JsonHelper.createObjectMapper();
-        ObjectReader reader = objectMapper.readerFor(clazz);
+        ObjectReader reader = jsonCodec.readerFor(clazz);
         if (entity instanceof Reader) {
             Reader input = (Reader) entity;
             return reader.readValue(input);
         } else if (entity instanceof InputStream) {
             InputStream input = (InputStream) entity;
-            if (debugResponses) {
-                String json = IOUtils.readStringFromStream(input);
-                LOG.info("Received JSON: " + json);
-                return reader.readValue(json);
+            ResponseCaptureConfig config = responseCaptureConfig;
+            if (debugResponses && config != null && config.isSampled()) {
+                CapturingInputStream capture = new CapturingInputStream(input, config.getHeadBytes(), config.getTailBytes());
+                try {
+                    return reader.readValue(capture);
+                } finally {
+                    LOG.info("Received JSON (" + capture.getCount() + " bytes): " + capture.getCapturedText(getCharset(response.getMediaType())));
+                }
             } else {
                 return reader.readValue(input);
             }
         } else if (entity instanceof String) {
             String text = (String) entity;
             if (debugResponses) {
-                LOG.info("Received JSON: " + text);
+                logResponse(text.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
             }
             return reader.readValue(text);
         } else if (entity instanceof byte[]) {
             byte[] data = (byte[]) entity;
             if (debugResponses) {
-                LOG.info("Received JSON: " + new String(data));
+                logResponse(data, getCharset(response.getMediaType()));
             }
             return reader.readValue(data);
         } else if (clazz.isInstance(entity)) {
@@ -350,12 +761,37 @@ public class ForgeClient {
         }
     }
 
+    private void logResponse(byte[] data, Charset charset) throws IOException {
+        ResponseCaptureConfig config = responseCaptureConfig;
+        if (config != null && config.isSampled()) {
+            CapturingInputStream capture = new CapturingInputStream(new ByteArrayInputStream(data), config.getHeadBytes(), config.getTailBytes());
+            IOUtils.consume(capture);
+            LOG.info("Received JSON (" + capture.getCount() + " bytes): " + capture.getCapturedText(charset));
+        }
+    }
 
     protected ExecutionResult parseExecutionResult(Response response) {
         MediaType mediaType = response.getMediaType();
-        boolean json = mediaType != null && MediaType.APPLICATION_JSON_TYPE.equals(mediaType);
-        String text = null;
+        boolean json = isJson(mediaType);
+        Charset charset = getCharset(mediaType);
+        int status = response.getStatus();
         Object entity = response.getEntity();
+        if (lazyExecutionResults && !(entity instanceof Reader) && !(entity instanceof String)) {
+            byte[] data = null;
+            if (entity instanceof InputStream) {
+                try (InputStream input = (InputStream) entity) {
+                    data = IOUtils.readBytesFromStream(input);
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to parse entity response for " + response.getLocation() + ". " + e, e);
+                }
+            } else if (entity instanceof byte[]) {
+                data = (byte[]) entity;
+            } else if (entity != null) {
+                data = entity.toString().getBytes(charset);
+            }
+            return new ExecutionResult(status, data, charset, json, jsonCodec.getObjectMapper());
+        }
+        String text = null;
         if (entity instanceof Reader) {
             Reader input = (Reader) entity;
             try {
@@ -364,9 +800,8 @@ public class ForgeClient {
                 throw new RuntimeException("Failed to parse entity response for " + response.getLocation() + ". " + e, e);
             }
         } else if (entity instanceof InputStream) {
-            InputStream input = (InputStream) entity;
-            try {
-                text = IOHelpers.readFully(input);
+            try (InputStream input = (InputStream) entity) {
+                text = new String(IOUtils.readBytesFromStream(input), charset);
             } catch (IOException e) {
                 throw new RuntimeException("Failed to parse entity response for " + response.getLocation() + ". " + e, e);
             }
@@ -374,21 +809,45 @@ public class ForgeClient {
             text = (String) entity;
         } else if (entity instanceof byte[]) {
             byte[] data = (byte[]) entity;
-            text = new String(data);
+            text = new String(data, charset);
         } else if (entity != null) {
             text = entity.toString();
         }
-        int status = response.getStatus();
         JsonNode data = null;
         if (json && Strings.isNotBlank(text)) {
-            ObjectMapper objectMapper = JsonHelper.createObjectMapper();
             try {
-                data = objectMapper.readTree(text);
+                data = jsonCodec.readTree(text);
             } catch (IOException e) {
                 throw new RuntimeException("Failed to parse JSON response: " + text + ". " + e, e);
             }
         }
-        return new ExecutionResult(status, text, data);
+        return new ExecutionResult(status, text, data, jsonCodec.getObjectMapper());
+    }
+
+    /**
+     * Returns true if the media type is JSON ignoring any parameters such as the charset
+     */
+    protected static boolean isJson(MediaType mediaType) {
+        if (mediaType == null || !"application".equalsIgnoreCase(mediaType.getType())) {
+            return false;
+        }
+        String subtype = mediaType.getSubtype();
+        return subtype != null && (subtype.equalsIgnoreCase("json") || subtype.toLowerCase().endsWith("+json"));
+    }
+
+    /**
+     * Returns the charset of the media type defaulting to UTF-8 which is the default encoding of JSON
+     */
+    protected static Charset getCharset(MediaType mediaType) {
+        String name = mediaType != null ? mediaType.getParameters().get(MediaType.CHARSET_PARAMETER) : null;
+        if (Strings.isNotBlank(name)) {
+            try {
+                return Charset.forName(name.trim());
+            } catch (IllegalArgumentException e) {
+                LOG.warn("Ignoring unsupported charset " + name + " of response. " + e);
+            }
+        }
+        return StandardCharsets.UTF_8;
     }
 
     public CredentialsProvider createCredentialsProvider() {
@@ -397,4 +856,10 @@ public class ForgeClient {
         return new UserDetails(address, internalAddress, gitUser, gitPassword, gitEmail).createCredentialsProvider();
     }
 
+    /**
+     * Loads the kubernetes configuration once on first use and shares it between clients
+     */
+    private static class KubernetesConfigHolder {
+        private static final Config CONFIG = new ConfigBuilder().build();
+    }
 }
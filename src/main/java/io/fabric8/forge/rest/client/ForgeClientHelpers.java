@@ -21,6 +21,7 @@ import com.offbytwo.jenkins.client.JenkinsHttpClient;
 import io.fabric8.forge.rest.client.dto.CommandInputDTO;
 import io.fabric8.forge.rest.client.dto.ExecutionRequest;
 import io.fabric8.forge.rest.client.dto.InputValueDTO;
+import io.fabric8.forge.rest.client.dto.InputValueList;
 import io.fabric8.forge.rest.client.dto.PropertyDTO;
 import io.fabric8.forge.rest.client.dto.ValidationResult;
 import io.fabric8.forge.rest.client.dto.WizardState;
@@ -46,11 +47,13 @@ import javax.net.ssl.SSLException;
 import javax.net.ssl.SSLSession;
 import javax.net.ssl.SSLSocket;
 import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509TrustManager;
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
@@ -73,11 +76,16 @@ import static io.fabric8.forge.rest.client.EnvironmentVariables.getEnvironmentVa
 /**
  */
 public class ForgeClientHelpers {
+    public static final String GENERATOR_BACKEND_SERVICE = "generator-backend";
+    public static final String DEFAULT_GENERATOR_BACKEND_URL = "http://localhost:8080/";
     private static final transient Logger LOG = LoggerFactory.getLogger(ForgeClientHelpers.class);
 
     public static Map<String, Object> getLastPage(ExecutionRequest executionRequest) {
-        Map<String, Object> page = new HashMap<>();
         List<InputValueDTO> inputList = executionRequest.getInputs();
+        if (inputList instanceof InputValueList) {
+            return ((InputValueList) inputList).toMap();
+        }
+        Map<String, Object> page = new HashMap<>();
         if (inputList != null) {
             for (InputValueDTO value : inputList) {
                 page.put(value.getName(), value.getValue());
@@ -148,6 +156,10 @@ public class ForgeClientHelpers {
     }
 
     private static void setInputListValue(List<InputValueDTO> inputList, String name, Object value) {
+        if (inputList instanceof InputValueList) {
+            ((InputValueList) inputList).setValue(name, value);
+            return;
+        }
         for (InputValueDTO input : inputList) {
             if (input.getName().equals(name)) {
                 input.setValue(value);
@@ -178,6 +190,22 @@ public class ForgeClientHelpers {
     }
 
     public static JenkinsServer createJenkinsServer(final KubernetesClient kubernetesClient, String jenkinsNamespace) throws URISyntaxException, CertificateException, UnrecoverableKeyException, NoSuchAlgorithmException, KeyStoreException, KeyManagementException, InvalidKeySpecException, IOException {
+        return new JenkinsServer(createJenkinsHttpClient(kubernetesClient, jenkinsNamespace));
+/*
+        String username = System.getenv("JENKINS_USER");
+        String password = System.getenv("JENKINS_PASSWORD");
+        if (Strings.isNotBlank(username) && Strings.isNotBlank(password)) {
+            return new JenkinsServer(serverUri, username, password);
+        }
+        return new JenkinsServer(serverUri);
+*/
+    }
+
+    /**
+     * Creates the HTTP client for the Jenkins service in the given namespace which can be shared by a
+     * {@link JenkinsServer} and a {@link BuildWatchService}
+     */
+    public static JenkinsHttpClient createJenkinsHttpClient(final KubernetesClient kubernetesClient, String jenkinsNamespace) throws URISyntaxException, CertificateException, UnrecoverableKeyException, NoSuchAlgorithmException, KeyStoreException, KeyManagementException, InvalidKeySpecException, IOException {
         final Config config = kubernetesClient.getConfiguration();
         String url = getJenkinsURL(kubernetesClient, jenkinsNamespace);
         if (Strings.isNullOrBlank(url) || url.startsWith("http://null:")) {
@@ -198,16 +226,7 @@ public class ForgeClientHelpers {
                 }
             }
         });
-        JenkinsHttpClient client = new JenkinsHttpClient(serverUri, builder);
-        return new JenkinsServer(client);
-/*
-        String username = System.getenv("JENKINS_USER");
-        String password = System.getenv("JENKINS_PASSWORD");
-        if (Strings.isNotBlank(username) && Strings.isNotBlank(password)) {
-            return new JenkinsServer(serverUri, username, password);
-        }
-        return new JenkinsServer(serverUri);
-*/
+        return new JenkinsHttpClient(serverUri, builder);
     }
 
     protected static void configureSsl(HttpClientBuilder httpClientBuilder, Config config) throws CertificateException, NoSuchAlgorithmException, KeyStoreException, IOException, KeyManagementException, UnrecoverableKeyException, InvalidKeySpecException {
@@ -229,27 +248,26 @@ public class ForgeClientHelpers {
                 return true;
             }
         });
+        httpClientBuilder.setSslcontext(createSslContext(config));
+    }
+
+    /**
+     * Creates the SSL context for talking to services in the cluster using the certificates of the given configuration
+     */
+    public static SSLContext createSslContext(Config config) throws CertificateException, NoSuchAlgorithmException, KeyStoreException, IOException, KeyManagementException, UnrecoverableKeyException, InvalidKeySpecException {
         TrustManager[] trustManagers = SSLUtils.trustManagers(config);
         KeyManager[] keyManagers = SSLUtils.keyManagers(config);
 
         if (keyManagers != null || trustManagers != null || config.isTrustCerts()) {
-            X509TrustManager trustManager = null;
-            if (trustManagers != null && trustManagers.length == 1) {
-                trustManager = (X509TrustManager) trustManagers[0];
-            }
-
             try {
-                SSLContext sslContext = SSLUtils.sslContext(keyManagers, trustManagers, config.isTrustCerts());
-                httpClientBuilder.setSslcontext(sslContext);
-                //httpClientBuilder.sslSocketFactory(sslContext.getSocketFactory(), trustManager);
+                return SSLUtils.sslContext(keyManagers, trustManagers, config.isTrustCerts());
             } catch (GeneralSecurityException e) {
                 throw new AssertionError(); // The system has no TLS. Just give up.
             }
         } else {
             SSLContext context = SSLContext.getInstance("TLSv1.2");
             context.init(keyManagers, trustManagers, null);
-            httpClientBuilder.setSslcontext(context);
-            //httpClientBuilder.sslSocketFactory(context.getSocketFactory(), (X509TrustManager) trustManagers[0]);
+            return context;
         }
     }
 
@@ -261,6 +279,32 @@ public class ForgeClientHelpers {
         return getEnvironmentValue(EnvironmentVariables.JENKINS_URL, "http://jenkins/");
     }
 
+    /**
+     * Returns the URL of Jenkins using the cached endpoints of the resolver rather than querying the cluster
+     */
+    public static String getJenkinsURL(ServiceEndpointResolver resolver, String namespace) {
+        String jenkinsUrl = resolver.getServiceURL(ServiceNames.JENKINS, namespace, "http", true);
+        if (Strings.isNotBlank(jenkinsUrl)) {
+            return jenkinsUrl;
+        }
+        return getEnvironmentValue(EnvironmentVariables.JENKINS_URL, "http://jenkins/");
+    }
+
+    /**
+     * Returns the URL of the generator backend from the <code>FABRIC8_GENERATOR_URL</code> environment variable
+     * if it is set or else from the generator backend service in the given namespace
+     */
+    public static String getGeneratorBackendURL(ServiceEndpointResolver resolver, String namespace) {
+        String answer = getEnvironmentValue(EnvironmentVariables.GENERATOR_BACKEND_URL, null);
+        if (Strings.isNullOrBlank(answer)) {
+            answer = resolver.getServiceURL(GENERATOR_BACKEND_SERVICE, namespace, "http", true);
+        }
+        if (Strings.isNullOrBlank(answer)) {
+            answer = getEnvironmentValue(EnvironmentVariables.GENERATOR_BACKEND_URL, DEFAULT_GENERATOR_BACKEND_URL);
+        }
+        return answer;
+    }
+
 
     /**
      * Tails the log of the given URL such as a build log, processing all new lines since the last results
@@ -283,4 +327,72 @@ public class ForgeClientHelpers {
             return new TailResults(count, lastLine);
         }
     }
+
+    /**
+     * Tails the progressive log of a Jenkins build such as <code>job/foo/1/logText/progressiveText</code>
+     * from the offset of the last results, so that each poll only transfers the bytes appended since then.
+     * <p>
+     * Only complete lines are processed until the log is complete; a partial last line is returned on the next poll.
+     */
+    public static TailResults tailProgressiveLog(String uri, TailResults previousResults, Function<String, Void> lineProcessor) throws IOException {
+        long start = previousResults.getOffset();
+        URL logURL = new URL(uri + (uri.indexOf('?') < 0 ? "?" : "&") + "start=" + start);
+        HttpURLConnection connection = (HttpURLConnection) logURL.openConnection();
+        try {
+            int status = connection.getResponseCode();
+            if (status != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Failed to tail log " + logURL + " status: " + status);
+            }
+            byte[] data;
+            try (InputStream inputStream = connection.getInputStream()) {
+                data = readBytes(inputStream);
+            }
+            boolean moreData = Boolean.parseBoolean(connection.getHeaderField("X-More-Data"));
+            long textSize = start + data.length;
+            String textSizeHeader = connection.getHeaderField("X-Text-Size");
+            if (Strings.isNotBlank(textSizeHeader)) {
+                textSize = Long.parseLong(textSizeHeader.trim());
+            }
+            int count = Math.max(previousResults.getLastIndex(), 0);
+            String lastLine = previousResults.getLastLine();
+            int lineStart = 0;
+            for (int i = 0; i < data.length; i++) {
+                if (data[i] == '\n') {
+                    lastLine = decodeLine(data, lineStart, i);
+                    lineProcessor.apply(lastLine);
+                    count++;
+                    lineStart = i + 1;
+                }
+            }
+            if (moreData) {
+                // lets keep the partial line for the next poll
+                return new TailResults(count, lastLine, start + lineStart, true);
+            }
+            if (lineStart < data.length) {
+                lastLine = decodeLine(data, lineStart, data.length);
+                lineProcessor.apply(lastLine);
+                count++;
+            }
+            return new TailResults(count, lastLine, textSize, false);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static String decodeLine(byte[] data, int start, int end) throws UnsupportedEncodingException {
+        if (end > start && data[end - 1] == '\r') {
+            end--;
+        }
+        return new String(data, start, end - start, "UTF-8");
+    }
+
+    private static byte[] readBytes(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] bytes = new byte[8192];
+        int length;
+        while ((length = inputStream.read(bytes)) > 0) {
+            buffer.write(bytes, 0, length);
+        }
+        return buffer.toByteArray();
+    }
 }
@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.fabric8.forge.rest.client.dto.CommandInputDTO;
+import io.fabric8.forge.rest.client.dto.NextStepResult;
+import io.fabric8.forge.rest.client.dto.ValidationResult;
+import io.fabric8.forge.rest.client.dto.VersionDTO;
+import io.fabric8.utils.cxf.JsonHelper;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Creates the Jackson {@link ObjectMapper} once and caches an {@link ObjectReader} per response type
+ * so that parsing a response does not create a new mapper each time.
+ * <p>
+ * Instances are thread safe and can be shared across threads.
+ */
+public class ForgeJsonCodec {
+    private final ObjectMapper objectMapper;
+    private final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    public ForgeJsonCodec() {
+        this(JsonHelper.createObjectMapper());
+    }
+
+    public ForgeJsonCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        addReader(ValidationResult.class);
+        addReader(NextStepResult.class);
+        addReader(CommandInputDTO.class);
+        addReader(VersionDTO.class);
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    /**
+     * Returns the cached reader for the given type, creating it on first use
+     */
+    public ObjectReader readerFor(Class<?> type) {
+        ObjectReader reader = readers.get(type);
+        if (reader == null) {
+            reader = readers.computeIfAbsent(type, objectMapper::readerFor);
+        }
+        return reader;
+    }
+
+    public JsonNode readTree(String text) throws IOException {
+        return objectMapper.readTree(text);
+    }
+
+    private void addReader(Class<?> type) {
+        readers.put(type, objectMapper.readerFor(type));
+    }
+}
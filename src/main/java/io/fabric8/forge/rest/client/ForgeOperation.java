@@ -0,0 +1,42 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+/**
+ * The operations of the backend {@link CommandsAPI}
+ */
+public enum ForgeOperation {
+    VERSION("version"),
+    COMMAND_NAMES("commandNames"),
+    COMMAND_INPUT("commandInput"),
+    VALIDATE("validate"),
+    NEXT_STEP("next"),
+    EXECUTE("execute");
+
+    private final String label;
+
+    ForgeOperation(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Returns the short name of the operation used in logs and metrics
+     */
+    public String getLabel() {
+        return label;
+    }
+}
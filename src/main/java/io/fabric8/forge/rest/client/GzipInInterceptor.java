@@ -0,0 +1,187 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.metrics.CompressionMetrics;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * A CXF interceptor which decompresses gzipped responses from the backend as they are read, recording the
+ * sizes before and after decompression in the optional {@link CompressionMetrics}
+ */
+public class GzipInInterceptor extends AbstractPhaseInterceptor<Message> {
+    private final CompressionMetrics metrics;
+
+    public GzipInInterceptor(CompressionMetrics metrics) {
+        super(Phase.RECEIVE);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void handleMessage(Message message) throws Fault {
+        InputStream in = message.getContent(InputStream.class);
+        if (in == null) {
+            return;
+        }
+        boolean compressed = removeGzipContentEncoding(GzipOutInterceptor.getProtocolHeaders(message));
+        if (compressed || metrics != null) {
+            message.setContent(InputStream.class, new DecodingInputStream(in, compressed));
+        }
+    }
+
+    /**
+     * Removes the gzip <code>Content-Encoding</code> header as the body will be decoded, returning true if it was present
+     */
+    protected static boolean removeGzipContentEncoding(Map<String, List<String>> headers) {
+        for (Iterator<Map.Entry<String, List<String>>> iter = headers.entrySet().iterator(); iter.hasNext(); ) {
+            Map.Entry<String, List<String>> entry = iter.next();
+            if (GzipSupport.CONTENT_ENCODING.equalsIgnoreCase(entry.getKey()) && entry.getValue() != null) {
+                for (String value : entry.getValue()) {
+                    if (GzipSupport.isGzip(value)) {
+                        iter.remove();
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Counts the bytes read from the wire and, if compressed, gunzips them lazily so that empty bodies such as
+     * those of a 304 response do not fail; the sizes are recorded once the body has been read or closed
+     */
+    private class DecodingInputStream extends InputStream {
+        private final CountingInputStream wire;
+        private final boolean compressed;
+        private InputStream decoded;
+        private long rawBytes;
+        private boolean recorded;
+
+        DecodingInputStream(InputStream in, boolean compressed) {
+            this.wire = new CountingInputStream(in);
+            this.compressed = compressed;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int answer = getDecoded().read();
+            if (answer >= 0) {
+                rawBytes++;
+            } else {
+                record();
+            }
+            return answer;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int answer = getDecoded().read(bytes, offset, length);
+            if (answer > 0) {
+                rawBytes += answer;
+            } else if (answer < 0) {
+                record();
+            }
+            return answer;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return decoded != null ? decoded.available() : 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            record();
+            if (decoded != null) {
+                decoded.close();
+            } else {
+                wire.close();
+            }
+        }
+
+        private InputStream getDecoded() throws IOException {
+            if (decoded == null) {
+                if (compressed) {
+                    try {
+                        decoded = new GZIPInputStream(wire);
+                    } catch (EOFException e) {
+                        // an empty body
+                        decoded = wire;
+                    }
+                } else {
+                    decoded = wire;
+                }
+            }
+            return decoded;
+        }
+
+        private void record() {
+            if (!recorded) {
+                recorded = true;
+                if (metrics != null && wire.count > 0) {
+                    metrics.responseReceived(rawBytes, wire.count, compressed);
+                }
+            }
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int answer = super.read();
+            if (answer >= 0) {
+                count++;
+            }
+            return answer;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int answer = super.read(bytes, offset, length);
+            if (answer > 0) {
+                count += answer;
+            }
+            return answer;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long answer = super.skip(n);
+            count += answer;
+            return answer;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.metrics.CompressionMetrics;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.interceptor.MessageSenderInterceptor;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A CXF interceptor which asks the backend for gzipped responses and gzips request bodies larger than the
+ * threshold of the {@link CompressionConfig}, recording the sizes in the optional {@link CompressionMetrics}
+ */
+public class GzipOutInterceptor extends AbstractPhaseInterceptor<Message> {
+    private final CompressionConfig config;
+    private final CompressionMetrics metrics;
+
+    public GzipOutInterceptor(CompressionConfig config, CompressionMetrics metrics) {
+        super(Phase.PREPARE_SEND);
+        addAfter(MessageSenderInterceptor.class.getName());
+        this.config = config;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void handleMessage(Message message) throws Fault {
+        Map<String, List<String>> headers = getProtocolHeaders(message);
+        headers.put(GzipSupport.ACCEPT_ENCODING, Collections.singletonList(GzipSupport.GZIP));
+        OutputStream out = message.getContent(OutputStream.class);
+        if (out != null && config.isCompressRequests()) {
+            message.setContent(OutputStream.class, new ThresholdOutputStream(out, headers));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    protected static Map<String, List<String>> getProtocolHeaders(Message message) {
+        Map<String, List<String>> headers = (Map<String, List<String>>) message.get(Message.PROTOCOL_HEADERS);
+        if (headers == null) {
+            headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            message.put(Message.PROTOCOL_HEADERS, headers);
+        }
+        return headers;
+    }
+
+    /**
+     * Buffers the body until it is closed so that the <code>Content-Encoding</code> header can be set before
+     * the headers are sent based on the size of the whole body
+     */
+    private class ThresholdOutputStream extends OutputStream {
+        private final OutputStream out;
+        private final Map<String, List<String>> headers;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private boolean closed;
+
+        ThresholdOutputStream(OutputStream out, Map<String, List<String>> headers) {
+            this.out = out;
+            this.headers = headers;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            buffer.write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            buffer.write(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // the body is only written when it is closed
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            byte[] data = buffer.toByteArray();
+            byte[] body = data;
+            boolean compressed = data.length > 0 && config.shouldCompressRequest(data.length);
+            if (compressed) {
+                body = GzipSupport.gzip(data);
+                headers.put(GzipSupport.CONTENT_ENCODING, Collections.singletonList(GzipSupport.GZIP));
+            }
+            if (body.length > 0) {
+                out.write(body);
+                if (metrics != null) {
+                    metrics.requestSent(data.length, body.length, compressed);
+                }
+            }
+            out.close();
+        }
+    }
+}
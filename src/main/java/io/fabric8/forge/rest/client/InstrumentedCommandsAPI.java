@@ -0,0 +1,125 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.dto.ExecutionRequest;
+import io.fabric8.forge.rest.client.dto.VersionDTO;
+import io.fabric8.forge.rest.client.metrics.ForgeClientMetrics;
+import io.fabric8.forge.rest.client.metrics.OperationMetrics;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Form;
+import javax.ws.rs.core.Response;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Records the latency, status code and in flight count of each call to the backend in {@link ForgeClientMetrics}.
+ * <p>
+ * Operations returning a {@link Response} are timed until the response status is available; reading the entity
+ * is measured as part of parsing the response.
+ */
+public class InstrumentedCommandsAPI extends DelegatingCommandsAPI {
+    private final ForgeClientMetrics metrics;
+
+    public InstrumentedCommandsAPI(CommandsAPI delegate, ForgeClientMetrics metrics) {
+        super(delegate);
+        this.metrics = metrics;
+    }
+
+    public ForgeClientMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public VersionDTO getInfo() {
+        return invokeUnchecked(ForgeOperation.VERSION, null, () -> getDelegate().getInfo());
+    }
+
+    @Override
+    public List<String> getCommandNames() {
+        return invokeUnchecked(ForgeOperation.COMMAND_NAMES, null, () -> getDelegate().getCommandNames());
+    }
+
+    @Override
+    public Response getCommandNames(String ifNoneMatch) {
+        return invokeUnchecked(ForgeOperation.COMMAND_NAMES, null, () -> getDelegate().getCommandNames(ifNoneMatch));
+    }
+
+    @Override
+    public Response validateCommand(String name, ExecutionRequest executionRequest) throws Exception {
+        return invoke(ForgeOperation.VALIDATE, name, () -> getDelegate().validateCommand(name, executionRequest));
+    }
+
+    @Override
+    public Response getCommandInput(String name) throws Exception {
+        return invoke(ForgeOperation.COMMAND_INPUT, name, () -> getDelegate().getCommandInput(name));
+    }
+
+    @Override
+    public Response getCommandInput(String name, String ifNoneMatch) throws Exception {
+        return invoke(ForgeOperation.COMMAND_INPUT, name, () -> getDelegate().getCommandInput(name, ifNoneMatch));
+    }
+
+    @Override
+    public Response nextStep(String name, ExecutionRequest executionRequest) throws Exception {
+        return invoke(ForgeOperation.NEXT_STEP, name, () -> getDelegate().nextStep(name, executionRequest));
+    }
+
+    @Override
+    public Response executeCommand(String name, ExecutionRequest executionRequest) throws Exception {
+        return invoke(ForgeOperation.EXECUTE, name, () -> getDelegate().executeCommand(name, executionRequest));
+    }
+
+    @Override
+    public Response executeCommand(String commandName, Form form) throws Exception {
+        return invoke(ForgeOperation.EXECUTE, commandName, () -> getDelegate().executeCommand(commandName, form));
+    }
+
+    protected <T> T invoke(ForgeOperation operation, String commandName, Callable<T> call) throws Exception {
+        OperationMetrics operationMetrics = metrics.getOperationMetrics(operation, commandName);
+        operationMetrics.requestStarted();
+        long start = System.nanoTime();
+        try {
+            T answer = call.call();
+            int status = answer instanceof Response ? ((Response) answer).getStatus() : 200;
+            operationMetrics.requestCompleted(status, System.nanoTime() - start);
+            return answer;
+        } catch (WebApplicationException e) {
+            Response response = e.getResponse();
+            if (response != null) {
+                operationMetrics.requestCompleted(response.getStatus(), System.nanoTime() - start);
+            } else {
+                operationMetrics.requestFailed(System.nanoTime() - start);
+            }
+            throw e;
+        } catch (Exception e) {
+            operationMetrics.requestFailed(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    private <T> T invokeUnchecked(ForgeOperation operation, String commandName, Callable<T> call) {
+        try {
+            return invoke(operation, commandName, call);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to invoke " + operation.getLabel() + ". " + e, e);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import com.offbytwo.jenkins.JenkinsServer;
+import com.offbytwo.jenkins.client.JenkinsHttpClient;
+import io.fabric8.kubernetes.client.Config;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.utils.Closeables;
+import io.fabric8.utils.Strings;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static io.fabric8.forge.rest.client.ForgeClientHelpers.createSslContext;
+import static io.fabric8.forge.rest.client.ForgeClientHelpers.getJenkinsURL;
+
+/**
+ * Creates and caches one {@link JenkinsServer} per cluster and namespace.
+ * <p>
+ * The servers of a cluster share one pooled HTTP client whose {@link SSLContext} is created once, and the
+ * OAuth bearer token is taken from an {@link OAuthTokenHolder} which is refreshed periodically and whenever
+ * Jenkins rejects a request as unauthorized. Each refresh re-reads the service account token file, or the
+ * kubernetes configuration when not running in a pod, as the in memory {@link Config} of the client is only
+ * loaded once. The URL of each Jenkins service is resolved from the watched services of the cluster using a
+ * {@link ServiceEndpointResolver}. Instances are thread safe.
+ */
+public class JenkinsServerFactory implements Closeable {
+    private static final transient Logger LOG = LoggerFactory.getLogger(JenkinsServerFactory.class);
+
+    private final ConcurrentMap<String, ClusterClient> clusters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, JenkinsHttpClient> jenkinsClients = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, JenkinsServer> servers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ServiceEndpointResolver> resolvers = new ConcurrentHashMap<>();
+    private ConnectionPoolConfig connectionPoolConfig = new ConnectionPoolConfig();
+    private long connectionTimeoutMillis = 60 * 1000L;
+    private long tokenRefreshIntervalMillis = 5 * 60 * 1000L;
+    private File serviceAccountTokenFile = new File(Config.KUBERNETES_SERVICE_ACCOUNT_TOKEN_PATH);
+
+    /**
+     * Returns the cached {@link JenkinsServer} for the Jenkins service in the given namespace of the cluster
+     */
+    public JenkinsServer getJenkinsServer(KubernetesClient kubernetesClient, String jenkinsNamespace) {
+        String key = createKey(kubernetesClient, jenkinsNamespace);
+        return servers.computeIfAbsent(key, k -> new JenkinsServer(getJenkinsHttpClient(kubernetesClient, jenkinsNamespace)));
+    }
+
+    /**
+     * Returns the cached HTTP client for the Jenkins service in the given namespace of the cluster
+     * which can be used with a {@link BuildWatchService}
+     */
+    public JenkinsHttpClient getJenkinsHttpClient(KubernetesClient kubernetesClient, String jenkinsNamespace) {
+        String key = createKey(kubernetesClient, jenkinsNamespace);
+        return jenkinsClients.computeIfAbsent(key, k -> {
+            String url = getJenkinsURL(getServiceEndpointResolver(kubernetesClient), jenkinsNamespace);
+            if (Strings.isNullOrBlank(url) || url.startsWith("http://null:")) {
+                throw new IllegalArgumentException("No Jenkins Service found in namespace: " + jenkinsNamespace);
+            }
+            LOG.info("Connecting to jenkins at: " + url);
+            ClusterClient cluster = getClusterClient(kubernetesClient.getConfiguration());
+            return new JenkinsHttpClient(URI.create(url), cluster.httpClient);
+        });
+    }
+
+    /**
+     * Returns the cached resolver of the service URLs of the cluster
+     */
+    public ServiceEndpointResolver getServiceEndpointResolver(KubernetesClient kubernetesClient) {
+        String key = kubernetesClient.getConfiguration().getMasterUrl();
+        return resolvers.computeIfAbsent(key, k -> new ServiceEndpointResolver(kubernetesClient));
+    }
+
+    /**
+     * Returns the token holder used for the bearer token of requests to the given cluster
+     */
+    public OAuthTokenHolder getTokenHolder(KubernetesClient kubernetesClient) {
+        return getClusterClient(kubernetesClient.getConfiguration()).tokenHolder;
+    }
+
+    /**
+     * Removes the cached server of the namespace such as when the Jenkins service has moved
+     */
+    public void evict(KubernetesClient kubernetesClient, String jenkinsNamespace) {
+        String key = createKey(kubernetesClient, jenkinsNamespace);
+        servers.remove(key);
+        jenkinsClients.remove(key);
+    }
+
+    @Override
+    public void close() {
+        servers.clear();
+        jenkinsClients.clear();
+        for (ClusterClient cluster : clusters.values()) {
+            Closeables.closeQuietly(cluster.httpClient);
+        }
+        clusters.clear();
+        for (ServiceEndpointResolver resolver : resolvers.values()) {
+            resolver.close();
+        }
+        resolvers.clear();
+    }
+
+    public ConnectionPoolConfig getConnectionPoolConfig() {
+        return connectionPoolConfig;
+    }
+
+    /**
+     * Sets the pool settings used for each cluster; this must be set before the first server is created
+     */
+    public void setConnectionPoolConfig(ConnectionPoolConfig connectionPoolConfig) {
+        this.connectionPoolConfig = connectionPoolConfig;
+    }
+
+    public long getConnectionTimeoutMillis() {
+        return connectionTimeoutMillis;
+    }
+
+    public void setConnectionTimeoutMillis(long connectionTimeoutMillis) {
+        this.connectionTimeoutMillis = connectionTimeoutMillis;
+    }
+
+    public long getTokenRefreshIntervalMillis() {
+        return tokenRefreshIntervalMillis;
+    }
+
+    /**
+     * Sets how often the OAuth token is re-read from the kubernetes configuration
+     */
+    public void setTokenRefreshIntervalMillis(long tokenRefreshIntervalMillis) {
+        this.tokenRefreshIntervalMillis = tokenRefreshIntervalMillis;
+    }
+
+    /**
+     * Returns the token file mounted into pods for their service account which is re-read on each token refresh
+     */
+    public File getServiceAccountTokenFile() {
+        return serviceAccountTokenFile;
+    }
+
+    public void setServiceAccountTokenFile(File serviceAccountTokenFile) {
+        this.serviceAccountTokenFile = serviceAccountTokenFile;
+    }
+
+    protected ClusterClient getClusterClient(Config config) {
+        return clusters.computeIfAbsent(config.getMasterUrl(), k -> createClusterClient(config));
+    }
+
+    protected ClusterClient createClusterClient(Config config) {
+        SSLContext sslContext;
+        try {
+            sslContext = createSslContext(config);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to create the SSLContext for cluster " + config.getMasterUrl() + ". " + e, e);
+        }
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(RegistryBuilder.<ConnectionSocketFactory>create().
+                register("http", PlainConnectionSocketFactory.getSocketFactory()).
+                register("https", new SSLConnectionSocketFactory(sslContext, NoopHostnameVerifier.INSTANCE)).
+                build(), null, null, null, connectionPoolConfig.getKeepAliveMillis(), TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(connectionPoolConfig.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(connectionPoolConfig.getMaxPerRoute());
+
+        int timeout = (int) Math.min(Integer.MAX_VALUE, connectionTimeoutMillis);
+        RequestConfig requestConfig = RequestConfig.custom().
+                setConnectTimeout(timeout).
+                setSocketTimeout(timeout).
+                setConnectionRequestTimeout((int) Math.min(Integer.MAX_VALUE, connectionPoolConfig.getConnectionRequestTimeoutMillis())).
+                build();
+
+        OAuthTokenHolder tokenHolder = new OAuthTokenHolder(createTokenSource(config), tokenRefreshIntervalMillis);
+        CloseableHttpClient httpClient = HttpClients.custom().
+                setConnectionManager(connectionManager).
+                setDefaultRequestConfig(requestConfig).
+                evictIdleConnections(connectionPoolConfig.getIdleTimeoutMillis(), TimeUnit.MILLISECONDS).
+                addInterceptorFirst((HttpRequestInterceptor) (request, context) -> {
+                    String oauthToken = tokenHolder.getToken();
+                    if (Strings.isNullOrBlank(oauthToken)) {
+                        LOG.warn("No OpenShift OAuth Token!");
+                    } else {
+                        request.setHeader("Authorization", "Bearer " + oauthToken);
+                    }
+                }).
+                addInterceptorLast((HttpResponseInterceptor) (response, context) -> {
+                    if (response.getStatusLine().getStatusCode() == HttpStatus.SC_UNAUTHORIZED) {
+                        tokenHolder.invalidate();
+                    }
+                }).
+                build();
+        return new ClusterClient(httpClient, tokenHolder);
+    }
+
+    /**
+     * Creates the source of the OAuth token of the cluster which reloads the token each time it is asked
+     */
+    protected Supplier<String> createTokenSource(Config config) {
+        return () -> loadToken(config);
+    }
+
+    /**
+     * Loads the current token from the service account token file if there is one, otherwise from a freshly
+     * loaded kubernetes configuration of the same cluster, falling back to the token of the given configuration
+     */
+    protected String loadToken(Config config) {
+        File tokenFile = serviceAccountTokenFile;
+        if (tokenFile != null && tokenFile.isFile()) {
+            try {
+                String token = new String(Files.readAllBytes(tokenFile.toPath()), StandardCharsets.UTF_8).trim();
+                if (Strings.isNotBlank(token)) {
+                    return token;
+                }
+            } catch (IOException e) {
+                LOG.warn("Failed to read the service account token " + tokenFile + ". " + e, e);
+            }
+        } else {
+            try {
+                // the default constructor loads the kube config file again so picks up a new login
+                Config reloaded = new Config();
+                if (config.getMasterUrl() != null && config.getMasterUrl().equals(reloaded.getMasterUrl())
+                        && Strings.isNotBlank(reloaded.getOauthToken())) {
+                    return reloaded.getOauthToken();
+                }
+            } catch (RuntimeException e) {
+                LOG.warn("Failed to reload the kubernetes configuration. " + e, e);
+            }
+        }
+        return config.getOauthToken();
+    }
+
+    protected static String createKey(KubernetesClient kubernetesClient, String jenkinsNamespace) {
+        return kubernetesClient.getConfiguration().getMasterUrl() + "#" + jenkinsNamespace;
+    }
+
+    protected static class ClusterClient {
+        private final CloseableHttpClient httpClient;
+        private final OAuthTokenHolder tokenHolder;
+
+        public ClusterClient(CloseableHttpClient httpClient, OAuthTokenHolder tokenHolder) {
+            this.httpClient = httpClient;
+            this.tokenHolder = tokenHolder;
+        }
+
+        public CloseableHttpClient getHttpClient() {
+            return httpClient;
+        }
+
+        public OAuthTokenHolder getTokenHolder() {
+            return tokenHolder;
+        }
+    }
+}
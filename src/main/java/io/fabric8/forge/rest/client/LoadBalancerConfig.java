@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+/**
+ * The settings of the client side load balancing across the pods of the generator backend used by
+ * {@link ForgeClient} when enabled
+ */
+public class LoadBalancerConfig {
+    private boolean enabled;
+    private String serviceName = ForgeClientHelpers.GENERATOR_BACKEND_SERVICE;
+    private String namespace;
+    private String portName;
+    private long refreshIntervalMillis = 10 * 1000L;
+
+    @Override
+    public String toString() {
+        return "LoadBalancerConfig{" +
+                "enabled=" + enabled +
+                ", serviceName='" + serviceName + '\'' +
+                ", namespace='" + namespace + '\'' +
+                ", portName='" + portName + '\'' +
+                ", refreshIntervalMillis=" + refreshIntervalMillis +
+                '}';
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns the name of the Service whose Endpoints are the pods of the backend
+     */
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public void setServiceName(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    /**
+     * Returns the namespace of the Service or null to use the namespace of the kubernetes client
+     */
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public void setNamespace(String namespace) {
+        this.namespace = namespace;
+    }
+
+    /**
+     * Returns the name of the endpoint port to use or null to use the first port
+     */
+    public String getPortName() {
+        return portName;
+    }
+
+    public void setPortName(String portName) {
+        this.portName = portName;
+    }
+
+    /**
+     * Returns how often the Endpoints are read again to find new or removed pods
+     */
+    public long getRefreshIntervalMillis() {
+        return refreshIntervalMillis;
+    }
+
+    public void setRefreshIntervalMillis(long refreshIntervalMillis) {
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+}
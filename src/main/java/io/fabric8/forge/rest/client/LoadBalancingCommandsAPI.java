@@ -0,0 +1,330 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.dto.ExecutionRequest;
+import io.fabric8.forge.rest.client.dto.VersionDTO;
+import io.fabric8.utils.Closeables;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.core.Form;
+import javax.ws.rs.core.Response;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Balances the calls to the backend across its pods, sending each call to the pod with the fewest outstanding
+ * requests from this client.
+ * <p>
+ * A wizard flow sticks to the pod it started on: the pod chosen for the first validate or next step of an
+ * {@link ExecutionRequest} is used for every later call with the same request so that the whole validate, next
+ * and execute sequence lands on one pod. The form posted by execute is bound to its request with
+ * {@link #bindAffinity(Object, Object)}. Flows are tracked by the identity of the request and are forgotten once
+ * the request is garbage collected.
+ * <p>
+ * The pods are read again from the discovery every refresh interval; if none are found then the calls go to the
+ * fallback address such as the Service IP.
+ */
+public class LoadBalancingCommandsAPI implements CommandsAPI, Closeable {
+    private static final transient Logger LOG = LoggerFactory.getLogger(LoadBalancingCommandsAPI.class);
+
+    private final Supplier<List<String>> discovery;
+    private final Function<String, CommandsAPI> transportFactory;
+    private final long refreshIntervalMillis;
+    private final String fallbackAddress;
+    private final Map<Object, BackendEndpoint> affinity = new WeakHashMap<>();
+    private final AtomicLong refreshedAt = new AtomicLong();
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private final List<BackendEndpoint> retired = new ArrayList<>();
+    private volatile Map<String, BackendEndpoint> endpoints = Collections.emptyMap();
+
+    public LoadBalancingCommandsAPI(Supplier<List<String>> discovery, Function<String, CommandsAPI> transportFactory,
+                                    long refreshIntervalMillis, String fallbackAddress) {
+        this.discovery = discovery;
+        this.transportFactory = transportFactory;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.fallbackAddress = fallbackAddress;
+    }
+
+    @Override
+    public String toString() {
+        return "LoadBalancingCommandsAPI" + endpoints.values();
+    }
+
+    @Override
+    public VersionDTO getInfo() {
+        return invokeUnchecked(selectEndpoint(null), api -> api.getInfo());
+    }
+
+    @Override
+    public List<String> getCommandNames() {
+        return invokeUnchecked(selectEndpoint(null), api -> api.getCommandNames());
+    }
+
+    @Override
+    public Response getCommandNames(String ifNoneMatch) {
+        return invokeUnchecked(selectEndpoint(null), api -> api.getCommandNames(ifNoneMatch));
+    }
+
+    @Override
+    public Response validateCommand(String name, ExecutionRequest executionRequest) throws Exception {
+        return invoke(selectEndpoint(executionRequest), api -> api.validateCommand(name, executionRequest));
+    }
+
+    @Override
+    public Response getCommandInput(String name) throws Exception {
+        return invoke(selectEndpoint(null), api -> api.getCommandInput(name));
+    }
+
+    @Override
+    public Response getCommandInput(String name, String ifNoneMatch) throws Exception {
+        return invoke(selectEndpoint(null), api -> api.getCommandInput(name, ifNoneMatch));
+    }
+
+    @Override
+    public Response nextStep(String name, ExecutionRequest executionRequest) throws Exception {
+        return invoke(selectEndpoint(executionRequest), api -> api.nextStep(name, executionRequest));
+    }
+
+    @Override
+    public Response executeCommand(String name, ExecutionRequest executionRequest) throws Exception {
+        return invoke(selectEndpoint(executionRequest), api -> api.executeCommand(name, executionRequest));
+    }
+
+    @Override
+    public Response executeCommand(String commandName, Form form) throws Exception {
+        return invoke(selectEndpoint(form), api -> api.executeCommand(commandName, form));
+    }
+
+    @Override
+    public void close() {
+        List<BackendEndpoint> list;
+        synchronized (this) {
+            list = new ArrayList<>(endpoints.values());
+            list.addAll(retired);
+            retired.clear();
+            endpoints = Collections.emptyMap();
+        }
+        for (BackendEndpoint endpoint : list) {
+            endpoint.close();
+        }
+    }
+
+    /**
+     * Makes calls with the given key go to the same pod as the calls with the existing key such as to execute
+     * the form created from a request on the pod which validated the request
+     */
+    public void bindAffinity(Object key, Object existingKey) {
+        synchronized (affinity) {
+            BackendEndpoint endpoint = affinity.get(existingKey);
+            if (endpoint != null) {
+                affinity.put(key, endpoint);
+            }
+        }
+    }
+
+    /**
+     * Returns the addresses of the pods currently used
+     */
+    public List<String> getAddresses() {
+        return new ArrayList<>(getEndpoints().keySet());
+    }
+
+    /**
+     * Returns the number of calls sent to the pod of the given address
+     */
+    public long getRequestCount(String address) {
+        BackendEndpoint endpoint = getEndpoints().get(address);
+        return endpoint != null ? endpoint.requests.sum() : 0;
+    }
+
+    /**
+     * Returns the number of calls in flight to the pod of the given address
+     */
+    public int getOutstanding(String address) {
+        BackendEndpoint endpoint = getEndpoints().get(address);
+        return endpoint != null ? endpoint.outstanding.get() : 0;
+    }
+
+    /**
+     * Returns the pod to use for a call with the given affinity key or the least loaded pod if the key is null
+     */
+    protected BackendEndpoint selectEndpoint(Object key) {
+        Map<String, BackendEndpoint> current = getEndpoints();
+        if (key == null) {
+            return leastOutstanding(current);
+        }
+        synchronized (affinity) {
+            BackendEndpoint answer = affinity.get(key);
+            if (answer == null || current.get(answer.address) != answer) {
+                if (answer != null) {
+                    LOG.info("Moving a wizard flow from " + answer.address + " as the pod is no longer available");
+                }
+                answer = leastOutstanding(current);
+                affinity.put(key, answer);
+            }
+            return answer;
+        }
+    }
+
+    protected Map<String, BackendEndpoint> getEndpoints() {
+        long now = System.currentTimeMillis();
+        if (endpoints.isEmpty()) {
+            synchronized (this) {
+                if (endpoints.isEmpty()) {
+                    refreshedAt.set(now);
+                    refresh();
+                }
+            }
+        } else {
+            long last = refreshedAt.get();
+            if (now - last >= refreshIntervalMillis && refreshedAt.compareAndSet(last, now)) {
+                refresh();
+            }
+        }
+        return endpoints;
+    }
+
+    protected synchronized void refresh() {
+        List<String> addresses;
+        try {
+            addresses = discovery.get();
+        } catch (RuntimeException e) {
+            LOG.warn("Failed to discover the backend pods from " + discovery + " so using the current pods: " + e, e);
+            addresses = null;
+        }
+        Map<String, BackendEndpoint> oldEndpoints = endpoints;
+        if (addresses == null) {
+            if (!oldEndpoints.isEmpty()) {
+                return;
+            }
+            addresses = Collections.emptyList();
+        }
+        if (addresses.isEmpty()) {
+            addresses = Collections.singletonList(fallbackAddress);
+        }
+        Map<String, BackendEndpoint> newEndpoints = new LinkedHashMap<>();
+        for (String address : addresses) {
+            BackendEndpoint endpoint = oldEndpoints.get(address);
+            if (endpoint == null) {
+                endpoint = new BackendEndpoint(address, transportFactory.apply(address));
+            }
+            newEndpoints.put(address, endpoint);
+        }
+        for (BackendEndpoint endpoint : oldEndpoints.values()) {
+            if (!newEndpoints.containsKey(endpoint.address)) {
+                retired.add(endpoint);
+            }
+        }
+        if (!newEndpoints.keySet().equals(oldEndpoints.keySet())) {
+            LOG.info("Balancing the backend calls across " + newEndpoints.keySet());
+        }
+        endpoints = Collections.unmodifiableMap(newEndpoints);
+
+        // only close the clients of removed pods once their calls have completed
+        retired.removeIf(endpoint -> {
+            if (endpoint.outstanding.get() == 0) {
+                endpoint.close();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private BackendEndpoint leastOutstanding(Map<String, BackendEndpoint> current) {
+        List<BackendEndpoint> list = new ArrayList<>(current.values());
+        if (list.isEmpty()) {
+            throw new IllegalStateException("No backend pods are available");
+        }
+        // start at a different pod each time so that ties are spread round robin
+        int start = Math.floorMod(nextIndex.getAndIncrement(), list.size());
+        BackendEndpoint answer = null;
+        for (int i = 0; i < list.size(); i++) {
+            BackendEndpoint endpoint = list.get((start + i) % list.size());
+            if (answer == null || endpoint.outstanding.get() < answer.outstanding.get()) {
+                answer = endpoint;
+            }
+        }
+        return answer;
+    }
+
+    protected <T> T invoke(BackendEndpoint endpoint, EndpointCall<T> call) throws Exception {
+        endpoint.outstanding.incrementAndGet();
+        endpoint.requests.increment();
+        try {
+            return call.invoke(endpoint.api);
+        } finally {
+            endpoint.outstanding.decrementAndGet();
+        }
+    }
+
+    private <T> T invokeUnchecked(BackendEndpoint endpoint, EndpointCall<T> call) {
+        try {
+            return invoke(endpoint, call);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to invoke " + endpoint.address + ". " + e, e);
+        }
+    }
+
+    /**
+     * Invokes a call on the client of a pod
+     */
+    protected interface EndpointCall<T> {
+        T invoke(CommandsAPI api) throws Exception;
+    }
+
+    protected static final class BackendEndpoint {
+        private final String address;
+        private final CommandsAPI api;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final LongAdder requests = new LongAdder();
+
+        BackendEndpoint(String address, CommandsAPI api) {
+            this.address = address;
+            this.api = api;
+        }
+
+        @Override
+        public String toString() {
+            return "BackendEndpoint{" +
+                    "address='" + address + '\'' +
+                    ", outstanding=" + outstanding.get() +
+                    ", requests=" + requests.sum() +
+                    '}';
+        }
+
+        void close() {
+            if (api instanceof Closeable) {
+                Closeables.closeQuietly((Closeable) api);
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.fabric8.forge.rest.client.dto.ExecutionRequest;
+
+import javax.ws.rs.core.Form;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Memoizes the responses of <code>validate</code> keyed by the command name and a fingerprint of the request
+ * so that validating an unchanged request again, such as right before moving to the next page or executing,
+ * reuses the previous result. The memo is bounded by {@link ValidationMemoConfig#getMaxEntries()} and
+ * {@link ValidationMemoConfig#getTtlMillis()} and the results of a command are discarded when it is executed.
+ * <p>
+ * The fingerprint is a SHA-256 digest of the request written as JSON with sorted map keys so that it covers
+ * the namespace, project, resource, step index and all of the input values.
+ */
+public class MemoizingCommandsAPI extends DelegatingCommandsAPI {
+    private final ValidationMemoConfig config;
+    private final ObjectWriter fingerprintWriter;
+    private final Map<String, MemoizedResponse> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public MemoizingCommandsAPI(CommandsAPI delegate, ForgeJsonCodec jsonCodec, ValidationMemoConfig config) {
+        super(delegate);
+        this.config = config;
+        this.fingerprintWriter = jsonCodec.getObjectMapper().writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        int maxEntries = config.getMaxEntries();
+        this.entries = new LinkedHashMap<String, MemoizedResponse>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, MemoizedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "MemoizingCommandsAPI{" +
+                "size=" + getSize() +
+                ", hits=" + getHits() +
+                ", misses=" + getMisses() +
+                '}';
+    }
+
+    @Override
+    public Response validateCommand(String name, ExecutionRequest executionRequest) throws Exception {
+        String key = fingerprint(name, executionRequest);
+        long now = System.currentTimeMillis();
+        MemoizedResponse entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && entry.isExpired(now, config.getTtlMillis())) {
+                entries.remove(key);
+                entry = null;
+            }
+        }
+        if (entry != null) {
+            hits.increment();
+            return entry.toResponse();
+        }
+        misses.increment();
+        Response response = getDelegate().validateCommand(name, executionRequest);
+        if (response.getStatus() != Response.Status.OK.getStatusCode()) {
+            return response;
+        }
+        entry = new MemoizedResponse(name, CachingCommandsAPI.readEntity(response), response.getHeaderString(HttpHeaders.CONTENT_TYPE), now);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+        return entry.toResponse();
+    }
+
+    @Override
+    public Response executeCommand(String name, ExecutionRequest executionRequest) throws Exception {
+        invalidate(name);
+        return super.executeCommand(name, executionRequest);
+    }
+
+    @Override
+    public Response executeCommand(String commandName, Form form) throws Exception {
+        invalidate(commandName);
+        return super.executeCommand(commandName, form);
+    }
+
+    /**
+     * Discards the validation results of the given command
+     */
+    public void invalidate(String name) {
+        synchronized (entries) {
+            Iterator<MemoizedResponse> iter = entries.values().iterator();
+            while (iter.hasNext()) {
+                if (name.equals(iter.next().getName())) {
+                    iter.remove();
+                }
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Returns the number of validations answered from the memo without a request to the backend
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Returns the key of the memo for validating the given request of the given command
+     */
+    protected String fingerprint(String name, ExecutionRequest executionRequest) throws JsonProcessingException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported. " + e, e);
+        }
+        digest.update(name.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(fingerprintWriter.writeValueAsBytes(executionRequest));
+        return Base64.getEncoder().encodeToString(digest.digest());
+    }
+
+    private static final class MemoizedResponse {
+        private final String name;
+        private final byte[] data;
+        private final String contentType;
+        private final long createdAt;
+
+        MemoizedResponse(String name, byte[] data, String contentType, long createdAt) {
+            this.name = name;
+            this.data = data;
+            this.contentType = contentType;
+            this.createdAt = createdAt;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        boolean isExpired(long now, long ttlMillis) {
+            return now - createdAt >= ttlMillis;
+        }
+
+        Response toResponse() {
+            Response.ResponseBuilder builder = Response.ok(data);
+            if (contentType != null) {
+                builder.header(HttpHeaders.CONTENT_TYPE, contentType);
+            }
+            return builder.build();
+        }
+    }
+}
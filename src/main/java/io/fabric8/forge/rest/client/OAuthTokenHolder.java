@@ -0,0 +1,63 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds an OAuth token read from a source such as the kubernetes client configuration, re-reading it
+ * once it is older than the refresh interval or after {@link #invalidate()} such as when a request was
+ * rejected as unauthorized.
+ */
+public class OAuthTokenHolder {
+    private final Supplier<String> source;
+    private final long refreshIntervalMillis;
+    private volatile String token;
+    private volatile long expiresAt;
+
+    public OAuthTokenHolder(Supplier<String> source, long refreshIntervalMillis) {
+        this.source = source;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    /**
+     * Returns the current token refreshing it from the source if it is stale
+     */
+    public String getToken() {
+        // a missing token is cached too; expiresAt is written after the token so read it first
+        if (System.currentTimeMillis() >= expiresAt) {
+            synchronized (this) {
+                if (System.currentTimeMillis() >= expiresAt) {
+                    token = source.get();
+                    expiresAt = System.currentTimeMillis() + refreshIntervalMillis;
+                }
+            }
+        }
+        return token;
+    }
+
+    /**
+     * Forces the token to be read from the source on next use
+     */
+    public void invalidate() {
+        expiresAt = 0;
+    }
+
+    public long getRefreshIntervalMillis() {
+        return refreshIntervalMillis;
+    }
+}
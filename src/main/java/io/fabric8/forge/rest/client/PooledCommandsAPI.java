@@ -0,0 +1,375 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.dto.ExecutionRequest;
+import io.fabric8.forge.rest.client.dto.VersionDTO;
+import io.fabric8.forge.rest.client.metrics.CompressionMetrics;
+import io.fabric8.utils.URLUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.ssl.SSLContexts;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Form;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An implementation of {@link CommandsAPI} on top of a pooled keep-alive HTTP client so that concurrent
+ * wizard flows reuse connections to the backend rather than opening a new TCP and TLS connection per request.
+ * <p>
+ * Idle and expired connections are evicted in the background; use {@link #getPoolStats()} to see how many
+ * connections are leased, idle and pending. Instances are thread safe.
+ */
+public class PooledCommandsAPI implements CommandsAPI, Closeable {
+    private static final transient Logger LOG = LoggerFactory.getLogger(PooledCommandsAPI.class);
+
+    private final String address;
+    private final ForgeJsonCodec jsonCodec;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CompressionConfig compressionConfig;
+    private final CompressionMetrics compressionMetrics;
+    private final CloseableHttpClient httpClient;
+    private final ScheduledExecutorService evictor;
+
+    public PooledCommandsAPI(String address, ForgeJsonCodec jsonCodec, ConnectionPoolConfig config, long connectionTimeoutMillis) {
+        this(address, jsonCodec, config, connectionTimeoutMillis, null, null);
+    }
+
+    /**
+     * Creates the client using gzip compression with the given settings if they are enabled, recording the sizes
+     * of the bodies in the optional metrics
+     */
+    public PooledCommandsAPI(String address, ForgeJsonCodec jsonCodec, ConnectionPoolConfig config, long connectionTimeoutMillis,
+                             CompressionConfig compressionConfig, CompressionMetrics compressionMetrics) {
+        this.address = address;
+        this.jsonCodec = jsonCodec;
+        this.compressionConfig = compressionConfig != null && compressionConfig.isEnabled() ? compressionConfig : null;
+        this.compressionMetrics = compressionMetrics;
+        this.connectionManager = new PoolingHttpClientConnectionManager(createSocketFactoryRegistry());
+        connectionManager.setMaxTotal(config.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(config.getMaxPerRoute());
+
+        RequestConfig requestConfig = RequestConfig.custom().
+                setConnectTimeout(toIntMillis(connectionTimeoutMillis)).
+                setSocketTimeout(toIntMillis(connectionTimeoutMillis)).
+                setConnectionRequestTimeout(toIntMillis(config.getConnectionRequestTimeoutMillis())).
+                build();
+        HttpClientBuilder builder = HttpClients.custom().
+                setConnectionManager(connectionManager).
+                setKeepAliveStrategy(createKeepAliveStrategy(config.getKeepAliveMillis())).
+                setDefaultRequestConfig(requestConfig);
+        if (this.compressionConfig != null) {
+            // we negotiate and decode gzip ourselves so that we can record the sizes on the wire
+            builder.disableContentCompression();
+        }
+        this.httpClient = builder.build();
+
+        long evictionIntervalMillis = config.getEvictionIntervalMillis();
+        if (evictionIntervalMillis > 0) {
+            long idleTimeoutMillis = config.getIdleTimeoutMillis();
+            this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "forge-client-connection-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            evictor.scheduleWithFixedDelay(() -> {
+                connectionManager.closeExpiredConnections();
+                connectionManager.closeIdleConnections(idleTimeoutMillis, TimeUnit.MILLISECONDS);
+            }, evictionIntervalMillis, evictionIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.evictor = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PooledCommandsAPI{" +
+                "address='" + address + '\'' +
+                ", pool=" + getPoolStats() +
+                '}';
+    }
+
+    /**
+     * Returns the number of leased, idle (available) and pending connections along with the pool size
+     */
+    public PoolStats getPoolStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+        httpClient.close();
+    }
+
+    @Override
+    public VersionDTO getInfo() {
+        return invokeForEntity(new HttpGet(uri("version")), VersionDTO.class);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<String> getCommandNames() {
+        return invokeForEntity(new HttpGet(uri("commandNames")), List.class);
+    }
+
+    @Override
+    public Response getCommandNames(String ifNoneMatch) {
+        try {
+            return invoke(conditionalGet(uri("commandNames"), ifNoneMatch));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to invoke " + uri("commandNames") + ". " + e, e);
+        }
+    }
+
+    @Override
+    public Response validateCommand(String name, ExecutionRequest executionRequest) throws Exception {
+        return invokeChecked(jsonPost(uri("commands", name, "validate"), executionRequest));
+    }
+
+    @Override
+    public Response getCommandInput(String name) throws Exception {
+        return invokeChecked(new HttpGet(uri("commands", name)));
+    }
+
+    @Override
+    public Response getCommandInput(String name, String ifNoneMatch) throws Exception {
+        return invokeChecked(conditionalGet(uri("commands", name), ifNoneMatch));
+    }
+
+    @Override
+    public Response nextStep(String name, ExecutionRequest executionRequest) throws Exception {
+        return invokeChecked(jsonPost(uri("commands", name, "next"), executionRequest));
+    }
+
+    @Override
+    public Response executeCommand(String name, ExecutionRequest executionRequest) throws Exception {
+        return invokeChecked(jsonPost(uri("commands", name, "execute"), executionRequest));
+    }
+
+    @Override
+    public Response executeCommand(String commandName, Form form) throws Exception {
+        List<NameValuePair> parameters = new ArrayList<>();
+        for (Map.Entry<String, List<String>> entry : form.asMap().entrySet()) {
+            for (String value : entry.getValue()) {
+                parameters.add(new BasicNameValuePair(entry.getKey(), value));
+            }
+        }
+        HttpPost post = new HttpPost(uri("commands", commandName, "execute"));
+        setEntity(post, EntityUtils.toByteArray(new UrlEncodedFormEntity(parameters, StandardCharsets.UTF_8)), ContentType.APPLICATION_FORM_URLENCODED);
+        return invokeChecked(post);
+    }
+
+    /**
+     * Invokes the request and buffers the response entity so that the connection is returned to the pool straight away
+     */
+    protected Response invoke(HttpUriRequest request) throws IOException {
+        acceptCompressedResponse(request);
+        try (CloseableHttpResponse httpResponse = httpClient.execute(request)) {
+            Response.ResponseBuilder builder = Response.status(httpResponse.getStatusLine().getStatusCode());
+            boolean decompress = isCompressed(httpResponse);
+            for (Header header : httpResponse.getAllHeaders()) {
+                if (!decompress || !isContentHeader(header.getName())) {
+                    builder.header(header.getName(), header.getValue());
+                }
+            }
+            byte[] data = readEntity(httpResponse);
+            if (data != null) {
+                builder.entity(data);
+            }
+            return builder.build();
+        }
+    }
+
+    /**
+     * Invokes the request throwing a {@link WebApplicationException} if the status is 300 or above, just like the CXF
+     * proxy does for the methods which declare exceptions
+     */
+    protected Response invokeChecked(HttpUriRequest request) throws IOException {
+        Response response = invoke(request);
+        int status = response.getStatus();
+        if (status >= 300) {
+            throw new WebApplicationException("Failed to invoke " + request.getURI() + " status: " + status, response);
+        }
+        return response;
+    }
+
+    protected <T> T invokeForEntity(HttpUriRequest request, Class<T> type) {
+        acceptCompressedResponse(request);
+        try (CloseableHttpResponse httpResponse = httpClient.execute(request)) {
+            int status = httpResponse.getStatusLine().getStatusCode();
+            byte[] data = readEntity(httpResponse);
+            if (status >= 300) {
+                throw new WebApplicationException("Failed to invoke " + request.getURI() + " status: " + status, status);
+            }
+            if (data == null || data.length == 0) {
+                return null;
+            }
+            return jsonCodec.readerFor(type).readValue(data);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to invoke " + request.getURI() + ". " + e, e);
+        }
+    }
+
+    protected static HttpGet conditionalGet(String uri, String ifNoneMatch) {
+        HttpGet get = new HttpGet(uri);
+        if (ifNoneMatch != null) {
+            get.setHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return get;
+    }
+
+    protected HttpPost jsonPost(String uri, Object body) throws IOException {
+        HttpPost post = new HttpPost(uri);
+        setEntity(post, jsonCodec.getObjectMapper().writeValueAsBytes(body), ContentType.APPLICATION_JSON);
+        return post;
+    }
+
+    /**
+     * Sets the body of the request compressing it if compression is enabled and it is larger than the threshold
+     */
+    protected void setEntity(HttpPost post, byte[] data, ContentType contentType) throws IOException {
+        if (compressionConfig == null) {
+            post.setEntity(new ByteArrayEntity(data, contentType));
+            return;
+        }
+        byte[] body = data;
+        boolean compressed = compressionConfig.shouldCompressRequest(data.length);
+        if (compressed) {
+            body = GzipSupport.gzip(data);
+            post.setHeader(GzipSupport.CONTENT_ENCODING, GzipSupport.GZIP);
+        }
+        post.setEntity(new ByteArrayEntity(body, contentType));
+        if (compressionMetrics != null) {
+            compressionMetrics.requestSent(data.length, body.length, compressed);
+        }
+    }
+
+    protected void acceptCompressedResponse(HttpUriRequest request) {
+        if (compressionConfig != null) {
+            request.setHeader(GzipSupport.ACCEPT_ENCODING, GzipSupport.GZIP);
+        }
+    }
+
+    /**
+     * Reads the response body decompressing it if it was gzipped
+     */
+    protected byte[] readEntity(CloseableHttpResponse httpResponse) throws IOException {
+        HttpEntity entity = httpResponse.getEntity();
+        if (entity == null) {
+            return null;
+        }
+        byte[] data = EntityUtils.toByteArray(entity);
+        if (compressionConfig == null) {
+            return data;
+        }
+        boolean compressed = isCompressed(httpResponse);
+        byte[] answer = compressed ? GzipSupport.gunzip(data) : data;
+        if (compressionMetrics != null) {
+            compressionMetrics.responseReceived(answer.length, data.length, compressed);
+        }
+        return answer;
+    }
+
+    protected boolean isCompressed(CloseableHttpResponse httpResponse) {
+        if (compressionConfig == null || httpResponse.getEntity() == null) {
+            return false;
+        }
+        Header header = httpResponse.getFirstHeader(GzipSupport.CONTENT_ENCODING);
+        return header != null && GzipSupport.isGzip(header.getValue());
+    }
+
+    private static boolean isContentHeader(String name) {
+        return GzipSupport.CONTENT_ENCODING.equalsIgnoreCase(name) || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+    }
+
+    protected String uri(String... paths) {
+        String answer = URLUtils.pathJoin(address, "forge");
+        for (String path : paths) {
+            answer = URLUtils.pathJoin(answer, path);
+        }
+        return answer;
+    }
+
+    protected static ConnectionKeepAliveStrategy createKeepAliveStrategy(long keepAliveMillis) {
+        return (response, context) -> {
+            long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return duration > 0 ? duration : keepAliveMillis;
+        };
+    }
+
+    /**
+     * Creates the socket factories; like the CXF transport we do not verify the backend's certificate
+     */
+    protected static Registry<ConnectionSocketFactory> createSocketFactoryRegistry() {
+        RegistryBuilder<ConnectionSocketFactory> builder = RegistryBuilder.<ConnectionSocketFactory>create().
+                register("http", PlainConnectionSocketFactory.getSocketFactory());
+        try {
+            SSLContext sslContext = SSLContexts.custom().loadTrustMaterial((KeyStore) null, (chain, authType) -> true).build();
+            builder.register("https", new SSLConnectionSocketFactory(sslContext, NoopHostnameVerifier.INSTANCE));
+        } catch (GeneralSecurityException e) {
+            LOG.warn("Could not create SSL context so https is not supported: " + e, e);
+        }
+        return builder.build();
+    }
+
+    private static int toIntMillis(long millis) {
+        return (int) Math.min(millis, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The settings used to log the responses from the backend when {@link ForgeClient#isDebugResponses()} is enabled.
+ * Only the start and end of each response is kept so that debug logging can stay on under load.
+ */
+public class ResponseCaptureConfig {
+    private int headBytes = 4 * 1024;
+    private int tailBytes = 4 * 1024;
+    private double sampleRate = 1.0;
+
+    @Override
+    public String toString() {
+        return "ResponseCaptureConfig{" +
+                "headBytes=" + headBytes +
+                ", tailBytes=" + tailBytes +
+                ", sampleRate=" + sampleRate +
+                '}';
+    }
+
+    /**
+     * Returns true if the current response should be captured based on the sample rate
+     */
+    public boolean isSampled() {
+        return sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    /**
+     * Returns the number of bytes logged from the start of each response
+     */
+    public int getHeadBytes() {
+        return headBytes;
+    }
+
+    public void setHeadBytes(int headBytes) {
+        this.headBytes = headBytes;
+    }
+
+    /**
+     * Returns the number of bytes logged from the end of each response
+     */
+    public int getTailBytes() {
+        return tailBytes;
+    }
+
+    public void setTailBytes(int tailBytes) {
+        this.tailBytes = tailBytes;
+    }
+
+    /**
+     * Returns the fraction of responses between 0 and 1 which are logged
+     */
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The settings of retrying calls to the backend used by {@link ForgeClient} when enabled.
+ * <p>
+ * Each {@link ForgeOperation} has its own {@link RetryPolicy}. By default only the idempotent operations are retried;
+ * {@link ForgeOperation#EXECUTE} has no policy so it is never retried unless one is set for it.
+ */
+public class RetryConfig {
+    private boolean enabled;
+    private final Map<ForgeOperation, RetryPolicy> policies = new EnumMap<>(ForgeOperation.class);
+
+    public RetryConfig() {
+        RetryPolicy policy = new RetryPolicy();
+        for (ForgeOperation operation : ForgeOperation.values()) {
+            if (operation != ForgeOperation.EXECUTE) {
+                policies.put(operation, new RetryPolicy(policy));
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RetryConfig{" +
+                "enabled=" + enabled +
+                ", policies=" + policies +
+                '}';
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns the policy of the given operation or null if it is not retried
+     */
+    public RetryPolicy getPolicy(ForgeOperation operation) {
+        return policies.get(operation);
+    }
+
+    /**
+     * Sets the policy of the given operation or removes it if the policy is null so that the operation is not retried
+     */
+    public void setPolicy(ForgeOperation operation, RetryPolicy policy) {
+        if (policy != null) {
+            policies.put(operation, policy);
+        } else {
+            policies.remove(operation);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How a {@link ForgeOperation} is retried by {@link RetryingCommandsAPI}: the number of attempts, the exponential
+ * backoff with jitter between them and whether a hedged second request is sent when the first is slower than
+ * a percentile of the recent latency of the operation
+ */
+public class RetryPolicy {
+    private int maxAttempts = 3;
+    private long initialBackoffMillis = 100;
+    private long maxBackoffMillis = 5 * 1000L;
+    private double backoffMultiplier = 2.0;
+    private double jitter = 0.5;
+    private Set<Integer> retryStatuses = new HashSet<>(Arrays.asList(502, 503, 504));
+    private double hedgePercentile;
+    private long hedgeMinDelayMillis = 100;
+    private int hedgeMinSamples = 20;
+
+    public RetryPolicy() {
+    }
+
+    public RetryPolicy(RetryPolicy policy) {
+        this.maxAttempts = policy.maxAttempts;
+        this.initialBackoffMillis = policy.initialBackoffMillis;
+        this.maxBackoffMillis = policy.maxBackoffMillis;
+        this.backoffMultiplier = policy.backoffMultiplier;
+        this.jitter = policy.jitter;
+        this.retryStatuses = new HashSet<>(policy.retryStatuses);
+        this.hedgePercentile = policy.hedgePercentile;
+        this.hedgeMinDelayMillis = policy.hedgeMinDelayMillis;
+        this.hedgeMinSamples = policy.hedgeMinSamples;
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy{" +
+                "maxAttempts=" + maxAttempts +
+                ", initialBackoffMillis=" + initialBackoffMillis +
+                ", maxBackoffMillis=" + maxBackoffMillis +
+                ", backoffMultiplier=" + backoffMultiplier +
+                ", jitter=" + jitter +
+                ", retryStatuses=" + retryStatuses +
+                ", hedgePercentile=" + hedgePercentile +
+                ", hedgeMinDelayMillis=" + hedgeMinDelayMillis +
+                '}';
+    }
+
+    /**
+     * Returns the time to wait before the given retry, starting at 1, which grows exponentially up to the maximum
+     * backoff and is then reduced by a random fraction of up to the jitter so that clients do not retry in step
+     */
+    public long getBackoffMillis(int retry) {
+        double delay = initialBackoffMillis * Math.pow(backoffMultiplier, Math.max(0, retry - 1));
+        delay = Math.min(delay, maxBackoffMillis);
+        if (jitter > 0) {
+            delay -= delay * jitter * ThreadLocalRandom.current().nextDouble();
+        }
+        return Math.max(0, Math.round(delay));
+    }
+
+    public boolean isRetryStatus(int status) {
+        return retryStatuses.contains(status);
+    }
+
+    /**
+     * Returns true if a hedged request is sent for slow calls
+     */
+    public boolean isHedging() {
+        return hedgePercentile > 0;
+    }
+
+    /**
+     * Returns the number of times a call is attempted including the first one
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public long getInitialBackoffMillis() {
+        return initialBackoffMillis;
+    }
+
+    public void setInitialBackoffMillis(long initialBackoffMillis) {
+        this.initialBackoffMillis = initialBackoffMillis;
+    }
+
+    public long getMaxBackoffMillis() {
+        return maxBackoffMillis;
+    }
+
+    public void setMaxBackoffMillis(long maxBackoffMillis) {
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    public double getBackoffMultiplier() {
+        return backoffMultiplier;
+    }
+
+    public void setBackoffMultiplier(double backoffMultiplier) {
+        this.backoffMultiplier = backoffMultiplier;
+    }
+
+    /**
+     * Returns the fraction, between 0 and 1, of each backoff which is randomized
+     */
+    public double getJitter() {
+        return jitter;
+    }
+
+    public void setJitter(double jitter) {
+        this.jitter = jitter;
+    }
+
+    /**
+     * Returns the response status codes which are retried; connection failures are always retried
+     */
+    public Set<Integer> getRetryStatuses() {
+        return retryStatuses;
+    }
+
+    public void setRetryStatuses(Set<Integer> retryStatuses) {
+        this.retryStatuses = retryStatuses;
+    }
+
+    /**
+     * Returns the latency percentile, such as 95, after which a hedged request is sent if the first has not
+     * completed; 0 disables hedging
+     */
+    public double getHedgePercentile() {
+        return hedgePercentile;
+    }
+
+    public void setHedgePercentile(double hedgePercentile) {
+        this.hedgePercentile = hedgePercentile;
+    }
+
+    /**
+     * Returns the minimum time to wait for the first request before hedging so that fast operations are not doubled up
+     */
+    public long getHedgeMinDelayMillis() {
+        return hedgeMinDelayMillis;
+    }
+
+    public void setHedgeMinDelayMillis(long hedgeMinDelayMillis) {
+        this.hedgeMinDelayMillis = hedgeMinDelayMillis;
+    }
+
+    /**
+     * Returns the number of calls of an operation which must have completed before its latency percentile is trusted
+     */
+    public int getHedgeMinSamples() {
+        return hedgeMinSamples;
+    }
+
+    public void setHedgeMinSamples(int hedgeMinSamples) {
+        this.hedgeMinSamples = hedgeMinSamples;
+    }
+}
@@ -0,0 +1,314 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.dto.ExecutionRequest;
+import io.fabric8.forge.rest.client.dto.VersionDTO;
+import io.fabric8.forge.rest.client.metrics.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Form;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Retries the calls to the backend which have a {@link RetryPolicy} in the {@link RetryConfig} when they fail to
+ * connect or return one of the retry statuses, waiting with exponential backoff and jitter between the attempts.
+ * <p>
+ * If the policy enables hedging then once an operation has completed enough times, a call which is still running
+ * after the configured percentile of its latency gets a second identical request and whichever succeeds first is
+ * used; the other response is closed. Hedged calls run on a pool of daemon threads while other calls run on the
+ * calling thread.
+ */
+public class RetryingCommandsAPI extends DelegatingCommandsAPI {
+    private static final transient Logger LOG = LoggerFactory.getLogger(RetryingCommandsAPI.class);
+
+    private final RetryConfig config;
+    private final Map<ForgeOperation, LatencyHistogram> latencies = new EnumMap<>(ForgeOperation.class);
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private volatile ExecutorService hedgeExecutor;
+
+    public RetryingCommandsAPI(CommandsAPI delegate, RetryConfig config) {
+        super(delegate);
+        this.config = config;
+        for (ForgeOperation operation : ForgeOperation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RetryingCommandsAPI{" +
+                "retries=" + getRetries() +
+                ", hedges=" + getHedges() +
+                ", hedgeWins=" + getHedgeWins() +
+                '}';
+    }
+
+    @Override
+    public VersionDTO getInfo() {
+        return invokeUnchecked(ForgeOperation.VERSION, () -> getDelegate().getInfo());
+    }
+
+    @Override
+    public List<String> getCommandNames() {
+        return invokeUnchecked(ForgeOperation.COMMAND_NAMES, () -> getDelegate().getCommandNames());
+    }
+
+    @Override
+    public Response getCommandNames(String ifNoneMatch) {
+        return invokeUnchecked(ForgeOperation.COMMAND_NAMES, () -> getDelegate().getCommandNames(ifNoneMatch));
+    }
+
+    @Override
+    public Response validateCommand(String name, ExecutionRequest executionRequest) throws Exception {
+        return invoke(ForgeOperation.VALIDATE, () -> getDelegate().validateCommand(name, executionRequest));
+    }
+
+    @Override
+    public Response getCommandInput(String name) throws Exception {
+        return invoke(ForgeOperation.COMMAND_INPUT, () -> getDelegate().getCommandInput(name));
+    }
+
+    @Override
+    public Response getCommandInput(String name, String ifNoneMatch) throws Exception {
+        return invoke(ForgeOperation.COMMAND_INPUT, () -> getDelegate().getCommandInput(name, ifNoneMatch));
+    }
+
+    @Override
+    public Response nextStep(String name, ExecutionRequest executionRequest) throws Exception {
+        return invoke(ForgeOperation.NEXT_STEP, () -> getDelegate().nextStep(name, executionRequest));
+    }
+
+    @Override
+    public Response executeCommand(String name, ExecutionRequest executionRequest) throws Exception {
+        return invoke(ForgeOperation.EXECUTE, () -> getDelegate().executeCommand(name, executionRequest));
+    }
+
+    @Override
+    public Response executeCommand(String commandName, Form form) throws Exception {
+        return invoke(ForgeOperation.EXECUTE, () -> getDelegate().executeCommand(commandName, form));
+    }
+
+    @Override
+    public void close() {
+        ExecutorService executor = hedgeExecutor;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        super.close();
+    }
+
+    /**
+     * Returns the number of attempts made after the first attempt of a call failed
+     */
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    /**
+     * Returns the number of hedged requests sent as the first request was slow
+     */
+    public long getHedges() {
+        return hedges.sum();
+    }
+
+    /**
+     * Returns the number of hedged requests which completed before the first request
+     */
+    public long getHedgeWins() {
+        return hedgeWins.sum();
+    }
+
+    protected <T> T invoke(ForgeOperation operation, Callable<T> call) throws Exception {
+        RetryPolicy policy = config.getPolicy(operation);
+        if (policy == null) {
+            return call.call();
+        }
+        for (int attempt = 1; ; attempt++) {
+            boolean lastAttempt = attempt >= policy.getMaxAttempts();
+            try {
+                T answer = invokeHedged(operation, policy, call);
+                if (lastAttempt || !(answer instanceof Response) || !policy.isRetryStatus(((Response) answer).getStatus())) {
+                    return answer;
+                }
+                LOG.debug("Retrying " + operation.getLabel() + " after status " + ((Response) answer).getStatus());
+                ((Response) answer).close();
+            } catch (Exception e) {
+                if (lastAttempt || !isRetryable(policy, e)) {
+                    throw e;
+                }
+                LOG.debug("Retrying " + operation.getLabel() + " after " + e);
+            }
+            retries.increment();
+            long backoff = policy.getBackoffMillis(attempt);
+            if (backoff > 0) {
+                Thread.sleep(backoff);
+            }
+        }
+    }
+
+    protected <T> T invokeHedged(ForgeOperation operation, RetryPolicy policy, Callable<T> call) throws Exception {
+        long hedgeDelay = getHedgeDelayMillis(operation, policy);
+        if (hedgeDelay <= 0) {
+            return timed(operation, call).call();
+        }
+        ExecutorService executor = getHedgeExecutor();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+        Future<?> first = executor.submit(() -> complete(result, outstanding, timed(operation, call), false));
+        try {
+            return result.get(hedgeDelay, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            hedges.increment();
+            LOG.debug("Hedging " + operation.getLabel() + " as it took longer than " + hedgeDelay + " millis");
+        } catch (ExecutionException e) {
+            throw toException(e);
+        }
+        outstanding.incrementAndGet();
+        Future<?> second = executor.submit(() -> complete(result, outstanding, timed(operation, call), true));
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            throw toException(e);
+        } catch (InterruptedException e) {
+            first.cancel(true);
+            second.cancel(true);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns how long to wait for a call before hedging it or 0 if it should not be hedged
+     */
+    protected long getHedgeDelayMillis(ForgeOperation operation, RetryPolicy policy) {
+        if (!policy.isHedging()) {
+            return 0;
+        }
+        LatencyHistogram histogram = latencies.get(operation);
+        if (histogram.getCount() < policy.getHedgeMinSamples()) {
+            return 0;
+        }
+        return Math.max(policy.getHedgeMinDelayMillis(), histogram.getPercentileMillis(policy.getHedgePercentile()));
+    }
+
+    protected boolean isRetryable(RetryPolicy policy, Exception e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof WebApplicationException) {
+                Response response = ((WebApplicationException) cause).getResponse();
+                return response != null && policy.isRetryStatus(response.getStatus());
+            }
+            if (cause instanceof IOException || cause instanceof ProcessingException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private <T> Callable<T> timed(ForgeOperation operation, Callable<T> call) {
+        return () -> {
+            long start = System.nanoTime();
+            T answer = call.call();
+            if (!(answer instanceof Response) || ((Response) answer).getStatus() < 500) {
+                latencies.get(operation).record(System.nanoTime() - start);
+            }
+            return answer;
+        };
+    }
+
+    /**
+     * Completes the result with the first response; it only fails once all of the outstanding requests have failed
+     */
+    private <T> void complete(CompletableFuture<T> result, AtomicInteger outstanding, Callable<T> call, boolean hedge) {
+        try {
+            T answer = call.call();
+            if (result.complete(answer)) {
+                if (hedge) {
+                    hedgeWins.increment();
+                }
+            } else if (answer instanceof Response) {
+                ((Response) answer).close();
+            }
+        } catch (Throwable e) {
+            if (outstanding.decrementAndGet() <= 0) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private ExecutorService getHedgeExecutor() {
+        ExecutorService answer = hedgeExecutor;
+        if (answer == null) {
+            synchronized (this) {
+                answer = hedgeExecutor;
+                if (answer == null) {
+                    AtomicInteger counter = new AtomicInteger();
+                    answer = Executors.newCachedThreadPool(runnable -> {
+                        Thread thread = new Thread(runnable, "forge-hedge-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    hedgeExecutor = answer;
+                }
+            }
+        }
+        return answer;
+    }
+
+    private static Exception toException(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof Exception) {
+            return (Exception) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return e;
+    }
+
+    private <T> T invokeUnchecked(ForgeOperation operation, Callable<T> call) {
+        try {
+            return invoke(operation, call);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            // lets keep the interrupt visible to the caller as the exception is wrapped
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while invoking " + operation.getLabel() + ". " + e, e);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to invoke " + operation.getLabel() + ". " + e, e);
+        }
+    }
+}
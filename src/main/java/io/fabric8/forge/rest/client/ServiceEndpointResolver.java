@@ -0,0 +1,316 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.kubernetes.api.KubernetesHelper;
+import io.fabric8.kubernetes.api.model.Endpoints;
+import io.fabric8.kubernetes.api.model.EndpointsList;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.ListMeta;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceList;
+import io.fabric8.kubernetes.api.model.ServicePort;
+import io.fabric8.kubernetes.api.model.ServiceSpec;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.openshift.api.model.Route;
+import io.fabric8.openshift.api.model.RouteList;
+import io.fabric8.openshift.api.model.RouteSpec;
+import io.fabric8.openshift.client.OpenShiftClient;
+import io.fabric8.utils.Closeables;
+import io.fabric8.utils.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static io.fabric8.kubernetes.api.KubernetesHelper.getName;
+
+/**
+ * Resolves the URLs of services such as Jenkins and the generator backend from a local cache of the
+ * Services, Routes and Endpoints of each namespace used.
+ * <p>
+ * The first lookup in a namespace lists its Services and Routes and starts watching them so that later
+ * lookups are map reads which stay current as the endpoints change. If a watch is closed by the API server
+ * the namespace is listed and watched again on its next lookup. Services which cannot be resolved from the
+ * cache, such as head-less services or external services exposed without a route, are resolved with
+ * {@link KubernetesHelper#getServiceURL(KubernetesClient, String, String, String, boolean)} and the result is
+ * cached until the Service or Route of that name changes.
+ */
+public class ServiceEndpointResolver implements Closeable {
+    private static final transient Logger LOG = LoggerFactory.getLogger(ServiceEndpointResolver.class);
+
+    private final KubernetesClient kubernetesClient;
+    private final ConcurrentMap<String, NamespaceEndpoints> namespaces = new ConcurrentHashMap<>();
+    private Boolean openShift;
+
+    public ServiceEndpointResolver(KubernetesClient kubernetesClient) {
+        this.kubernetesClient = kubernetesClient;
+    }
+
+    /**
+     * Returns the URL of the service in the namespace or null if there is no such service
+     *
+     * @param external whether the URL should be reachable from outside of the cluster such as via a route
+     */
+    public String getServiceURL(String serviceName, String namespace, String protocol, boolean external) {
+        NamespaceEndpoints endpoints = getNamespaceEndpoints(namespace);
+        if (endpoints != null) {
+            Service service = endpoints.services.get(serviceName);
+            if (service == null) {
+                return null;
+            }
+            String answer = toServiceURL(service, endpoints.routes.get(serviceName), protocol, external);
+            if (answer != null) {
+                return answer;
+            }
+            // lets only query the cluster again once the service or its route has changed
+            String key = serviceName + "|" + protocol + "|" + external;
+            answer = endpoints.clusterURLs.get(key);
+            if (answer == null) {
+                answer = getServiceURLFromCluster(serviceName, namespace, protocol, external);
+                endpoints.clusterURLs.put(key, answer != null ? answer : "");
+            }
+            return Strings.isNotBlank(answer) ? answer : null;
+        }
+        return getServiceURLFromCluster(serviceName, namespace, protocol, external);
+    }
+
+    /**
+     * Returns the cached Endpoints of the service of the given name or null if there are none
+     */
+    public Endpoints getEndpoints(String serviceName, String namespace) {
+        NamespaceEndpoints endpoints = getNamespaceEndpoints(namespace);
+        if (endpoints != null) {
+            return endpoints.endpoints.get(serviceName);
+        }
+        return getEndpointsFromCluster(serviceName, namespace);
+    }
+
+    /**
+     * Returns the cached Service of the given name or null if there is none
+     */
+    public Service getService(String serviceName, String namespace) {
+        NamespaceEndpoints endpoints = getNamespaceEndpoints(namespace);
+        return endpoints != null ? endpoints.services.get(serviceName) : null;
+    }
+
+    public KubernetesClient getKubernetesClient() {
+        return kubernetesClient;
+    }
+
+    @Override
+    public void close() {
+        for (NamespaceEndpoints endpoints : namespaces.values()) {
+            endpoints.close();
+        }
+        namespaces.clear();
+    }
+
+    /**
+     * Returns the URL of the service using its expose URL annotation, its route or its cluster IP
+     * or null if it cannot be resolved without querying the cluster
+     */
+    protected static String toServiceURL(Service service, Route route, String protocol, boolean external) {
+        String exposeUrl = KubernetesHelper.getOrCreateAnnotations(service).get("fabric8.io/exposeUrl");
+        if (Strings.isNotBlank(exposeUrl)) {
+            return exposeUrl;
+        }
+        if (external) {
+            RouteSpec routeSpec = route != null ? route.getSpec() : null;
+            if (routeSpec != null && Strings.isNotBlank(routeSpec.getHost())) {
+                return (protocol + "://" + routeSpec.getHost()).toLowerCase();
+            }
+            return null;
+        }
+        ServiceSpec spec = service.getSpec();
+        if (spec == null || Strings.isNullOrBlank(spec.getClusterIP()) || "None".equals(spec.getClusterIP())) {
+            return null;
+        }
+        List<ServicePort> ports = spec.getPorts();
+        if (ports == null || ports.isEmpty() || ports.get(0).getPort() == null) {
+            return null;
+        }
+        return (protocol + "://" + spec.getClusterIP() + ":" + ports.get(0).getPort()).toLowerCase();
+    }
+
+    /**
+     * Resolves the URL of the service by querying the cluster when it cannot be resolved from the cache
+     */
+    protected String getServiceURLFromCluster(String serviceName, String namespace, String protocol, boolean external) {
+        try {
+            return KubernetesHelper.getServiceURL(kubernetesClient, serviceName, namespace, protocol, external);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Queries the cluster for the Endpoints of the service when the namespace could not be watched
+     */
+    protected Endpoints getEndpointsFromCluster(String serviceName, String namespace) {
+        return kubernetesClient.endpoints().inNamespace(namespace).withName(serviceName).get();
+    }
+
+    /**
+     * Returns the endpoints of the namespace, loading and watching them on first use,
+     * or null if they could not be loaded
+     */
+    protected NamespaceEndpoints getNamespaceEndpoints(String namespace) {
+        NamespaceEndpoints answer = namespaces.get(namespace);
+        if (answer != null && answer.active) {
+            return answer;
+        }
+        synchronized (this) {
+            answer = namespaces.get(namespace);
+            if (answer != null && answer.active) {
+                return answer;
+            }
+            if (answer != null) {
+                answer.close();
+            }
+            try {
+                answer = loadNamespaceEndpoints(namespace);
+                namespaces.put(namespace, answer);
+                return answer;
+            } catch (Exception e) {
+                LOG.warn("Failed to watch the services in namespace " + namespace + ". " + e, e);
+                namespaces.remove(namespace);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Lists the Services, Endpoints and Routes of the namespace and watches them from the resource version
+     * of each list so that no change made between the list and the watch is missed
+     */
+    protected NamespaceEndpoints loadNamespaceEndpoints(String namespace) {
+        NamespaceEndpoints answer = new NamespaceEndpoints();
+        try {
+            ServiceList services = kubernetesClient.services().inNamespace(namespace).list();
+            for (Service service : services.getItems()) {
+                answer.services.put(getName(service), service);
+            }
+            answer.watches.add(kubernetesClient.services().inNamespace(namespace).watch(resourceVersion(services.getMetadata()), answer.getServiceWatcher()));
+            EndpointsList endpointsList = kubernetesClient.endpoints().inNamespace(namespace).list();
+            for (Endpoints endpoints : endpointsList.getItems()) {
+                answer.endpoints.put(getName(endpoints), endpoints);
+            }
+            answer.watches.add(kubernetesClient.endpoints().inNamespace(namespace).watch(resourceVersion(endpointsList.getMetadata()), answer.getEndpointsWatcher()));
+            if (isOpenShift()) {
+                OpenShiftClient openShiftClient = kubernetesClient.adapt(OpenShiftClient.class);
+                RouteList routes = openShiftClient.routes().inNamespace(namespace).list();
+                for (Route route : routes.getItems()) {
+                    answer.routes.put(getName(route), route);
+                }
+                answer.watches.add(openShiftClient.routes().inNamespace(namespace).watch(resourceVersion(routes.getMetadata()), answer.getRouteWatcher()));
+            }
+        } catch (RuntimeException e) {
+            answer.close();
+            throw e;
+        }
+        LOG.debug("Watching " + answer.services.size() + " services and " + answer.routes.size() + " routes in namespace " + namespace);
+        return answer;
+    }
+
+    private static String resourceVersion(ListMeta metadata) {
+        return metadata != null ? metadata.getResourceVersion() : null;
+    }
+
+    protected boolean isOpenShift() {
+        if (openShift == null) {
+            openShift = KubernetesHelper.isOpenShift(kubernetesClient);
+        }
+        return openShift;
+    }
+
+    protected static class NamespaceEndpoints implements Closeable {
+        private final ConcurrentMap<String, Service> services = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, Route> routes = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, Endpoints> endpoints = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, String> clusterURLs = new ConcurrentHashMap<>();
+        private final List<Watch> watches = new ArrayList<>();
+        private volatile boolean active = true;
+
+        public Watcher<Service> getServiceWatcher() {
+            return createWatcher(services, true);
+        }
+
+        public Watcher<Route> getRouteWatcher() {
+            return createWatcher(routes, true);
+        }
+
+        public Watcher<Endpoints> getEndpointsWatcher() {
+            return createWatcher(endpoints, false);
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        protected <T extends HasMetadata> Watcher<T> createWatcher(Map<String, T> map, boolean changesURL) {
+            return new Watcher<T>() {
+                @Override
+                public void eventReceived(Action action, T resource) {
+                    String name = getName(resource);
+                    if (name == null) {
+                        return;
+                    }
+                    switch (action) {
+                        case ADDED:
+                        case MODIFIED:
+                            map.put(name, resource);
+                            break;
+                        case DELETED:
+                            map.remove(name);
+                            break;
+                        default:
+                            break;
+                    }
+                    if (changesURL) {
+                        String prefix = name + "|";
+                        clusterURLs.keySet().removeIf(key -> key.startsWith(prefix));
+                    }
+                }
+
+                @Override
+                public void onClose(KubernetesClientException cause) {
+                    if (active) {
+                        LOG.info("Watch closed so the endpoints will be reloaded on next use" + (cause != null ? ". " + cause : ""));
+                        active = false;
+                    }
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            active = false;
+            for (Watch watch : watches) {
+                Closeables.closeQuietly(watch);
+            }
+        }
+    }
+}
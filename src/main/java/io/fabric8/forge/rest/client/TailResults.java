@@ -25,10 +25,18 @@ public class TailResults {
 
     private final int lastIndex;
     private final String lastLine;
+    private final long offset;
+    private final boolean moreData;
 
     public TailResults(int lastIndex, String lastLine) {
+        this(lastIndex, lastLine, 0, true);
+    }
+
+    public TailResults(int lastIndex, String lastLine, long offset, boolean moreData) {
         this.lastIndex = lastIndex;
         this.lastLine = lastLine;
+        this.offset = offset;
+        this.moreData = moreData;
     }
 
     @Override
@@ -36,6 +44,8 @@ public class TailResults {
         return "TailResults{" +
                 "lastIndex=" + lastIndex +
                 ", lastLine='" + lastLine + '\'' +
+                ", offset=" + offset +
+                ", moreData=" + moreData +
                 '}';
     }
 
@@ -47,6 +57,20 @@ public class TailResults {
         return lastLine;
     }
 
+    /**
+     * Returns the byte offset in the log up to which lines have been processed when tailing the progressive log
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns false once the progressive log reports that the log is complete
+     */
+    public boolean isMoreData() {
+        return moreData;
+    }
+
     /**
      * Returns true if this line index is newer than the last results
      * or the last line has changed (e.g. if output was appended to the last line)
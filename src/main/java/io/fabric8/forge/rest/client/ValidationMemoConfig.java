@@ -0,0 +1,67 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+/**
+ * The settings of the memo of validation results used by {@link ForgeClient} when enabled so that validating
+ * the same request again within a wizard flow does not make another round trip to the backend
+ */
+public class ValidationMemoConfig {
+    private boolean enabled;
+    private int maxEntries = 256;
+    private long ttlMillis = 30 * 1000L;
+
+    @Override
+    public String toString() {
+        return "ValidationMemoConfig{" +
+                "enabled=" + enabled +
+                ", maxEntries=" + maxEntries +
+                ", ttlMillis=" + ttlMillis +
+                '}';
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns the maximum number of validation results kept; the least recently used are discarded first
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns how long a validation result is reused for; this should be short as the result also
+     * depends on the state of the cluster such as which projects already exist
+     */
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    public void setTtlMillis(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+}
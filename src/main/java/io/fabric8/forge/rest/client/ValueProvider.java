@@ -16,6 +16,7 @@
  */
 package io.fabric8.forge.rest.client;
 
+import io.fabric8.forge.rest.client.dto.ChoiceIndex;
 import io.fabric8.forge.rest.client.dto.PropertyDTO;
 
 import java.util.List;
@@ -32,4 +33,21 @@ public class ValueProvider {
         }
         return property.getValue();
     }
+
+    /**
+     * Returns the key of the choice of the property matching the given <code>value</code>, <code>id</code>
+     * or <code>name</code> or null if the property has no such choice
+     */
+    protected Object chooseValue(PropertyDTO property, String key) {
+        Object choice = property.getChoiceIndex().get(key);
+        return choice != null ? ChoiceIndex.primaryKey(choice) : null;
+    }
+
+    /**
+     * Returns the first choice of the property with a key starting with the given prefix or null if there is none
+     */
+    protected Object chooseValueStartingWith(PropertyDTO property, String prefix) {
+        List<Object> choices = property.getChoiceIndex().findByPrefix(prefix, 1);
+        return choices.isEmpty() ? null : ChoiceIndex.primaryKey(choices.get(0));
+    }
 }
@@ -0,0 +1,69 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+/**
+ * A command to run with {@link BulkWizardRunner} along with the {@link ValueProvider} to fill in its pages
+ */
+public class WizardJob {
+    private final String name;
+    private final String commandName;
+    private final ValueProvider valueProvider;
+    private final int numberOfPages;
+
+    public WizardJob(String commandName, ValueProvider valueProvider) {
+        this(commandName, commandName, valueProvider, -1);
+    }
+
+    public WizardJob(String name, String commandName, ValueProvider valueProvider, int numberOfPages) {
+        this.name = name;
+        this.commandName = commandName;
+        this.valueProvider = valueProvider;
+        this.numberOfPages = numberOfPages;
+    }
+
+    @Override
+    public String toString() {
+        return "WizardJob{" +
+                "name='" + name + '\'' +
+                ", commandName='" + commandName + '\'' +
+                ", numberOfPages=" + numberOfPages +
+                '}';
+    }
+
+    /**
+     * Returns the name used to identify this job in the results such as the project being created
+     */
+    public String getName() {
+        return name;
+    }
+
+    public String getCommandName() {
+        return commandName;
+    }
+
+    public ValueProvider getValueProvider() {
+        return valueProvider;
+    }
+
+    /**
+     * Returns the number of pages to fill in or a value that is not positive to use the steps reported by the backend
+     */
+    public int getNumberOfPages() {
+        return numberOfPages;
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.dto.ExecutionResult;
+
+/**
+ * The result of a single {@link WizardJob}; either the run completed or it failed with an exception
+ */
+public class WizardJobResult {
+    private final WizardJob job;
+    private final WizardRunResult runResult;
+    private final Throwable failure;
+    private final long durationMillis;
+
+    public WizardJobResult(WizardJob job, WizardRunResult runResult, Throwable failure, long durationMillis) {
+        this.job = job;
+        this.runResult = runResult;
+        this.failure = failure;
+        this.durationMillis = durationMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "WizardJobResult{" +
+                "job=" + job +
+                ", successful=" + isSuccessful() +
+                ", durationMillis=" + durationMillis +
+                (failure != null ? ", failure=" + failure : ", runResult=" + runResult) +
+                '}';
+    }
+
+    /**
+     * Returns true if the wizard ran and the execution was successful
+     */
+    public boolean isSuccessful() {
+        return failure == null && runResult != null && runResult.isSuccessful();
+    }
+
+    public WizardJob getJob() {
+        return job;
+    }
+
+    public WizardRunResult getRunResult() {
+        return runResult;
+    }
+
+    /**
+     * Returns the result of executing the command or null if the wizard failed before it was executed
+     */
+    public ExecutionResult getExecutionResult() {
+        return runResult != null ? runResult.getExecutionResult() : null;
+    }
+
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.dto.ExecutionResult;
+
+/**
+ * The outcome of running a wizard with {@link WizardRunner} along with how many backend round trips it took
+ */
+public class WizardRunResult {
+    private final String commandName;
+    private ExecutionResult executionResult;
+    private int pages;
+    private int getCommandInputCalls;
+    private int validateCalls;
+    private int nextStepCalls;
+    private int executeCalls;
+    private long durationMillis;
+
+    public WizardRunResult(String commandName) {
+        this.commandName = commandName;
+    }
+
+    @Override
+    public String toString() {
+        return "WizardRunResult{" +
+                "commandName='" + commandName + '\'' +
+                ", pages=" + pages +
+                ", roundTrips=" + getRoundTrips() +
+                ", getCommandInputCalls=" + getCommandInputCalls +
+                ", validateCalls=" + validateCalls +
+                ", nextStepCalls=" + nextStepCalls +
+                ", executeCalls=" + executeCalls +
+                ", durationMillis=" + durationMillis +
+                ", executionResult=" + executionResult +
+                '}';
+    }
+
+    public boolean isSuccessful() {
+        return executionResult != null && executionResult.isSuccessful();
+    }
+
+    /**
+     * Returns the total number of HTTP requests made to the backend for this wizard
+     */
+    public int getRoundTrips() {
+        return getCommandInputCalls + validateCalls + nextStepCalls + executeCalls;
+    }
+
+    public String getCommandName() {
+        return commandName;
+    }
+
+    public ExecutionResult getExecutionResult() {
+        return executionResult;
+    }
+
+    public int getPages() {
+        return pages;
+    }
+
+    public int getGetCommandInputCalls() {
+        return getCommandInputCalls;
+    }
+
+    public int getValidateCalls() {
+        return validateCalls;
+    }
+
+    public int getNextStepCalls() {
+        return nextStepCalls;
+    }
+
+    public int getExecuteCalls() {
+        return executeCalls;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    void setExecutionResult(ExecutionResult executionResult) {
+        this.executionResult = executionResult;
+    }
+
+    void setPages(int pages) {
+        this.pages = pages;
+    }
+
+    void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    void incrementGetCommandInputCalls() {
+        getCommandInputCalls++;
+    }
+
+    void incrementValidateCalls() {
+        validateCalls++;
+    }
+
+    void incrementNextStepCalls() {
+        nextStepCalls++;
+    }
+
+    void incrementExecuteCalls() {
+        executeCalls++;
+    }
+}
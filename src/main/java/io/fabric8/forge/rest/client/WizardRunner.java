@@ -0,0 +1,193 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.dto.CommandInputDTO;
+import io.fabric8.forge.rest.client.dto.ExecutionRequest;
+import io.fabric8.forge.rest.client.dto.ExecutionResult;
+import io.fabric8.forge.rest.client.dto.InputValueDTO;
+import io.fabric8.forge.rest.client.dto.InputValueList;
+import io.fabric8.forge.rest.client.dto.NextStepResult;
+import io.fabric8.forge.rest.client.dto.PropertyDTO;
+import io.fabric8.forge.rest.client.dto.ValidationResult;
+import io.fabric8.forge.rest.client.dto.WizardState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+
+import static io.fabric8.forge.rest.client.ForgeClientHelpers.addPage;
+import static io.fabric8.forge.rest.client.ForgeClientHelpers.addPageValues;
+import static io.fabric8.forge.rest.client.ForgeClientHelpers.getCommandProperties;
+import static io.fabric8.forge.rest.client.ForgeClientHelpers.getLastPage;
+import static io.fabric8.forge.rest.client.ForgeClientHelpers.updatePageValues;
+
+/**
+ * Drives a Forge command or wizard to completion using a {@link ValueProvider} to fill in each page.
+ * <p>
+ * The response of each <code>next</code> call already contains the validation state and the properties
+ * of the following page, so the runner only calls <code>validate</code> when it has to: when a required
+ * value could not be provided until the backend completes it, or when the backend refuses to move on with
+ * the current values. A wizard of N pages therefore usually takes N + 1 round trips.
+ */
+public class WizardRunner {
+    private static final transient Logger LOG = LoggerFactory.getLogger(WizardRunner.class);
+
+    private final ForgeClient forgeClient;
+    private boolean validateBeforeExecute;
+
+    public WizardRunner(ForgeClient forgeClient) {
+        this.forgeClient = forgeClient;
+    }
+
+    public ForgeClient getForgeClient() {
+        return forgeClient;
+    }
+
+    public boolean isValidateBeforeExecute() {
+        return validateBeforeExecute;
+    }
+
+    /**
+     * Whether to always validate the last page before executing; otherwise the backend validates as part of execute
+     */
+    public void setValidateBeforeExecute(boolean validateBeforeExecute) {
+        this.validateBeforeExecute = validateBeforeExecute;
+    }
+
+    /**
+     * Runs the command using the number of wizard steps reported by the backend
+     */
+    public WizardRunResult run(String commandName, ValueProvider valueProvider) throws Exception {
+        return run(commandName, valueProvider, -1);
+    }
+
+    /**
+     * Runs the command for the given number of pages or for the number of wizard steps reported by the backend
+     * if <code>numberOfPages</code> is not positive
+     */
+    public WizardRunResult run(String commandName, ValueProvider valueProvider, int numberOfPages) throws Exception {
+        WizardRunResult result = new WizardRunResult(commandName);
+        long start = System.currentTimeMillis();
+
+        CommandInputDTO commandInput = forgeClient.getCommandInput(commandName);
+        result.incrementGetCommandInputCalls();
+        if (commandInput == null) {
+            throw new IllegalArgumentException("No command found for name: " + commandName);
+        }
+        ExecutionRequest executionRequest = new ExecutionRequest();
+        executionRequest.setNamespace(forgeClient.getNamespace());
+        List<InputValueDTO> inputList = new InputValueList();
+        executionRequest.setInputs(inputList);
+
+        Map<String, PropertyDTO> properties = getCommandProperties(commandInput);
+        fillPage(commandName, executionRequest, properties, valueProvider, result);
+
+        WizardState state = commandInput.getState();
+        int page = 1;
+        for (; page < pageCount(numberOfPages, state); page++) {
+            NextStepResult nextStepResult = forgeClient.nextStep(commandName, executionRequest);
+            result.incrementNextStepCalls();
+            if (!hasInputs(nextStepResult) && !isValid(nextStepResult)) {
+                // the backend could not move on with the current values so lets validate to let the value provider complete them
+                validateAndUpdatePageValues(commandName, executionRequest, valueProvider, result);
+                nextStepResult = forgeClient.nextStep(commandName, executionRequest);
+                result.incrementNextStepCalls();
+            }
+            ValidationResult pageResult = nextStepResult;
+            if (!hasInputs(nextStepResult)) {
+                if (!isValid(nextStepResult)) {
+                    throw new IllegalStateException("Could not move to page " + page + " of command " + commandName + ": "
+                            + (nextStepResult != null ? nextStepResult.validationMessage() : "no response"));
+                }
+                // the step is valid but the backend returned no inputs so lets take them from validating the next page
+                executionRequest.setStepIndex(page);
+                pageResult = forgeClient.validateCommand(commandName, executionRequest);
+                result.incrementValidateCalls();
+                if (!hasInputs(pageResult)) {
+                    throw new IllegalStateException("Could not find the properties of page " + page + " of command " + commandName);
+                }
+            }
+            executionRequest.setStepIndex(page);
+            state = pageResult.getState();
+            fillPage(commandName, executionRequest, getCommandProperties(pageResult), valueProvider, result);
+        }
+        result.setPages(page);
+
+        if (validateBeforeExecute) {
+            ValidationResult validationResult = validateAndUpdatePageValues(commandName, executionRequest, valueProvider, result);
+            if (!validationResult.isValid() || !validationResult.isCanExecute()) {
+                throw new IllegalStateException("Cannot execute command " + commandName + ": " + validationResult.validationMessage());
+            }
+        }
+        ExecutionResult executionResult = forgeClient.executeCommand(commandName, executionRequest);
+        result.incrementExecuteCalls();
+        result.setExecutionResult(executionResult);
+        result.setDurationMillis(System.currentTimeMillis() - start);
+        LOG.debug("Ran command {}: {}", commandName, result);
+        return result;
+    }
+
+    /**
+     * Adds the values of a new page and then validates only if a required value is still missing
+     * as the value provider may need the choices that validation populates
+     */
+    protected void fillPage(String commandName, ExecutionRequest executionRequest, Map<String, PropertyDTO> properties, ValueProvider valueProvider, WizardRunResult result) throws Exception {
+        Map<String, Object> page = addPage(executionRequest.getInputs(), properties, valueProvider);
+        if (isMissingRequiredValue(properties, page)) {
+            validateAndUpdatePageValues(commandName, executionRequest, valueProvider, result);
+        }
+    }
+
+    protected ValidationResult validateAndUpdatePageValues(String commandName, ExecutionRequest executionRequest, ValueProvider valueProvider, WizardRunResult result) throws Exception {
+        Map<String, Object> page = getLastPage(executionRequest);
+        ValidationResult validationResult = forgeClient.validateCommand(commandName, executionRequest);
+        result.incrementValidateCalls();
+        updatePageValues(executionRequest.getInputs(), getCommandProperties(validationResult), valueProvider, page);
+        addPageValues(executionRequest.getInputs(), page);
+        return validationResult;
+    }
+
+    protected static boolean isMissingRequiredValue(Map<String, PropertyDTO> properties, Map<String, Object> page) {
+        for (Map.Entry<String, PropertyDTO> entry : properties.entrySet()) {
+            PropertyDTO property = entry.getValue();
+            if (property.isRequired() && property.getValue() == null && page.get(entry.getKey()) == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasInputs(ValidationResult result) {
+        return result != null && result.getInputs() != null && !result.getInputs().isEmpty();
+    }
+
+    private static boolean isValid(ValidationResult result) {
+        return result != null && result.isValid();
+    }
+
+    private static int pageCount(int numberOfPages, WizardState state) {
+        if (numberOfPages > 0) {
+            return numberOfPages;
+        }
+        if (state != null && state.isWizard() && state.getSteps() != null) {
+            return state.getSteps().size();
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,189 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client.dto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable index of the <code>valueChoices</code> or <code>typeaheadData</code> of a {@link PropertyDTO}
+ * built once so that choosing a value does not scan the choices each time.
+ * <p>
+ * A choice which is a map is indexed by its <code>value</code>, <code>id</code> and <code>name</code> entries
+ * and any other choice by its string form. The {@link #primaryKey(Object)} of every choice is indexed before
+ * the other keys of any choice so a lookup by primary key finds the same choice as scanning the primary keys
+ * would; otherwise when several choices have the same key the first one wins.
+ * Keys are also kept sorted so that typeahead style lookups can find the choices starting with a prefix.
+ */
+public final class ChoiceIndex {
+    public static final String[] KEY_NAMES = {"value", "id", "name"};
+
+    private static final ChoiceIndex EMPTY = new ChoiceIndex(Collections.emptyList());
+
+    private final List<Object> choices;
+    private final Map<String, Object> choicesByKey;
+    private final String[] sortedKeys;
+    private final Object[] sortedChoices;
+
+    private ChoiceIndex(List<Object> choices) {
+        this.choices = choices;
+        this.choicesByKey = new HashMap<>(Math.max(16, choices.size() * 2));
+        for (Object choice : choices) {
+            String key = primaryKey(choice);
+            if (key != null) {
+                choicesByKey.putIfAbsent(key, choice);
+            }
+        }
+        if (containsMaps(choices)) {
+            // lets add the secondary keys without replacing the primary key of another choice
+            for (String keyName : KEY_NAMES) {
+                for (Object choice : choices) {
+                    String key = keyOf(choice, keyName);
+                    if (key != null) {
+                        choicesByKey.putIfAbsent(key, choice);
+                    }
+                }
+            }
+        }
+        this.sortedKeys = choicesByKey.keySet().toArray(new String[choicesByKey.size()]);
+        Arrays.sort(sortedKeys);
+        this.sortedChoices = new Object[sortedKeys.length];
+        for (int i = 0; i < sortedKeys.length; i++) {
+            sortedChoices[i] = choicesByKey.get(sortedKeys[i]);
+        }
+    }
+
+    /**
+     * Returns the index of the given choices which may be null
+     */
+    public static ChoiceIndex of(List<Object> choices) {
+        if (choices == null || choices.isEmpty()) {
+            return EMPTY;
+        }
+        return new ChoiceIndex(choices);
+    }
+
+    /**
+     * Returns the index of the value choices of the property or of its typeahead data if it has no value choices
+     */
+    public static ChoiceIndex of(PropertyDTO property) {
+        List<Object> choices = property.getValueChoices();
+        if (choices == null || choices.isEmpty()) {
+            choices = property.getTypeaheadData();
+        }
+        return of(choices);
+    }
+
+    /**
+     * Returns the key a choice is known by; the first of its <code>value</code>, <code>id</code> or
+     * <code>name</code> entries for a map or its string form otherwise
+     */
+    public static String primaryKey(Object choice) {
+        for (String keyName : KEY_NAMES) {
+            String key = keyOf(choice, keyName);
+            if (key != null || !(choice instanceof Map)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "ChoiceIndex{" +
+                "choices=" + choices.size() +
+                ", keys=" + sortedKeys.length +
+                '}';
+    }
+
+    /**
+     * Returns the choices that were indexed
+     */
+    public List<Object> getChoices() {
+        return choices;
+    }
+
+    public boolean isEmpty() {
+        return choices.isEmpty();
+    }
+
+    public int size() {
+        return choices.size();
+    }
+
+    public boolean contains(String key) {
+        return key != null && choicesByKey.containsKey(key);
+    }
+
+    /**
+     * Returns the choice with the given key or null if there is none
+     */
+    public Object get(String key) {
+        return key != null ? choicesByKey.get(key) : null;
+    }
+
+    /**
+     * Returns the distinct choices which have a key starting with the given prefix in key order
+     */
+    public List<Object> findByPrefix(String prefix) {
+        return findByPrefix(prefix, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns at most <code>limit</code> distinct choices which have a key starting with the given prefix in key order
+     */
+    public List<Object> findByPrefix(String prefix, int limit) {
+        if (prefix == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        int idx = Arrays.binarySearch(sortedKeys, prefix);
+        if (idx < 0) {
+            idx = -idx - 1;
+        }
+        List<Object> answer = new ArrayList<>();
+        Map<Object, Boolean> found = new IdentityHashMap<>();
+        for (; idx < sortedKeys.length && answer.size() < limit && sortedKeys[idx].startsWith(prefix); idx++) {
+            Object choice = sortedChoices[idx];
+            if (found.put(choice, Boolean.TRUE) == null) {
+                answer.add(choice);
+            }
+        }
+        return answer;
+    }
+
+    private static String keyOf(Object choice, String keyName) {
+        if (choice instanceof Map) {
+            Object value = ((Map<?, ?>) choice).get(keyName);
+            return value != null ? value.toString() : null;
+        }
+        return choice != null && KEY_NAMES[0].equals(keyName) ? choice.toString() : null;
+    }
+
+    private static boolean containsMaps(List<Object> choices) {
+        for (Object choice : choices) {
+            if (choice instanceof Map) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
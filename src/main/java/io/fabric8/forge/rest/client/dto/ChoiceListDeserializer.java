@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Deserializes the <code>valueChoices</code> and <code>typeaheadData</code> of a {@link PropertyDTO} into
+ * immutable lists shared through the {@link ChoicePool}; strings are interned and objects become {@link ChoiceMap}s
+ * so that repeated choices across responses are only held once.
+ */
+public class ChoiceListDeserializer extends JsonDeserializer<List<Object>> {
+    private final ChoicePool pool;
+
+    public ChoiceListDeserializer() {
+        this(ChoicePool.getDefault());
+    }
+
+    public ChoiceListDeserializer(ChoicePool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public List<Object> deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+            return pool.internList(Collections.singletonList(readValue(parser, context)));
+        }
+        return readList(parser, context);
+    }
+
+    protected List<Object> readList(JsonParser parser, DeserializationContext context) throws IOException {
+        List<Object> buffer = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            buffer.add(readValue(parser, context));
+        }
+        if (buffer.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return pool.internList(Collections.unmodifiableList(Arrays.asList(buffer.toArray())));
+    }
+
+    protected Object readValue(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.getCurrentToken();
+        if (token == null) {
+            throw context.mappingException("Unexpected end of input reading value choices");
+        }
+        switch (token) {
+            case VALUE_STRING:
+                return pool.intern(parser.getText());
+            case START_ARRAY:
+                return readList(parser, context);
+            case START_OBJECT:
+            case FIELD_NAME:
+                return readMap(parser, context);
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getNumberValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NULL:
+                return null;
+            default:
+                return parser.readValueAs(Object.class);
+        }
+    }
+
+    protected ChoiceMap readMap(JsonParser parser, DeserializationContext context) throws IOException {
+        List<String> keys = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        JsonToken token = parser.getCurrentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = parser.nextToken();
+        }
+        for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+            keys.add(pool.intern(parser.getCurrentName()));
+            parser.nextToken();
+            values.add(readValue(parser, context));
+        }
+        return new ChoiceMap(pool.internKeys(keys.toArray(new String[keys.size()])), values.toArray());
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client.dto;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Canonicalizes the strings, key sets and lists of the value choices returned by the backend so that the same
+ * catalog or pipeline choices returned by every validate and next step call, and by concurrent wizards, are held
+ * in memory once.
+ * <p>
+ * The pools are bounded; when one fills up it is cleared and starts again which only loses sharing, never correctness.
+ */
+public class ChoicePool {
+    private static final ChoicePool DEFAULT = new ChoicePool(64 * 1024, 4 * 1024);
+
+    private final int maxStrings;
+    private final int maxLists;
+    private final ConcurrentMap<String, String> strings = new ConcurrentHashMap<>();
+    private final ConcurrentMap<KeySet, String[]> keySets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<List<Object>, List<Object>> lists = new ConcurrentHashMap<>();
+
+    public ChoicePool(int maxStrings, int maxLists) {
+        this.maxStrings = maxStrings;
+        this.maxLists = maxLists;
+    }
+
+    /**
+     * Returns the pool shared by all {@link PropertyDTO}s parsed in this JVM
+     */
+    public static ChoicePool getDefault() {
+        return DEFAULT;
+    }
+
+    @Override
+    public String toString() {
+        return "ChoicePool{" +
+                "strings=" + strings.size() +
+                ", keySets=" + keySets.size() +
+                ", lists=" + lists.size() +
+                '}';
+    }
+
+    public String intern(String text) {
+        if (text == null) {
+            return null;
+        }
+        String answer = strings.get(text);
+        if (answer == null) {
+            if (strings.size() >= maxStrings) {
+                strings.clear();
+            }
+            answer = strings.putIfAbsent(text, text);
+            if (answer == null) {
+                answer = text;
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the shared array of the given keys of a choice map
+     */
+    public String[] internKeys(String[] keys) {
+        KeySet key = new KeySet(keys);
+        String[] answer = keySets.get(key);
+        if (answer == null) {
+            if (keySets.size() >= maxLists) {
+                keySets.clear();
+            }
+            answer = keySets.putIfAbsent(key, keys);
+            if (answer == null) {
+                answer = keys;
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the shared immutable list equal to the given immutable list
+     */
+    public List<Object> internList(List<Object> list) {
+        List<Object> answer = lists.get(list);
+        if (answer == null) {
+            if (lists.size() >= maxLists) {
+                lists.clear();
+            }
+            answer = lists.putIfAbsent(list, list);
+            if (answer == null) {
+                answer = list;
+            }
+        }
+        return answer;
+    }
+
+    public int getStringCount() {
+        return strings.size();
+    }
+
+    public int getListCount() {
+        return lists.size();
+    }
+
+    public void clear() {
+        strings.clear();
+        keySets.clear();
+        lists.clear();
+    }
+
+    private static final class KeySet {
+        private final String[] keys;
+        private final int hashCode;
+
+        KeySet(String[] keys) {
+            this.keys = keys;
+            this.hashCode = Arrays.hashCode(keys);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof KeySet && Arrays.equals(keys, ((KeySet) o).keys);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
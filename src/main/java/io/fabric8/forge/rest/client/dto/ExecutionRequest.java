@@ -15,6 +15,8 @@
  */
 package io.fabric8.forge.rest.client.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
 import java.util.List;
 
 /**
@@ -24,6 +26,7 @@ public class ExecutionRequest {
     private String resource;
     private String projectName;
     private String namespace;
+    @JsonDeserialize(as = InputValueList.class)
     private List<InputValueDTO> inputs;
     private Integer stepIndex;
 
@@ -35,10 +38,16 @@ public class ExecutionRequest {
                 '}';
     }
 
+    /**
+     * Returns the inputs which are an {@link InputValueList} indexed by name unless another list was set
+     */
     public List<InputValueDTO> getInputs() {
         return inputs;
     }
 
+    /**
+     * Sets the inputs; use an {@link InputValueList} so that values can be looked up and updated by name in constant time
+     */
     public void setInputs(List<InputValueDTO> inputs) {
         this.inputs = inputs;
     }
@@ -17,27 +17,76 @@
 package io.fabric8.forge.rest.client.dto;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 /**
+ * The result of executing a command.
+ * <p>
+ * A result created from the raw bytes of the response keeps only those bytes and decodes the text or parses
+ * the JSON tree the first time they are asked for, so that a large response is only held once on the heap
+ * unless both views are used.
  */
 public class ExecutionResult {
     private final int status;
-    private final String entity;
-    private final JsonNode json;
+    private final byte[] data;
+    private final Charset charset;
+    private final boolean jsonContent;
+    private final ObjectMapper objectMapper;
+    private volatile String entity;
+    private volatile JsonNode json;
 
     public ExecutionResult(int status, String entity, JsonNode json) {
+        this(status, entity, json, null);
+    }
+
+    public ExecutionResult(int status, String entity, JsonNode json, ObjectMapper objectMapper) {
         this.status = status;
         this.entity = entity;
         this.json = json;
+        this.objectMapper = objectMapper;
+        this.data = null;
+        this.charset = StandardCharsets.UTF_8;
+        this.jsonContent = json != null;
     }
 
+    /**
+     * Creates a result which lazily decodes the given response body using the charset of the response
+     * and only parses it as JSON if <code>jsonContent</code> is true
+     */
+    public ExecutionResult(int status, byte[] data, Charset charset, boolean jsonContent, ObjectMapper objectMapper) {
+        if (objectMapper == null) {
+            throw new IllegalArgumentException("An ObjectMapper is required to lazily parse the result");
+        }
+        this.status = status;
+        this.data = data;
+        this.charset = charset != null ? charset : StandardCharsets.UTF_8;
+        this.jsonContent = jsonContent;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Only includes the text and JSON if they have already been materialized so that logging a lazy result
+     * neither decodes nor parses it
+     */
     @Override
     public String toString() {
-        return "ExecutionResult{" +
-                "status=" + status +
-                ", entity='" + entity + '\'' +
-                ", json=" + json +
-                '}';
+        StringBuilder builder = new StringBuilder("ExecutionResult{status=").append(status);
+        if (data != null) {
+            builder.append(", bytes=").append(data.length);
+        }
+        String text = entity;
+        if (text != null) {
+            builder.append(", entity='").append(text).append('\'');
+        }
+        JsonNode tree = json;
+        if (tree != null) {
+            builder.append(", json=").append(tree);
+        }
+        return builder.append('}').toString();
     }
 
     public boolean isSuccessful() {
@@ -48,11 +97,83 @@ public class ExecutionResult {
         return status;
     }
 
+    /**
+     * Returns the text of the response, decoding it on first use if the result was created from bytes
+     */
     public String getEntity() {
-        return entity;
+        String answer = entity;
+        if (answer == null && data != null) {
+            answer = new String(data, charset);
+            entity = answer;
+        }
+        return answer;
     }
 
+    /**
+     * Returns the response parsed as JSON, parsing it on first use if the result was created from bytes,
+     * or null if the response was not JSON or was empty
+     */
     public JsonNode getJson() {
-        return json;
+        JsonNode answer = json;
+        if (answer == null && jsonContent && data != null && !isBlank(data)) {
+            try {
+                answer = isUnicode() ? objectMapper.readTree(data) : objectMapper.readTree(getEntity());
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to parse JSON response: " + getEntity() + ". " + e, e);
+            }
+            json = answer;
+        }
+        return answer;
+    }
+
+    /**
+     * Binds the JSON response to the given type reading directly from the response bytes where possible
+     * rather than going via the text or tree, or returns null if the response was not JSON or was empty
+     */
+    public <T> T as(Class<T> type) throws IOException {
+        if (objectMapper == null) {
+            throw new IllegalStateException("No ObjectMapper available to bind the result to " + type.getName());
+        }
+        if (!jsonContent) {
+            return null;
+        }
+        JsonNode tree = json;
+        if (tree != null) {
+            return objectMapper.treeToValue(tree, type);
+        }
+        if (data == null || isBlank(data)) {
+            return null;
+        }
+        if (isUnicode()) {
+            return objectMapper.readValue(data, type);
+        }
+        return objectMapper.readValue(getEntity(), type);
+    }
+
+    /**
+     * Returns the raw bytes of the response or null if the result was created from text
+     */
+    public byte[] getData() {
+        return data;
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * Returns true if the response bytes can be handed straight to Jackson which detects the UTF encodings itself
+     */
+    private boolean isUnicode() {
+        return StandardCharsets.UTF_8.equals(charset) || StandardCharsets.US_ASCII.equals(charset);
+    }
+
+    private static boolean isBlank(byte[] data) {
+        for (byte b : data) {
+            if (!Character.isWhitespace(b)) {
+                return false;
+            }
+        }
+        return true;
     }
 }
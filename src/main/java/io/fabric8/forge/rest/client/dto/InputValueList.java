@@ -0,0 +1,167 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client.dto;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * The inputs of an {@link ExecutionRequest} in the order they were added along with an index by name so that
+ * wizard pages can look up and update values in constant time rather than scanning the list.
+ * <p>
+ * It is still a plain list of {@link InputValueDTO} so it is serialized to JSON and encoded as a form exactly as before.
+ * The name of an input must not be changed once it has been added as it would no longer be found by its new name.
+ */
+public class InputValueList extends AbstractList<InputValueDTO> implements RandomAccess {
+    private final List<InputValueDTO> values;
+    private final Map<String, Integer> indexes;
+
+    public InputValueList() {
+        this.values = new ArrayList<>();
+        this.indexes = new HashMap<>();
+    }
+
+    public InputValueList(Collection<? extends InputValueDTO> inputs) {
+        this.values = new ArrayList<>(inputs);
+        this.indexes = new HashMap<>(Math.max(16, inputs.size() * 2));
+        reindex();
+    }
+
+    @Override
+    public InputValueDTO get(int index) {
+        return values.get(index);
+    }
+
+    @Override
+    public int size() {
+        return values.size();
+    }
+
+    @Override
+    public InputValueDTO set(int index, InputValueDTO element) {
+        InputValueDTO answer = values.set(index, element);
+        String oldName = answer != null ? answer.getName() : null;
+        String newName = element != null ? element.getName() : null;
+        if (!Objects.equals(oldName, newName)) {
+            reindex();
+        }
+        return answer;
+    }
+
+    @Override
+    public void add(int index, InputValueDTO element) {
+        values.add(index, element);
+        if (index == values.size() - 1) {
+            index(element, index);
+        } else {
+            reindex();
+        }
+        modCount++;
+    }
+
+    @Override
+    public InputValueDTO remove(int index) {
+        InputValueDTO answer = values.remove(index);
+        reindex();
+        modCount++;
+        return answer;
+    }
+
+    @Override
+    public void clear() {
+        values.clear();
+        indexes.clear();
+        modCount++;
+    }
+
+    /**
+     * Returns the first input of the given name or null if there is none
+     */
+    public InputValueDTO get(String name) {
+        int index = indexOfName(name);
+        return index >= 0 ? values.get(index) : null;
+    }
+
+    /**
+     * Returns the value of the input of the given name or null if there is none
+     */
+    public Object getValue(String name) {
+        InputValueDTO input = get(name);
+        return input != null ? input.getValue() : null;
+    }
+
+    /**
+     * Updates the value of the input of the given name or adds a new input at the end if there is none
+     */
+    public void setValue(String name, Object value) {
+        InputValueDTO input = get(name);
+        if (input != null) {
+            input.setValue(value);
+        } else {
+            add(new InputValueDTO(name, value));
+        }
+    }
+
+    /**
+     * Returns the index of the first input of the given name or -1 if there is none
+     */
+    public int indexOfName(String name) {
+        Integer index = indexes.get(name);
+        if (index == null) {
+            return -1;
+        }
+        int answer = index.intValue();
+        if (answer < values.size() && name.equals(values.get(answer).getName())) {
+            return answer;
+        }
+        // an input has been renamed since it was added
+        reindex();
+        index = indexes.get(name);
+        return index != null ? index.intValue() : -1;
+    }
+
+    /**
+     * Returns the values of the inputs by name in the order they were added
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> answer = new LinkedHashMap<>(Math.max(16, values.size() * 2));
+        for (InputValueDTO input : values) {
+            answer.put(input.getName(), input.getValue());
+        }
+        return answer;
+    }
+
+    private void index(InputValueDTO element, int index) {
+        if (element != null && element.getName() != null) {
+            indexes.putIfAbsent(element.getName(), index);
+        }
+    }
+
+    private void reindex() {
+        indexes.clear();
+        for (int i = 0, size = values.size(); i < size; i++) {
+            index(values.get(i), i);
+        }
+    }
+}
@@ -15,8 +15,10 @@
  */
 package io.fabric8.forge.rest.client.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 import java.util.List;
 
@@ -36,9 +38,13 @@ public class PropertyDTO {
     private String type;
     private String note;
     private Object value;
+    @JsonDeserialize(using = ChoiceListDeserializer.class)
     private List<Object> valueChoices;
+    @JsonDeserialize(using = ChoiceListDeserializer.class)
     private List<Object> typeaheadData;
     private String requiredMessage;
+    @JsonIgnore
+    private transient volatile ChoiceIndex choiceIndex;
 
 
     public PropertyDTO() {
@@ -146,6 +152,7 @@ public class PropertyDTO {
 
     public void setValueChoices(List<Object> valueChoices) {
         this.valueChoices = valueChoices;
+        this.choiceIndex = null;
     }
 
     public List<Object> getTypeaheadData() {
@@ -154,6 +161,21 @@ public class PropertyDTO {
 
     public void setTypeaheadData(List<Object> typeaheadData) {
         this.typeaheadData = typeaheadData;
+        this.choiceIndex = null;
+    }
+
+    /**
+     * Returns the index of the value choices or typeahead data which is built on first use and reused until
+     * either list is replaced; changes made to the lists in place are not seen by an index that is already built
+     */
+    @JsonIgnore
+    public ChoiceIndex getChoiceIndex() {
+        ChoiceIndex answer = choiceIndex;
+        if (answer == null) {
+            answer = ChoiceIndex.of(this);
+            choiceIndex = answer;
+        }
+        return answer;
     }
 
     public String getRequiredMessage() {
@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the bytes of request and response bodies before and after compression so that the compression ratio
+ * and the bytes saved on the wire can be reported
+ */
+public class CompressionMetrics {
+    private final LongAdder requestRawBytes = new LongAdder();
+    private final LongAdder requestWireBytes = new LongAdder();
+    private final LongAdder requestsCompressed = new LongAdder();
+    private final LongAdder responseRawBytes = new LongAdder();
+    private final LongAdder responseWireBytes = new LongAdder();
+    private final LongAdder responsesCompressed = new LongAdder();
+
+    @Override
+    public String toString() {
+        return "CompressionMetrics{" +
+                "requestsCompressed=" + getRequestsCompressed() +
+                ", responsesCompressed=" + getResponsesCompressed() +
+                ", compressionRatio=" + String.format("%.2f", getCompressionRatio()) +
+                ", bytesSaved=" + getBytesSaved() +
+                '}';
+    }
+
+    /**
+     * Records a request body of <code>rawBytes</code> which was sent as <code>wireBytes</code>
+     */
+    public void requestSent(long rawBytes, long wireBytes, boolean compressed) {
+        requestRawBytes.add(rawBytes);
+        requestWireBytes.add(wireBytes);
+        if (compressed) {
+            requestsCompressed.increment();
+        }
+    }
+
+    /**
+     * Records a response body of <code>rawBytes</code> which was received as <code>wireBytes</code>
+     */
+    public void responseReceived(long rawBytes, long wireBytes, boolean compressed) {
+        responseRawBytes.add(rawBytes);
+        responseWireBytes.add(wireBytes);
+        if (compressed) {
+            responsesCompressed.increment();
+        }
+    }
+
+    /**
+     * Returns the ratio of the uncompressed size to the size on the wire of all bodies or 1 if nothing was sent
+     */
+    public double getCompressionRatio() {
+        long wire = getRequestWireBytes() + getResponseWireBytes();
+        if (wire <= 0) {
+            return 1.0;
+        }
+        return (getRequestRawBytes() + getResponseRawBytes()) / (double) wire;
+    }
+
+    /**
+     * Returns the number of bytes not sent or received due to compression
+     */
+    public long getBytesSaved() {
+        return getRequestRawBytes() - getRequestWireBytes() + getResponseRawBytes() - getResponseWireBytes();
+    }
+
+    public long getRequestRawBytes() {
+        return requestRawBytes.sum();
+    }
+
+    public long getRequestWireBytes() {
+        return requestWireBytes.sum();
+    }
+
+    public long getRequestsCompressed() {
+        return requestsCompressed.sum();
+    }
+
+    public long getResponseRawBytes() {
+        return responseRawBytes.sum();
+    }
+
+    public long getResponseWireBytes() {
+        return responseWireBytes.sum();
+    }
+
+    public long getResponsesCompressed() {
+        return responsesCompressed.sum();
+    }
+
+    public void reset() {
+        requestRawBytes.reset();
+        requestWireBytes.reset();
+        requestsCompressed.reset();
+        responseRawBytes.reset();
+        responseWireBytes.reset();
+        responsesCompressed.reset();
+    }
+}
@@ -0,0 +1,199 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client.metrics;
+
+import io.fabric8.forge.rest.client.ForgeOperation;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The metrics of the calls made to the backend by a {@link io.fabric8.forge.rest.client.ForgeClient}
+ * for each operation and command which can be read in process or written in the Prometheus text format
+ */
+public class ForgeClientMetrics {
+    private final ConcurrentMap<Key, OperationMetrics> operations = new ConcurrentHashMap<>();
+    private final CompressionMetrics compression = new CompressionMetrics();
+
+    @Override
+    public String toString() {
+        return "ForgeClientMetrics" + getOperationMetrics() + " " + compression;
+    }
+
+    /**
+     * Returns the metrics for the operation and command, creating them if required
+     */
+    public OperationMetrics getOperationMetrics(ForgeOperation operation, String commandName) {
+        Key key = new Key(operation, commandName != null ? commandName : "");
+        OperationMetrics answer = operations.get(key);
+        if (answer == null) {
+            answer = operations.computeIfAbsent(key, k -> new OperationMetrics(k.operation, k.commandName));
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the metrics of all operations which have been invoked sorted by command and operation
+     */
+    public List<OperationMetrics> getOperationMetrics() {
+        List<OperationMetrics> answer = new ArrayList<>(operations.values());
+        answer.sort(Comparator.comparing(OperationMetrics::getCommandName).thenComparing(OperationMetrics::getOperation));
+        return answer;
+    }
+
+    /**
+     * Returns the number of requests currently in flight across all operations
+     */
+    public long getInFlight() {
+        long answer = 0;
+        for (OperationMetrics metrics : operations.values()) {
+            answer += metrics.getInFlight();
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the sizes of the request and response bodies before and after gzip compression
+     */
+    public CompressionMetrics getCompression() {
+        return compression;
+    }
+
+    public void reset() {
+        operations.clear();
+        compression.reset();
+    }
+
+    /**
+     * Returns the metrics in the Prometheus text exposition format
+     */
+    public String toPrometheusText() {
+        StringBuilder builder = new StringBuilder();
+        try {
+            writePrometheusText(builder);
+        } catch (IOException e) {
+            // cannot happen with a StringBuilder
+            throw new IllegalStateException(e);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Writes the metrics in the Prometheus text exposition format
+     */
+    public void writePrometheusText(Appendable out) throws IOException {
+        List<OperationMetrics> list = getOperationMetrics();
+
+        out.append("# HELP forge_client_request_duration_seconds The latency of requests to the forge backend\n");
+        out.append("# TYPE forge_client_request_duration_seconds histogram\n");
+        for (OperationMetrics metrics : list) {
+            String labels = labels(metrics);
+            LatencyHistogram latency = metrics.getLatency();
+            long[] counts = latency.getBucketCounts();
+            long cumulative = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i];
+                String le = i < LatencyHistogram.BUCKET_BOUNDS_MILLIS.length ? seconds(LatencyHistogram.BUCKET_BOUNDS_MILLIS[i]) : "+Inf";
+                out.append("forge_client_request_duration_seconds_bucket{").append(labels).append(",le=\"").append(le).append("\"} ").append(Long.toString(cumulative)).append("\n");
+            }
+            out.append("forge_client_request_duration_seconds_sum{").append(labels).append("} ").append(Double.toString(latency.getTotalNanos() / (double) TimeUnit.SECONDS.toNanos(1))).append("\n");
+            out.append("forge_client_request_duration_seconds_count{").append(labels).append("} ").append(Long.toString(cumulative)).append("\n");
+        }
+
+        out.append("# HELP forge_client_responses_total The number of responses from the forge backend by status code\n");
+        out.append("# TYPE forge_client_responses_total counter\n");
+        for (OperationMetrics metrics : list) {
+            String labels = labels(metrics);
+            for (Map.Entry<Integer, Long> entry : metrics.getStatusCounts().entrySet()) {
+                out.append("forge_client_responses_total{").append(labels).append(",status=\"").append(entry.getKey().toString()).append("\"} ").append(entry.getValue().toString()).append("\n");
+            }
+        }
+
+        out.append("# HELP forge_client_failures_total The number of requests to the forge backend which failed without a response\n");
+        out.append("# TYPE forge_client_failures_total counter\n");
+        for (OperationMetrics metrics : list) {
+            out.append("forge_client_failures_total{").append(labels(metrics)).append("} ").append(Long.toString(metrics.getFailures())).append("\n");
+        }
+
+        out.append("# HELP forge_client_requests_in_flight The number of requests to the forge backend waiting for a response\n");
+        out.append("# TYPE forge_client_requests_in_flight gauge\n");
+        for (OperationMetrics metrics : list) {
+            out.append("forge_client_requests_in_flight{").append(labels(metrics)).append("} ").append(Long.toString(metrics.getInFlight())).append("\n");
+        }
+
+        out.append("# HELP forge_client_body_bytes_total The size of request and response bodies before compression\n");
+        out.append("# TYPE forge_client_body_bytes_total counter\n");
+        out.append("forge_client_body_bytes_total{direction=\"request\"} ").append(Long.toString(compression.getRequestRawBytes())).append("\n");
+        out.append("forge_client_body_bytes_total{direction=\"response\"} ").append(Long.toString(compression.getResponseRawBytes())).append("\n");
+
+        out.append("# HELP forge_client_wire_bytes_total The size of request and response bodies as sent on the wire\n");
+        out.append("# TYPE forge_client_wire_bytes_total counter\n");
+        out.append("forge_client_wire_bytes_total{direction=\"request\"} ").append(Long.toString(compression.getRequestWireBytes())).append("\n");
+        out.append("forge_client_wire_bytes_total{direction=\"response\"} ").append(Long.toString(compression.getResponseWireBytes())).append("\n");
+
+        out.append("# HELP forge_client_compressed_total The number of request and response bodies which were gzipped\n");
+        out.append("# TYPE forge_client_compressed_total counter\n");
+        out.append("forge_client_compressed_total{direction=\"request\"} ").append(Long.toString(compression.getRequestsCompressed())).append("\n");
+        out.append("forge_client_compressed_total{direction=\"response\"} ").append(Long.toString(compression.getResponsesCompressed())).append("\n");
+    }
+
+    private static String labels(OperationMetrics metrics) {
+        return "operation=\"" + metrics.getOperation().getLabel() + "\",command=\"" + escapeLabelValue(metrics.getCommandName()) + "\"";
+    }
+
+    private static String seconds(long millis) {
+        return Double.toString(millis / 1000.0);
+    }
+
+    protected static String escapeLabelValue(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static final class Key {
+        private final ForgeOperation operation;
+        private final String commandName;
+
+        Key(ForgeOperation operation, String commandName) {
+            this.operation = operation;
+            this.commandName = commandName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return operation == key.operation && commandName.equals(key.commandName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(operation, commandName);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client.metrics;
+
+import io.fabric8.forge.rest.client.ForgeOperation;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics of a single backend operation for a single command
+ */
+public class OperationMetrics {
+    private final ForgeOperation operation;
+    private final String commandName;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final ConcurrentMap<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+
+    public OperationMetrics(ForgeOperation operation, String commandName) {
+        this.operation = operation;
+        this.commandName = commandName;
+    }
+
+    @Override
+    public String toString() {
+        return "OperationMetrics{" +
+                "operation=" + operation.getLabel() +
+                ", commandName='" + commandName + '\'' +
+                ", count=" + latency.getCount() +
+                ", meanMillis=" + String.format("%.2f", latency.getMeanMillis()) +
+                ", p99Millis=" + latency.getPercentileMillis(99) +
+                ", statusCounts=" + getStatusCounts() +
+                ", failures=" + getFailures() +
+                ", inFlight=" + getInFlight() +
+                '}';
+    }
+
+    public void requestStarted() {
+        inFlight.increment();
+    }
+
+    /**
+     * Records a request which received a response with the given status code
+     */
+    public void requestCompleted(int status, long durationNanos) {
+        inFlight.decrement();
+        latency.record(durationNanos);
+        statusCounts.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Records a request which failed without a response such as on a connection error or timeout
+     */
+    public void requestFailed(long durationNanos) {
+        inFlight.decrement();
+        latency.record(durationNanos);
+        failures.increment();
+    }
+
+    public ForgeOperation getOperation() {
+        return operation;
+    }
+
+    /**
+     * Returns the name of the command or an empty string for operations which are not for a command
+     */
+    public String getCommandName() {
+        return commandName;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Returns the number of responses for each status code
+     */
+    public Map<Integer, Long> getStatusCounts() {
+        Map<Integer, Long> answer = new TreeMap<>();
+        for (Map.Entry<Integer, LongAdder> entry : statusCounts.entrySet()) {
+            answer.put(entry.getKey(), entry.getValue().sum());
+        }
+        return answer;
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.stub.StubForgeRule;
+import io.fabric8.forge.rest.client.stub.StubForgeServer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ */
+@RunWith(Parameterized.class)
+public class ArchetypeSweepRunnerTest {
+    public static final String CATALOG = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+            "<archetype-catalog>\n" +
+            "  <archetypes>\n" +
+            "    <archetype><groupId>io.fabric8.archetypes</groupId><artifactId>cdi-camel-archetype</artifactId><version>1.0</version>" +
+            "<description>Camel &amp; CDI</description></archetype>\n" +
+            "    <archetype><groupId>io.fabric8.archetypes</groupId><artifactId>spring-boot-camel-archetype</artifactId><version>1.0</version></archetype>\n" +
+            "    <archetype><groupId>io.fabric8.archetypes</groupId><artifactId>cdi-camel-archetype</artifactId><version>1.1</version></archetype>\n" +
+            "    <archetype><groupId>io.fabric8.archetypes</groupId><artifactId>karaf-camel-amq-archetype</artifactId><version>1.0</version></archetype>\n" +
+            "    <archetype><groupId>io.fabric8.archetypes</groupId><artifactId> </artifactId></archetype>\n" +
+            "  </archetypes>\n" +
+            "</archetype-catalog>\n";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Rule
+    public StubForgeRule stub;
+    protected StubForgeServer server;
+    protected ForgeClient forgeClient;
+
+    public ArchetypeSweepRunnerTest(TransportMode transportMode) {
+        this.stub = new StubForgeRule(transportMode);
+        this.server = stub.getServer();
+        this.forgeClient = stub.getForgeClient();
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static List<Object[]> transportModes() {
+        return StubForgeRule.transportModes();
+    }
+
+    @Before
+    public void init() throws Exception {
+        server.addWizard(WizardRunnerTest.createQuickstartWizard(20));
+    }
+
+    @Test
+    public void testReadCatalog() throws Exception {
+        List<CatalogArchetype> archetypes = new ArrayList<>();
+        ArchetypeCatalogReader.read(catalogStream(), archetypes::add);
+
+        assertThat(archetypes).extracting(CatalogArchetype::getArtifactId).containsExactly(
+                "cdi-camel-archetype", "spring-boot-camel-archetype", "cdi-camel-archetype", "karaf-camel-amq-archetype");
+        assertThat(archetypes.get(0).getDescription()).isEqualTo("Camel & CDI");
+        assertThat(archetypes.get(2).getVersion()).isEqualTo("1.1");
+    }
+
+    @Test
+    public void testSweepWritesReportIncrementally() throws Exception {
+        server.setLatencyMillis(10);
+        StringWriter buffer = new StringWriter();
+        List<String> linesWhenRecorded = new ArrayList<>();
+        ArchetypeSweepReport report = new ArchetypeSweepReport(buffer) {
+            @Override
+            protected synchronized void writeLine(String line) {
+                buffer.write(line + "\n");
+                linesWhenRecorded.add(line);
+            }
+        };
+
+        BulkWizardResults results = createRunner().run(catalogStream(), report);
+
+        assertThat(results.getJobCount()).describedAs("results " + results).isEqualTo(3);
+        assertThat(results.getSucceededCount()).isEqualTo(3);
+        assertThat(linesWhenRecorded).hasSize(3);
+        assertThat(buffer.toString()).contains("sweep-cdi-camel-archetype\t" + WizardRunnerTest.QUICKSTART + "\ttrue\t");
+        assertThat(server.getRequestCount(ForgeOperation.EXECUTE)).isEqualTo(3);
+    }
+
+    @Test
+    public void testResumeSkipsSucceededArchetypes() throws Exception {
+        File catalogFile = temporaryFolder.newFile("archetype-catalog.xml");
+        Files.write(catalogFile.toPath(), CATALOG.getBytes(StandardCharsets.UTF_8));
+        File reportFile = new File(temporaryFolder.getRoot(), "sweep/report.tsv");
+
+        server.setErrorOperations(EnumSet.of(ForgeOperation.EXECUTE));
+        server.setErrorRate(1.0);
+        BulkWizardResults first = createRunner().run(catalogFile.toURI().toURL(), reportFile);
+        assertThat(first.getFailedCount()).isEqualTo(3);
+        assertThat(ArchetypeSweepReport.readSucceededNames(reportFile)).isEmpty();
+
+        server.setErrorRate(0);
+        BulkWizardResults second = createRunner().run(catalogFile.toURI().toURL(), reportFile);
+        assertThat(second.getSucceededCount()).isEqualTo(3);
+        assertThat(ArchetypeSweepReport.readSucceededNames(reportFile)).containsOnly(
+                "sweep-cdi-camel-archetype", "sweep-spring-boot-camel-archetype", "sweep-karaf-camel-amq-archetype");
+
+        BulkWizardResults third = createRunner().run(catalogFile.toURI().toURL(), reportFile);
+        assertThat(third.getJobCount()).isEqualTo(0);
+
+        List<String> lines = Files.readAllLines(reportFile.toPath(), StandardCharsets.UTF_8);
+        assertThat(lines.get(0)).isEqualTo(ArchetypeSweepReport.HEADER);
+        assertThat(lines).hasSize(7);
+    }
+
+    @Test
+    public void testInterruptedSweepRecordsArchetypesInFlight() throws Exception {
+        server.setLatencyMillis(100);
+        StringWriter buffer = new StringWriter();
+        ArchetypeSweepReport report = new ArchetypeSweepReport(buffer);
+        AtomicInteger count = new AtomicInteger();
+        ArchetypeSweepRunner runner = new ArchetypeSweepRunner(forgeClient, 2, archetype -> {
+            if (count.incrementAndGet() == 2) {
+                Thread.currentThread().interrupt();
+            }
+            String name = "sweep-" + archetype.getArtifactId();
+            return new WizardJob(name, WizardRunnerTest.QUICKSTART, new WizardRunnerTest.ProjectValueProvider(name), -1);
+        });
+
+        try {
+            runner.run(catalogStream(), report);
+            fail("Should have failed as the sweep was interrupted");
+        } catch (IllegalStateException e) {
+            assertThat(e).hasMessageContaining("Interrupted while sweeping archetype sweep-spring-boot-camel-archetype");
+        } finally {
+            assertThat(Thread.interrupted()).isTrue();
+        }
+        assertThat(buffer.toString()).contains("sweep-cdi-camel-archetype\t" + WizardRunnerTest.QUICKSTART + "\ttrue\t");
+    }
+
+    protected ArchetypeSweepRunner createRunner() {
+        return new ArchetypeSweepRunner(forgeClient, 2, archetype -> {
+            // the job names differ from the artifact ids so resuming must skip on what the report records
+            String name = "sweep-" + archetype.getArtifactId();
+            return new WizardJob(name, WizardRunnerTest.QUICKSTART, new WizardRunnerTest.ProjectValueProvider(name), -1);
+        });
+    }
+
+    protected static InputStream catalogStream() {
+        return new ByteArrayInputStream(CATALOG.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.dto.CommandInputDTO;
+import io.fabric8.forge.rest.client.dto.ExecutionRequest;
+import io.fabric8.forge.rest.client.dto.ExecutionResult;
+import io.fabric8.forge.rest.client.dto.InputValueList;
+import io.fabric8.forge.rest.client.dto.ValidationResult;
+import io.fabric8.forge.rest.client.dto.VersionDTO;
+import io.fabric8.forge.rest.client.stub.StubForgeRule;
+import io.fabric8.forge.rest.client.stub.StubForgeServer;
+import io.fabric8.forge.rest.client.stub.StubWizard;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.InvocationCallback;
+import javax.ws.rs.core.Response;
+import java.util.EnumSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static io.fabric8.forge.rest.client.ForgeClientHelpers.getCommandProperties;
+import static io.fabric8.forge.rest.client.stub.StubWizard.input;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ */
+public class AsyncForgeClientTest {
+    public static final String COMMAND = "stub-command";
+
+    @Rule
+    public StubForgeRule stub = new StubForgeRule(TransportMode.CXF);
+    protected StubForgeServer server = stub.getServer();
+    protected ForgeClient forgeClient = stub.getForgeClient();
+    protected AsyncForgeClient asyncClient;
+
+    @Before
+    public void init() throws Exception {
+        server.addWizard(new StubWizard(COMMAND).page(input("named", "demo")));
+        asyncClient = new AsyncForgeClient(forgeClient);
+    }
+
+    @Test
+    public void testCalls() throws Exception {
+        VersionDTO version = asyncClient.getInfo().get(10, TimeUnit.SECONDS);
+        assertThat(version.getBackendVersion()).isEqualTo(server.getBackendVersion());
+        assertThat(asyncClient.getCommandNames().get(10, TimeUnit.SECONDS)).containsExactly(COMMAND);
+
+        CommandInputDTO commandInput = asyncClient.getCommandInput(COMMAND).get(10, TimeUnit.SECONDS);
+        assertThat(getCommandProperties(commandInput)).containsOnlyKeys("named");
+
+        ValidationResult validationResult = asyncClient.validateCommand(COMMAND, createRequest()).get(10, TimeUnit.SECONDS);
+        assertThat(validationResult.isValid()).isTrue();
+
+        ExecutionResult executionResult = asyncClient.executeCommand(COMMAND, createRequest()).get(10, TimeUnit.SECONDS);
+        assertThat(executionResult.getStatus()).isEqualTo(200);
+        assertThat(forgeClient.getMetrics().getInFlight()).isEqualTo(0);
+    }
+
+    @Test
+    public void testErrorStatusFailsFuture() throws Exception {
+        server.setErrorOperations(EnumSet.of(ForgeOperation.VALIDATE));
+        server.failNextRequests(1);
+        try {
+            asyncClient.validateCommand(COMMAND, createRequest()).get(10, TimeUnit.SECONDS);
+            fail("Should have failed with the error status");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(WebApplicationException.class);
+            assertThat(((WebApplicationException) e.getCause()).getResponse().getStatus()).isEqualTo(503);
+        }
+
+        try {
+            asyncClient.getCommandInput("no-such-command").get(10, TimeUnit.SECONDS);
+            fail("Should have failed with the error status");
+        } catch (ExecutionException e) {
+            assertThat(((WebApplicationException) e.getCause()).getResponse().getStatus()).isEqualTo(404);
+        }
+    }
+
+    @Test
+    public void testSendFailureCompletesFuture() throws Exception {
+        AsyncForgeClient failingClient = new AsyncForgeClient(forgeClient) {
+            @Override
+            protected void send(WebClient client, String method, Entity<?> entity, InvocationCallback<Response> callback) {
+                throw new IllegalStateException("Conduit closed");
+            }
+        };
+        try {
+            failingClient.getInfo().get(10, TimeUnit.SECONDS);
+            fail("Should have failed");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+        }
+        assertThat(forgeClient.getMetrics().getInFlight()).isEqualTo(0);
+    }
+
+    protected ExecutionRequest createRequest() {
+        ExecutionRequest executionRequest = new ExecutionRequest();
+        executionRequest.setNamespace(forgeClient.getNamespace());
+        executionRequest.setInputs(new InputValueList());
+        return executionRequest;
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.offbytwo.jenkins.model.BuildResult;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ */
+public class BuildWatchServiceTest {
+
+    @Test
+    public void testCoalescesWatchesIntoOneQueryPerFolder() throws Exception {
+        AtomicInteger queries = new AtomicInteger();
+        try (BuildWatchService service = new BuildWatchService(null) {
+            @Override
+            protected String queryJobs(String folderName) {
+                int tick = queries.incrementAndGet();
+                StringBuilder builder = new StringBuilder("{\"jobs\":[");
+                for (int i = 0; i < 20; i++) {
+                    boolean building = tick < 3;
+                    if (i > 0) {
+                        builder.append(",");
+                    }
+                    builder.append("{\"name\":\"job").append(i).append("\",\"lastBuild\":{\"number\":1,\"url\":\"http://jenkins/job/")
+                            .append(folderName).append("/job/job").append(i).append("/1/\",\"building\":").append(building)
+                            .append(",\"result\":").append(building ? "null" : i == 0 ? "\"FAILURE\"" : "\"SUCCESS\"").append("}}");
+                }
+                return builder.append("]}").toString();
+            }
+        }) {
+            service.setPollIntervalMillis(10);
+            List<CompletableFuture<BuildWatchResult>> futures = new ArrayList<>();
+            for (int i = 0; i < 19; i++) {
+                futures.add(service.watch("team", "job" + i, 0, 60000));
+            }
+
+            assertThat(futures.get(0).get(10, TimeUnit.SECONDS).getResult()).isEqualTo(BuildResult.FAILURE);
+            for (int i = 1; i < futures.size(); i++) {
+                BuildWatchResult result = futures.get(i).get(10, TimeUnit.SECONDS);
+                assertThat(result.isSuccessful()).isTrue();
+                assertThat(result.getBuildUrl()).isEqualTo("http://jenkins/job/team/job/job" + i + "/1/");
+            }
+            // the first two ticks report every job building so all of the watches completed on the third query
+            assertThat(queries.get()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    public void testWatchWaitsForNextBuild() throws Exception {
+        AtomicInteger lastBuildNumber = new AtomicInteger(1);
+        try (BuildWatchService service = new BuildWatchService(null) {
+            @Override
+            protected String queryJobs(String folderName) {
+                return "{\"jobs\":[{\"name\":\"demo\",\"lastBuild\":{\"number\":" + lastBuildNumber.get() + ",\"building\":false,\"result\":\"SUCCESS\"}}]}";
+            }
+        }) {
+            service.setPollIntervalMillis(10);
+            CompletableFuture<BuildWatchResult> future = service.watch(null, "demo", 60000);
+            try {
+                future.get(200, TimeUnit.MILLISECONDS);
+                fail("Expected the watch to ignore the build which had already completed");
+            } catch (TimeoutException e) {
+                // expected
+            }
+
+            lastBuildNumber.set(2);
+            assertThat(future.get(10, TimeUnit.SECONDS).getBuildNumber()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void testWatchTimesOut() throws Exception {
+        try (BuildWatchService service = new BuildWatchService(null) {
+            @Override
+            protected String queryJobs(String folderName) {
+                return "{\"jobs\":[{\"name\":\"demo\",\"lastBuild\":{\"number\":1,\"building\":true,\"result\":null}}]}";
+            }
+        }) {
+            service.setPollIntervalMillis(10);
+            try {
+                service.watch(null, "demo", 100).get(10, TimeUnit.SECONDS);
+                fail("Expected the watch of a build which never completes to time out");
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(TimeoutException.class);
+            }
+        }
+    }
+
+    @Test
+    public void testFailingWatchDoesNotStopPolling() throws Exception {
+        AtomicInteger queries = new AtomicInteger();
+        try (BuildWatchService service = new BuildWatchService(null) {
+            @Override
+            protected Map<String, JsonNode> getLastBuilds(String folderName) throws IOException {
+                Map<String, JsonNode> answer = new HashMap<String, JsonNode>() {
+                    @Override
+                    public JsonNode get(Object key) {
+                        if ("broken".equals(key)) {
+                            throw new IllegalStateException("Cannot read the build of " + key);
+                        }
+                        return super.get(key);
+                    }
+                };
+                answer.putAll(super.getLastBuilds(folderName));
+                return answer;
+            }
+
+            @Override
+            protected String queryJobs(String folderName) {
+                boolean building = queries.incrementAndGet() < 3;
+                return "{\"jobs\":[{\"name\":\"demo\",\"lastBuild\":{\"number\":1,\"building\":" + building + ",\"result\":\"SUCCESS\"}}]}";
+            }
+        }) {
+            service.setPollIntervalMillis(10);
+            CompletableFuture<BuildWatchResult> broken = service.watch(null, "broken", 0, 60000);
+            CompletableFuture<BuildWatchResult> demo = service.watch(null, "demo", 0, 60000);
+            try {
+                broken.get(10, TimeUnit.SECONDS);
+                fail("Expected the watch which failed to update to complete exceptionally");
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+            }
+
+            assertThat(demo.get(10, TimeUnit.SECONDS).isSuccessful()).isTrue();
+            assertThat(queries.get()).isGreaterThanOrEqualTo(3);
+        }
+    }
+
+    @Test
+    public void testFolderPath() throws Exception {
+        assertThat(BuildWatchService.getFolderPath(null)).isEqualTo("");
+        assertThat(BuildWatchService.getFolderPath("team")).isEqualTo("job/team/");
+        assertThat(BuildWatchService.getFolderPath("org/team")).isEqualTo("job/org/job/team/");
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.dto.CommandInputDTO;
+import io.fabric8.forge.rest.client.stub.StubForgeRule;
+import io.fabric8.forge.rest.client.stub.StubForgeServer;
+import io.fabric8.forge.rest.client.stub.StubWizard;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.fabric8.forge.rest.client.ForgeClientHelpers.getCommandProperties;
+import static io.fabric8.forge.rest.client.stub.StubWizard.input;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ */
+@RunWith(Parameterized.class)
+public class CachingCommandsAPITest {
+    public static final String COMMAND = "stub-command";
+
+    @Rule
+    public StubForgeRule stub;
+    protected StubForgeServer server;
+    protected ForgeClient forgeClient;
+    protected CommandCacheConfig config = new CommandCacheConfig();
+
+    public CachingCommandsAPITest(TransportMode transportMode) {
+        this.stub = new StubForgeRule(transportMode);
+        this.server = stub.getServer();
+        this.forgeClient = stub.getForgeClient();
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static List<Object[]> transportModes() {
+        return StubForgeRule.transportModes();
+    }
+
+    @Before
+    public void init() throws Exception {
+        server.addWizard(new StubWizard(COMMAND).page(input("named", "demo")));
+        config.setEnabled(true);
+        config.setVersionCheckIntervalMillis(0);
+        forgeClient.setCommandCacheConfig(config);
+    }
+
+    @Test
+    public void testCachedWithinTtl() throws Exception {
+        CommandInputDTO first = forgeClient.getCommandInput(COMMAND);
+        CommandInputDTO second = forgeClient.getCommandInput(COMMAND);
+        forgeClient.getCommandNames();
+        List<String> names = forgeClient.getCommandNames();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(getCommandProperties(second)).containsOnlyKeys("named");
+        assertThat(names).containsExactly(COMMAND);
+        assertThat(server.getRequestCount(ForgeOperation.COMMAND_INPUT)).isEqualTo(1);
+        assertThat(server.getRequestCount(ForgeOperation.COMMAND_NAMES)).isEqualTo(1);
+        CachingCommandsAPI cache = forgeClient.getCommandCache();
+        assertThat(cache.getHits()).isEqualTo(2);
+        assertThat(cache.getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    public void testRevalidatedWithEntityTag() throws Exception {
+        config.setTtlMillis(0);
+        forgeClient.getCommandInput(COMMAND);
+        CommandInputDTO revalidated = forgeClient.getCommandInput(COMMAND);
+
+        assertThat(getCommandProperties(revalidated)).containsOnlyKeys("named");
+        assertThat(server.getRequestCount(ForgeOperation.COMMAND_INPUT)).isEqualTo(2);
+        CachingCommandsAPI cache = forgeClient.getCommandCache();
+        assertThat(cache.getRevalidations()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    public void testVersionChangeClearsCache() throws Exception {
+        forgeClient.getInfo();
+        forgeClient.getCommandInput(COMMAND);
+        CachingCommandsAPI cache = forgeClient.getCommandCache();
+        assertThat(cache.getSize()).isEqualTo(1);
+
+        forgeClient.getInfo();
+        assertThat(cache.getInvalidations()).isEqualTo(0);
+
+        server.setBackendVersion("2.0.0");
+        forgeClient.getInfo();
+        assertThat(cache.getInvalidations()).isEqualTo(1);
+        assertThat(cache.getSize()).isEqualTo(0);
+
+        forgeClient.getCommandInput(COMMAND);
+        assertThat(server.getRequestCount(ForgeOperation.COMMAND_INPUT)).isEqualTo(2);
+        assertThat(cache.getMisses()).isEqualTo(2);
+        assertThat(cache.getRevalidations()).isEqualTo(0);
+    }
+
+    @Test
+    public void testInvalidationDuringFetchIsNotUndone() throws Exception {
+        CachingCommandsAPI cache = forgeClient.getCommandCache();
+        server.delayNextRequests(1, 500);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<CommandInputDTO> future = executor.submit(() -> forgeClient.getCommandInput(COMMAND));
+            while (server.getRequestCount(ForgeOperation.COMMAND_INPUT) == 0) {
+                Thread.sleep(5);
+            }
+            cache.invalidateAll();
+            assertThat(getCommandProperties(future.get())).containsOnlyKeys("named");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(cache.getSize()).describedAs("the response fetched before the invalidation is not cached").isEqualTo(0);
+        forgeClient.getCommandInput(COMMAND);
+        assertThat(server.getRequestCount(ForgeOperation.COMMAND_INPUT)).isEqualTo(2);
+        assertThat(cache.getSize()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import org.apache.cxf.helpers.IOUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ */
+public class CapturingInputStreamTest {
+
+    @Test
+    public void testCapturesHeadAndTailOnly() throws Exception {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            builder.append(i % 10);
+        }
+        String text = "HEAD" + builder + "TAIL";
+        CapturingInputStream capture = new CapturingInputStream(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), 4, 4);
+        byte[] buffer = new byte[7];
+        while (capture.read(buffer, 0, buffer.length) >= 0) {
+            capture.read();
+        }
+
+        assertThat(capture.getCount()).isEqualTo(text.length());
+        assertThat(capture.getCapturedText(StandardCharsets.UTF_8)).isEqualTo("HEAD... [1000 bytes skipped] ...TAIL");
+    }
+
+    @Test
+    public void testCapturesWholeOfSmallStream() throws Exception {
+        String text = "{\"name\":\"demo\"}";
+        CapturingInputStream capture = new CapturingInputStream(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), 8, 64);
+        IOUtils.consume(capture);
+
+        assertThat(capture.getCapturedText(StandardCharsets.UTF_8)).isEqualTo(text);
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.dto.ExecutionRequest;
+import io.fabric8.forge.rest.client.dto.ExecutionResult;
+import io.fabric8.forge.rest.client.dto.InputValueList;
+import io.fabric8.forge.rest.client.dto.ValidationResult;
+import io.fabric8.forge.rest.client.stub.StubForgeRule;
+import io.fabric8.forge.rest.client.stub.StubForgeServer;
+import io.fabric8.forge.rest.client.stub.StubWizard;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.fabric8.forge.rest.client.stub.StubWizard.input;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ */
+@RunWith(Parameterized.class)
+public class CircuitBreakerCommandsAPITest {
+    public static final String COMMAND = "stub-command";
+
+    @Rule
+    public StubForgeRule stub;
+    protected StubForgeServer server;
+    protected ForgeClient forgeClient;
+    protected CircuitBreakerConfig config = new CircuitBreakerConfig();
+
+    public CircuitBreakerCommandsAPITest(TransportMode transportMode) {
+        this.stub = new StubForgeRule(transportMode);
+        this.server = stub.getServer();
+        this.forgeClient = stub.getForgeClient();
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static List<Object[]> transportModes() {
+        return StubForgeRule.transportModes();
+    }
+
+    @Before
+    public void init() throws Exception {
+        server.addWizard(new StubWizard(COMMAND).page(input("named", "demo")));
+        config.setEnabled(true);
+        config.setFailureThreshold(3);
+        config.setOpenMillis(200);
+        forgeClient.setCircuitBreakerConfig(config);
+    }
+
+    @Test
+    public void testBreakerOpensAndRecovers() throws Exception {
+        server.setErrorOperations(EnumSet.of(ForgeOperation.EXECUTE));
+        server.failNextRequests(3);
+        for (int i = 0; i < 3; i++) {
+            assertThat(stub.executeCommandStatus(COMMAND, createRequest())).isEqualTo(503);
+        }
+        CircuitBreaker breaker = forgeClient.getCircuitBreaker(ForgeOperation.EXECUTE);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        try {
+            forgeClient.executeCommand(COMMAND, createRequest());
+            fail("Should have failed fast");
+        } catch (CircuitBreakerOpenException e) {
+            assertThat(e.getOperation()).isEqualTo(ForgeOperation.EXECUTE);
+        }
+        assertThat(server.getRequestCount(ForgeOperation.EXECUTE)).isEqualTo(3);
+
+        // other operations are not affected
+        ValidationResult validationResult = forgeClient.validateCommand(COMMAND, createRequest());
+        assertThat(validationResult.isValid()).isTrue();
+
+        Thread.sleep(250);
+        ExecutionResult result = forgeClient.executeCommand(COMMAND, createRequest());
+        assertThat(result.getStatus()).isEqualTo(200);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void testBulkheadDoesNotStarveValidate() throws Exception {
+        server.setErrorOperations(EnumSet.noneOf(ForgeOperation.class));
+        config.setMaxConcurrentCalls(ForgeOperation.EXECUTE, 2);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            server.delayNextRequests(2, 1000);
+            CountDownLatch started = new CountDownLatch(2);
+            Future<?> first = executor.submit(() -> {
+                started.countDown();
+                return forgeClient.executeCommand(COMMAND, createRequest());
+            });
+            Future<?> second = executor.submit(() -> {
+                started.countDown();
+                return forgeClient.executeCommand(COMMAND, createRequest());
+            });
+            started.await();
+            // lets wait for both executes to reach the server so that they are the requests which are delayed
+            while (forgeClient.getCircuitBreaker(ForgeOperation.EXECUTE).getInFlight() < 2 || server.getRequestCount(ForgeOperation.EXECUTE) < 2) {
+                Thread.sleep(5);
+            }
+
+            try {
+                forgeClient.executeCommand(COMMAND, createRequest());
+                fail("Should have rejected the third concurrent execute");
+            } catch (BulkheadFullException e) {
+                assertThat(e.getMaxConcurrentCalls()).isEqualTo(2);
+            }
+            long start = System.currentTimeMillis();
+            assertThat(forgeClient.validateCommand(COMMAND, createRequest()).isValid()).isTrue();
+            assertThat(System.currentTimeMillis() - start).isLessThan(500);
+
+            first.get();
+            second.get();
+            assertThat(forgeClient.getCircuitBreaker(ForgeOperation.EXECUTE).getRejectedByBulkhead()).isEqualTo(1);
+            assertThat(forgeClient.getCircuitBreaker(ForgeOperation.EXECUTE).getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    protected ExecutionRequest createRequest() {
+        ExecutionRequest executionRequest = new ExecutionRequest();
+        executionRequest.setNamespace(forgeClient.getNamespace());
+        InputValueList inputs = new InputValueList();
+        inputs.setValue("named", "demo");
+        executionRequest.setInputs(inputs);
+        return executionRequest;
+    }
+}
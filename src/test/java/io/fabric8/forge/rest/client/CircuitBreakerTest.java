@@ -0,0 +1,57 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ */
+public class CircuitBreakerTest {
+
+    @Test
+    public void testInterruptedTrialReopensBreaker() throws Exception {
+        CircuitBreakerConfig config = new CircuitBreakerConfig();
+        config.setFailureThreshold(1);
+        config.setOpenMillis(0);
+        config.setBulkheadWaitMillis(1000);
+        config.setMaxConcurrentCalls(ForgeOperation.EXECUTE, 1);
+        CircuitBreaker breaker = new CircuitBreaker(ForgeOperation.EXECUTE, config);
+
+        breaker.acquire();
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        Thread.currentThread().interrupt();
+        try {
+            breaker.acquire();
+            fail("Should have been interrupted waiting for the bulkhead");
+        } catch (InterruptedException e) {
+            // expected
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.getInFlight()).isEqualTo(0);
+
+        // the next call can make the trial
+        breaker.acquire();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        breaker.onSuccess();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+}
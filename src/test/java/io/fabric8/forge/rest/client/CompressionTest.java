@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.metrics.CompressionMetrics;
+import io.fabric8.forge.rest.client.stub.StubForgeRule;
+import io.fabric8.forge.rest.client.stub.StubForgeServer;
+import org.apache.cxf.jaxrs.client.ClientConfiguration;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ */
+@RunWith(Parameterized.class)
+public class CompressionTest {
+    @Rule
+    public StubForgeRule stub;
+    protected StubForgeServer server;
+    protected ForgeClient forgeClient;
+
+    public CompressionTest(TransportMode transportMode) {
+        this.stub = new StubForgeRule(transportMode);
+        this.server = stub.getServer();
+        this.forgeClient = stub.getForgeClient();
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static List<Object[]> transportModes() {
+        return StubForgeRule.transportModes();
+    }
+
+    @Before
+    public void init() throws Exception {
+        server.addWizard(WizardRunnerTest.createQuickstartWizard(200));
+    }
+
+    @Test
+    public void testCompressedRequestsAndResponses() throws Exception {
+        CompressionConfig compressionConfig = new CompressionConfig();
+        compressionConfig.setEnabled(true);
+        compressionConfig.setRequestThresholdBytes(64);
+        forgeClient.setCompressionConfig(compressionConfig);
+
+        WizardRunResult result = new WizardRunner(forgeClient).run(WizardRunnerTest.QUICKSTART, new WizardRunnerTest.ProjectValueProvider("demo"));
+
+        assertThat(result.isSuccessful()).describedAs("successful " + result).isTrue();
+        assertThat(result.getExecutionResult().getEntity()).contains("demo");
+        assertThat(server.getCompressedRequestCount()).isGreaterThan(0);
+        assertThat(server.getCompressedResponseCount()).isEqualTo(result.getRoundTrips());
+
+        CompressionMetrics compression = forgeClient.getMetrics().getCompression();
+        assertThat(compression.getRequestsCompressed()).isEqualTo(server.getCompressedRequestCount());
+        assertThat(compression.getResponsesCompressed()).isEqualTo(server.getCompressedResponseCount());
+        assertThat(compression.getCompressionRatio()).describedAs("ratio " + compression).isGreaterThan(1.0);
+        assertThat(compression.getBytesSaved()).isGreaterThan(0);
+        assertThat(forgeClient.getMetrics().toPrometheusText()).contains("forge_client_compressed_total{direction=\"response\"} " + result.getRoundTrips());
+    }
+
+    @Test
+    public void testCxfInterceptorsAreAddedOnce() throws Exception {
+        Assume.assumeTrue(stub.getTransportMode() == TransportMode.CXF);
+        CompressionConfig compressionConfig = new CompressionConfig();
+        compressionConfig.setEnabled(true);
+        forgeClient.setCompressionConfig(compressionConfig);
+
+        ClientConfiguration config = WebClient.getConfig(forgeClient.createTransport(server.getAddress()));
+
+        assertThat(config.getOutInterceptors().stream().filter(GzipOutInterceptor.class::isInstance).count()).isEqualTo(1);
+        assertThat(config.getInInterceptors().stream().filter(GzipInInterceptor.class::isInstance).count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testCompressionIsOptIn() throws Exception {
+        WizardRunResult result = new WizardRunner(forgeClient).run(WizardRunnerTest.QUICKSTART, new WizardRunnerTest.ProjectValueProvider("demo"));
+
+        assertThat(result.isSuccessful()).describedAs("successful " + result).isTrue();
+        assertThat(server.getCompressedRequestCount()).isEqualTo(0);
+        assertThat(forgeClient.getMetrics().getCompression().getRequestsCompressed()).isEqualTo(0);
+        assertThat(forgeClient.getMetrics().getCompression().getResponsesCompressed()).isEqualTo(0);
+    }
+}
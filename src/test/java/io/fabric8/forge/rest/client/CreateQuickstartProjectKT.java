@@ -17,30 +17,19 @@
 package io.fabric8.forge.rest.client;
 
 import io.fabric8.forge.rest.client.dto.PropertyDTO;
-import io.fabric8.utils.Strings;
 import org.junit.Ignore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import java.io.IOException;
+
+import java.io.File;
 import java.net.URL;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.SortedSet;
-import java.util.TreeSet;
 
 import static io.fabric8.forge.rest.client.CommandConstants.ProjectNew;
 import static io.fabric8.forge.rest.client.CommandConstants.ProjectNewProperties.Catalog.Fabric8;
 import static io.fabric8.forge.rest.client.CommandConstants.ProjectNewProperties.Type.FromArchetypeCatalog;
 import static io.fabric8.forge.rest.client.ForgeClientAsserts.assertChooseValue;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.assertj.core.api.Assertions.fail;
 
 /**
  */
@@ -109,9 +98,28 @@ public class CreateQuickstartProjectKT extends ForgeTestSupport {
 
     @Ignore
     public void testQuickstartArchetypeProject() throws Exception {
-        String projectName = generateProjectName("qs");
+        String entryName = "archetype-catalog.xml";
+        URL url = getClass().getClassLoader().getResource(entryName);
+        assertThat(url).describedAs("Could not find resource " + entryName + " on the classpath!").isNotNull();
 
-        ValueProvider valueProvider = new ValueProvider() {
+        int parallelism = Integer.parseInt(System.getProperty("archetype.sweep.parallelism", "4"));
+        File reportFile = new File(System.getProperty("archetype.sweep.report", "target/archetype-sweep.tsv"));
+        String prefix = generateProjectName("qs");
+
+        ArchetypeSweepRunner runner = new ArchetypeSweepRunner(forgeClient, parallelism, archetype -> {
+            String archetypeName = archetype.getArtifactId();
+            return new WizardJob(archetypeName, archetypeName, createArchetypeValueProvider(prefix + "-" + archetypeName), 3);
+        });
+        BulkWizardResults results = runner.run(url, reportFile);
+        LOG.info("Archetype sweep results written to " + reportFile + ": " + results);
+
+        for (WizardJobResult result : results.getResults()) {
+            assertThat(result.isSuccessful()).describedAs("Archetype " + result.getJob().getName() + " " + result).isTrue();
+        }
+    }
+
+    protected ValueProvider createArchetypeValueProvider(String projectName) {
+        return new ValueProvider() {
             @Override
             public Object getValue(String propertyName, PropertyDTO property, int pageNumber) {
                 switch (pageNumber) {
@@ -137,41 +145,6 @@ public class CreateQuickstartProjectKT extends ForgeTestSupport {
 
             }
         };
-
-        List<String> archetypes = getArchetypesFromJar();
-        LOG.info("Archetypes names: " + archetypes);
-
-        assertThat(archetypes).describedAs("Archetypes to create").isNotEmpty();
-
-        for (String archetype : archetypes) {
-            executeWizardCommand(archetype, valueProvider, 3);
-        }
-
-    }
-
-    protected List<String> getArchetypesFromJar() throws IOException {
-        String entryName = "archetype-catalog.xml";
-        URL url = getClass().getClassLoader().getResource(entryName);
-        assertThat(url).describedAs("Could not find resource " + entryName + " on the classpath!").isNotNull();
-
-        SortedSet<String> artifactIds = new TreeSet<>();
-        try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            InputSource is = new InputSource(url.openStream());
-            Document doc = builder.parse(is);
-            NodeList artifactTags = doc.getElementsByTagName("artifactId");
-            for (int i = 0, size = artifactTags.getLength(); i < size; i++) {
-                Node element = artifactTags.item(i);
-                String artifactId = element.getTextContent();
-                if (Strings.isNotBlank(artifactId)) {
-                    artifactIds.add(artifactId);
-                }
-            }
-        } catch (Exception e) {
-            fail("Failed to parse " + entryName + " in catalog " + url + ". Exception " + e, e);
-        }
-        return new ArrayList<>(artifactIds);
     }
 
 }
@@ -23,6 +23,7 @@ import com.offbytwo.jenkins.model.BuildResult;
 import com.offbytwo.jenkins.model.BuildWithDetails;
 import com.offbytwo.jenkins.model.FolderJob;
 import com.offbytwo.jenkins.model.JobWithDetails;
+import io.fabric8.forge.rest.client.dto.ChoiceIndex;
 import io.fabric8.forge.rest.client.dto.CommandInputDTO;
 import io.fabric8.forge.rest.client.dto.ExecutionRequest;
 import io.fabric8.forge.rest.client.dto.ExecutionResult;
@@ -53,10 +54,9 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.util.List;
 import java.util.Map;
 
-import static io.fabric8.forge.rest.client.ForgeClientHelpers.tailLog;
+import static io.fabric8.forge.rest.client.ForgeClientHelpers.tailProgressiveLog;
 import static io.fabric8.kubernetes.api.KubernetesHelper.getOrCreateAnnotations;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Fail.fail;
@@ -110,39 +110,16 @@ public class ForgeClientAsserts {
     }
 
     public static Object assertChooseValue(String propertyName, PropertyDTO property, int pageNumber, String value) {
-        List<Object> valueChoices = property.getValueChoices();
-        if (valueChoices == null || valueChoices.isEmpty()) {
-            valueChoices = property.getTypeaheadData();
-        }
-        if (valueChoices == null || valueChoices.isEmpty()) {
+        ChoiceIndex choiceIndex = property.getChoiceIndex();
+        if (choiceIndex.isEmpty()) {
             // lets assume that we are in the initial request - and that validate will populate this!
             return null;
         }
 
-        Object text = null;
-        boolean contained = valueChoices.contains(value);
-        if (!contained) {
-            // we may have maps containing a value property
-            for (Object choice : valueChoices) {
-                if (choice instanceof Map) {
-                    Map map = (Map) choice;
-                    text = map.get("value");
-                    if (text == null) {
-                        text = map.get("id");
-                    }
-                    if (text == null) {
-                        text = map.get("name");
-                    }
-                    if (text != null && value.equals(text)) {
-                        contained = true;
-                        break;
-                    }
-
-                }
-            }
-        }
-        assertThat(contained).describedAs(("Choices for property " + propertyName + " on page " + pageNumber + " with choices: " + valueChoices) + " does not contain " + value).isTrue();
-        return text;
+        Object choice = choiceIndex.get(value);
+        assertThat(choice != null).describedAs(("Choices for property " + propertyName + " on page " + pageNumber + " with choices: " + choiceIndex.getChoices()) + " does not contain " + value).isTrue();
+        // maps are chosen by their value, id or name property
+        return choice instanceof Map ? ChoiceIndex.primaryKey(choice) : null;
     }
 
 
@@ -154,6 +131,16 @@ public class ForgeClientAsserts {
     }
 
 
+    /**
+     * Asserts that the next build of the job completes successfully using a shared {@link BuildWatchService}
+     * so that many builds can be waited on without polling Jenkins for each of them
+     */
+    public static BuildWatchResult assertBuildCompletes(BuildWatchService buildWatchService, String folderName, String jobName, long timeoutMillis) throws Exception {
+        BuildWatchResult result = buildWatchService.watch(folderName, jobName, timeoutMillis).get();
+        assertThat(result.getResult()).describedAs("Status of job " + folderName + "/" + jobName + " build " + result.getBuildNumber()).isEqualTo(BuildResult.SUCCESS);
+        return result;
+    }
+
     public static String asserGetAppGitCloneURL(ForgeClient forgeClient, String projectName) throws URISyntaxException, IOException {
         BuildConfig buildConfig = assertGetBuildConfig(forgeClient, projectName);
 
@@ -228,20 +215,21 @@ public class ForgeClientAsserts {
 
         LOG.info("Waiting for build " + description + " to complete...");
 
-        String logUri = getBuildConsoleTextUrl(jenkinsUrl, lastBuild, description);
+        String logUri = getBuildProgressiveTextUrl(jenkinsUrl, lastBuild, description);
+        Function<String, Void> lineProcessor = new Function<String, Void>() {
+            @Override
+            public Void apply(String line) {
+                System.out.println("Build:" + lastBuild.getNumber() + ": " + line);
+                return null;
+            }
+        };
 
         long end = System.currentTimeMillis() + timeoutMillis;
         TailResults tailResults = TailResults.START;
         while (true) {
             int sleepMillis = 5000;
             long start = System.currentTimeMillis();
-            tailResults = tailLog(logUri, tailResults, new Function<String, Void>() {
-                @Override
-                public Void apply(String line) {
-                    System.out.println("Build:" + lastBuild.getNumber() + ": " + line);
-                    return null;
-                }
-            });
+            tailResults = tailProgressiveLog(logUri, tailResults, lineProcessor);
 
             details = lastBuild.details();
             if (!details.isBuilding()) {
@@ -261,7 +249,14 @@ public class ForgeClientAsserts {
             }
         }
         details = lastBuild.details();
-        dumpBuildLog(jenkinsUrl, lastBuild, description);
+        // lets print the rest of the log written after the last poll
+        while (tailResults.isMoreData() && !details.isBuilding()) {
+            TailResults previous = tailResults;
+            tailResults = tailProgressiveLog(logUri, tailResults, lineProcessor);
+            if (tailResults.getOffset() == previous.getOffset() && tailResults.isMoreData()) {
+                break;
+            }
+        }
         LOG.info("");
 
         BuildResult result = details.getResult();
@@ -313,6 +308,18 @@ public class ForgeClientAsserts {
         return logUri;
     }
 
+    public static String getBuildProgressiveTextUrl(String jenkinsUrl, Build lastBuild, String description) {
+        String url = lastBuild.getUrl();
+
+        LOG.info("Build URL: " + url);
+        String logUri = URLUtils.pathJoin(url, "logText/progressiveText");
+        if (logUri.indexOf("://") < 0) {
+            logUri = URLUtils.pathJoin(jenkinsUrl, logUri);
+        }
+        LOG.info("Tailing " + description + " at URL:" + logUri);
+        return logUri;
+    }
+
     protected static void printBuildLog(InputStream inputStream, String name) throws IOException {
         BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream));
         try {
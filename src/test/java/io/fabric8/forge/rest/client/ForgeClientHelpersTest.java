@@ -0,0 +1,142 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ */
+public class ForgeClientHelpersTest {
+    protected HttpServer server;
+    protected String logUrl;
+    protected final List<Long> requestedOffsets = new ArrayList<>();
+    protected final List<String> lines = new ArrayList<>();
+    protected volatile byte[] log = new byte[0];
+    protected volatile boolean complete;
+    protected volatile boolean sendTextSize = true;
+
+    @Before
+    public void init() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/job/demo/1/logText/progressiveText", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            long start = Long.parseLong(query.substring(query.indexOf("start=") + "start=".length()));
+            requestedOffsets.add(start);
+            byte[] data = log;
+            byte[] body = Arrays.copyOfRange(data, (int) Math.min(start, data.length), data.length);
+            if (sendTextSize) {
+                exchange.getResponseHeaders().add("X-Text-Size", "" + data.length);
+            }
+            if (!complete) {
+                exchange.getResponseHeaders().add("X-More-Data", "true");
+            }
+            exchange.sendResponseHeaders(200, body.length > 0 ? body.length : -1);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        logUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/job/demo/1/logText/progressiveText";
+    }
+
+    @After
+    public void destroy() throws Exception {
+        server.stop(0);
+    }
+
+    @Test
+    public void testTailProgressiveLogKeepsPartialLinesForNextPoll() throws Exception {
+        append("line1\nlin");
+        TailResults results = tail(TailResults.START);
+        assertThat(lines).containsExactly("line1");
+        assertThat(results.getOffset()).isEqualTo(6);
+        assertThat(results.isMoreData()).isTrue();
+
+        // the partial line is fetched again along with the rest of the line
+        append("e2\r\nline3 caf\u00e9");
+        results = tail(results);
+        assertThat(lines).containsExactly("line1", "line2");
+        assertThat(results.getOffset()).isEqualTo(13);
+        assertThat(results.getLastLine()).isEqualTo("line2");
+
+        // no new bytes
+        results = tail(results);
+        assertThat(lines).containsExactly("line1", "line2");
+        assertThat(results.getOffset()).isEqualTo(13);
+
+        append("\nlast");
+        complete = true;
+        results = tail(results);
+        assertThat(lines).containsExactly("line1", "line2", "line3 caf\u00e9", "last");
+        assertThat(results.isMoreData()).isFalse();
+        assertThat(results.getOffset()).isEqualTo(log.length);
+        assertThat(results.getLastIndex()).isEqualTo(4);
+        assertThat(results.getLastLine()).isEqualTo("last");
+        assertThat(requestedOffsets).containsExactly(0L, 6L, 13L, 13L);
+    }
+
+    @Test
+    public void testTailProgressiveLogWithoutTextSize() throws Exception {
+        sendTextSize = false;
+        complete = true;
+        append("first\nsecond");
+        TailResults results = tail(TailResults.START);
+        assertThat(lines).containsExactly("first", "second");
+        assertThat(results.getOffset()).isEqualTo(log.length);
+        assertThat(results.isMoreData()).isFalse();
+    }
+
+    @Test
+    public void testTailProgressiveLogFailsOnErrorStatus() throws Exception {
+        try {
+            ForgeClientHelpers.tailProgressiveLog(logUrl.replace("/1/", "/2/"), TailResults.START, this::addLine);
+            fail("Expected the missing log to fail");
+        } catch (IOException e) {
+            assertThat(e.getMessage()).contains("status: 404");
+        }
+    }
+
+    protected TailResults tail(TailResults previousResults) throws IOException {
+        return ForgeClientHelpers.tailProgressiveLog(logUrl, previousResults, this::addLine);
+    }
+
+    protected Void addLine(String line) {
+        lines.add(line);
+        return null;
+    }
+
+    protected void append(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        byte[] data = Arrays.copyOf(log, log.length + bytes.length);
+        System.arraycopy(bytes, 0, data, log.length, bytes.length);
+        log = data;
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.kubernetes.client.KubernetesClient;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ */
+public class ForgeClientTest {
+
+    @After
+    public void clearAddress() {
+        System.clearProperty(EnvironmentVariables.GENERATOR_BACKEND_URL);
+    }
+
+    @Test
+    public void testGeneratorURLDoesNotCreateKubernetesClient() throws Exception {
+        System.setProperty(EnvironmentVariables.GENERATOR_BACKEND_URL, "http://generator.example.com/");
+        ForgeClient forgeClient = new ForgeClient() {
+            @Override
+            public KubernetesClient getKubernetesClient() {
+                throw new AssertionError("The kubernetes client should not be needed to resolve the address");
+            }
+        };
+
+        assertThat(forgeClient.getAddress()).isEqualTo("http://generator.example.com/");
+        forgeClient.close();
+    }
+}
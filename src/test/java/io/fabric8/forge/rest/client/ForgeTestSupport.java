@@ -23,6 +23,7 @@ import io.fabric8.forge.rest.client.dto.CommandInputDTO;
 import io.fabric8.forge.rest.client.dto.ExecutionRequest;
 import io.fabric8.forge.rest.client.dto.ExecutionResult;
 import io.fabric8.forge.rest.client.dto.InputValueDTO;
+import io.fabric8.forge.rest.client.dto.InputValueList;
 import io.fabric8.forge.rest.client.dto.NextStepResult;
 import io.fabric8.forge.rest.client.dto.PropertyDTO;
 import io.fabric8.forge.rest.client.dto.UIMessageDTO;
@@ -36,6 +37,8 @@ import org.eclipse.jgit.api.AddCommand;
 import org.eclipse.jgit.api.CommitCommand;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.PushCommand;
+import org.junit.After;
+import org.junit.AfterClass;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -46,7 +49,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -58,7 +60,6 @@ import static io.fabric8.forge.rest.client.ForgeClientAsserts.assertJob;
 import static io.fabric8.forge.rest.client.ForgeClientAsserts.getBasedir;
 import static io.fabric8.forge.rest.client.ForgeClientHelpers.addPage;
 import static io.fabric8.forge.rest.client.ForgeClientHelpers.addPageValues;
-import static io.fabric8.forge.rest.client.ForgeClientHelpers.createJenkinsServer;
 import static io.fabric8.forge.rest.client.ForgeClientHelpers.createPage;
 import static io.fabric8.forge.rest.client.ForgeClientHelpers.getCommandProperties;
 import static io.fabric8.forge.rest.client.ForgeClientHelpers.getJenkinsURL;
@@ -69,12 +70,34 @@ import static org.assertj.core.api.Assertions.assertThat;
  */
 public class ForgeTestSupport {
     private static final transient Logger LOG = LoggerFactory.getLogger(ForgeTestSupport.class);
+    protected static final JenkinsServerFactory jenkinsServerFactory = new JenkinsServerFactory();
 
     // TODO 
     protected String namespace = "myproject";
     protected String jenkinsNamespace = "myproject-jenkins";
     protected String gitProvider = "gogs";
-    protected ForgeClient forgeClient = new ForgeClient();
+    protected ForgeClient forgeClient = createForgeClient();
+
+    @AfterClass
+    public static void closeJenkinsServerFactory() {
+        jenkinsServerFactory.close();
+    }
+
+    @After
+    public void closeForgeClient() {
+        forgeClient.close();
+    }
+
+    /**
+     * Creates the client reusing validation results as the wizard steps validate the same inputs more than once
+     * and retrying the idempotent calls so that a restarting backend pod does not fail the test
+     */
+    protected ForgeClient createForgeClient() {
+        ForgeClient answer = new ForgeClient();
+        answer.getValidationMemoConfig().setEnabled(true);
+        answer.getRetryConfig().setEnabled(true);
+        return answer;
+    }
 
     public String generateProjectName(String prefix) {
         SimpleDateFormat format = new SimpleDateFormat("MMM-dd-'at'-HH-mm-ss");
@@ -113,8 +136,8 @@ public class ForgeTestSupport {
 
         executeWizardCommand(CommandNames.OBSIDIAN_NEW_QUICKSTART, projectTypeValues, 5);
 
-        JenkinsServer jenkins = createJenkinsServer(forgeClient.getKubernetesClient(), jenkinsNamespace);
-        String jenkinsUrl = getJenkinsURL(forgeClient.getKubernetesClient(), jenkinsNamespace);
+        JenkinsServer jenkins = jenkinsServerFactory.getJenkinsServer(forgeClient.getKubernetesClient(), jenkinsNamespace);
+        String jenkinsUrl = getJenkinsURL(jenkinsServerFactory.getServiceEndpointResolver(forgeClient.getKubernetesClient()), jenkinsNamespace);
         Build firstBuild = ForgeClientAsserts.assertBuildCompletes(jenkins, jenkinsUrl, namespace, projectName);
 
         assertCodeChangeTriggersWorkingBuild(jenkins, jenkinsUrl, projectName, firstBuild, namespace);
@@ -161,7 +184,7 @@ public class ForgeTestSupport {
         Asserts.assertWaitFor(10 * 60 * 1000, new Block() {
             @Override
             public void invoke() throws Exception {
-                JenkinsServer jenkins = createJenkinsServer(forgeClient.getKubernetesClient(), jenkinsNamespace);
+                JenkinsServer jenkins = jenkinsServerFactory.getJenkinsServer(forgeClient.getKubernetesClient(), jenkinsNamespace);
                 JobWithDetails job = assertJob(jenkins, folderName, projectName);
                 Build lastBuild = job.getLastBuild();
                 assertThat(lastBuild.getNumber()).describedAs("Waiting for latest build for job " + projectName + " to start").isGreaterThanOrEqualTo(nextBuildNumber);
@@ -177,7 +200,7 @@ public class ForgeTestSupport {
             CommandInputDTO commandInput = forgeClient.getCommandInput(commandName);
             ExecutionRequest executionRequest = new ExecutionRequest();
             executionRequest.setNamespace(namespace);
-            List<InputValueDTO> inputList = new ArrayList<>();
+            List<InputValueDTO> inputList = new InputValueList();
             executionRequest.setInputs(inputList);
 
             addPage(inputList, getCommandProperties(commandInput), valueProvider);
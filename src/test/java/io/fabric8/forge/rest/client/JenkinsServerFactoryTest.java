@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.fabric8.kubernetes.client.Config;
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ */
+public class JenkinsServerFactoryTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    protected JenkinsServerFactory factory = new JenkinsServerFactory();
+    protected HttpServer server;
+    protected volatile String validToken;
+    protected File tokenFile;
+
+    @Before
+    public void init() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            boolean authorized = ("Bearer " + validToken).equals(exchange.getRequestHeaders().getFirst("Authorization"));
+            exchange.sendResponseHeaders(authorized ? 200 : 401, -1);
+            exchange.close();
+        });
+        server.start();
+        tokenFile = temporaryFolder.newFile("token");
+        factory.setServiceAccountTokenFile(tokenFile);
+    }
+
+    @After
+    public void destroy() throws Exception {
+        factory.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void testUnauthorizedReloadsToken() throws Exception {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+        Config config = new ConfigBuilder().withMasterUrl(url).withOauthToken("token-from-startup").build();
+        writeToken("token-1");
+        validToken = "token-1";
+        CloseableHttpClient httpClient = factory.getClusterClient(config).getHttpClient();
+
+        assertThat(get(httpClient, url)).isEqualTo(200);
+
+        // the token is rotated
+        writeToken("token-2");
+        validToken = "token-2";
+        assertThat(get(httpClient, url)).describedAs("the cached token is rejected").isEqualTo(401);
+        assertThat(get(httpClient, url)).describedAs("the token is reloaded after the 401").isEqualTo(200);
+        assertThat(factory.getClusterClient(config).getTokenHolder().getToken()).isEqualTo("token-2");
+    }
+
+    protected void writeToken(String token) throws Exception {
+        Files.write(tokenFile.toPath(), (token + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    protected static int get(CloseableHttpClient httpClient, String url) throws Exception {
+        try (CloseableHttpResponse response = httpClient.execute(new HttpGet(url))) {
+            return response.getStatusLine().getStatusCode();
+        }
+    }
+}
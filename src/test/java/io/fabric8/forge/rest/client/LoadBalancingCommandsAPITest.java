@@ -0,0 +1,214 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.dto.ExecutionRequest;
+import io.fabric8.forge.rest.client.dto.VersionDTO;
+import io.fabric8.kubernetes.api.model.Endpoints;
+import io.fabric8.kubernetes.api.model.EndpointsBuilder;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.ws.rs.core.Form;
+import javax.ws.rs.core.Response;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ */
+public class LoadBalancingCommandsAPITest {
+    protected Map<String, RecordingCommandsAPI> pods = new ConcurrentHashMap<>();
+    protected List<String> addresses = new CopyOnWriteArrayList<>(Arrays.asList("http://10.0.0.1:8080", "http://10.0.0.2:8080"));
+    protected LoadBalancingCommandsAPI loadBalancer = new LoadBalancingCommandsAPI(() -> new ArrayList<>(addresses), this::createPod, 0, "http://generator-backend");
+
+    @After
+    public void destroy() throws Exception {
+        loadBalancer.close();
+    }
+
+    @Test
+    public void testWizardFlowsStickToOnePod() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            ExecutionRequest executionRequest = new ExecutionRequest();
+            loadBalancer.validateCommand("flow", executionRequest);
+            loadBalancer.nextStep("flow", executionRequest);
+            loadBalancer.validateCommand("flow", executionRequest);
+            Form form = new Form();
+            loadBalancer.bindAffinity(form, executionRequest);
+            loadBalancer.executeCommand("flow", form);
+
+            RecordingCommandsAPI pod = pods.get(loadBalancer.getAddresses().get(i % 2));
+            assertThat(pod.keys).describedAs("calls of flow " + i).endsWith(executionRequest, executionRequest, executionRequest, form);
+        }
+        for (RecordingCommandsAPI pod : pods.values()) {
+            assertThat(pod.keys).hasSize(5 * 4);
+        }
+    }
+
+    @Test
+    public void testLeastOutstandingRequests() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            RecordingCommandsAPI first = createPod(addresses.get(0));
+            pods.put(first.address, first);
+            first.blocked = new CountDownLatch(1);
+            CountDownLatch started = first.started = new CountDownLatch(1);
+
+            ExecutionRequest slowFlow = new ExecutionRequest();
+            Future<Response> slow = executor.submit(() -> loadBalancer.validateCommand("flow", slowFlow));
+            started.await();
+            assertThat(loadBalancer.getOutstanding(first.address)).isEqualTo(1);
+
+            for (int i = 0; i < 3; i++) {
+                loadBalancer.getCommandInput("flow");
+            }
+            String second = addresses.get(1);
+            assertThat(loadBalancer.getRequestCount(second)).isEqualTo(3);
+            assertThat(loadBalancer.getRequestCount(first.address)).isEqualTo(1);
+
+            first.blocked.countDown();
+            assertThat(slow.get().getStatus()).isEqualTo(200);
+            assertThat(loadBalancer.getOutstanding(first.address)).isEqualTo(0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFlowMovesWhenPodIsRemoved() throws Exception {
+        ExecutionRequest executionRequest = new ExecutionRequest();
+        loadBalancer.validateCommand("flow", executionRequest);
+        String removed = addresses.get(0);
+        assertThat(pods.get(removed).keys).containsExactly(executionRequest);
+
+        addresses.remove(removed);
+        loadBalancer.nextStep("flow", executionRequest);
+
+        assertThat(pods.get(addresses.get(0)).keys).containsExactly(executionRequest);
+        assertThat(loadBalancer.getAddresses()).containsExactly(addresses.get(0));
+        assertThat(pods.get(removed).closed).isTrue();
+
+        addresses.clear();
+        loadBalancer.getInfo();
+        assertThat(loadBalancer.getAddresses()).containsExactly("http://generator-backend");
+    }
+
+    @Test
+    public void testEndpointURLs() throws Exception {
+        Endpoints endpoints = new EndpointsBuilder().withNewMetadata().withName("generator-backend").endMetadata().
+                addNewSubset().addNewAddress().withIp("172.17.0.5").endAddress().addNewAddress().withIp("172.17.0.6").endAddress().
+                addNewPort().withName("jolokia").withPort(8778).endPort().addNewPort().withName("http").withPort(8080).endPort().endSubset().
+                build();
+
+        assertThat(BackendEndpointDiscovery.toEndpointURLs(endpoints, "http", "http://generator-backend/api/")).
+                containsExactly("http://172.17.0.5:8080/api/", "http://172.17.0.6:8080/api/");
+        assertThat(BackendEndpointDiscovery.toEndpointURLs(endpoints, null, "https://generator-backend")).
+                containsExactly("https://172.17.0.5:8778", "https://172.17.0.6:8778");
+        assertThat(BackendEndpointDiscovery.toEndpointURLs(null, null, "http://generator-backend")).isEmpty();
+    }
+
+    protected RecordingCommandsAPI createPod(String address) {
+        return pods.computeIfAbsent(address, RecordingCommandsAPI::new);
+    }
+
+    /**
+     * Records the request or form of each call made to a pod
+     */
+    public static class RecordingCommandsAPI implements CommandsAPI, Closeable {
+        private final String address;
+        private final List<Object> keys = new CopyOnWriteArrayList<>();
+        private volatile CountDownLatch started;
+        private volatile CountDownLatch blocked;
+        private volatile boolean closed;
+
+        public RecordingCommandsAPI(String address) {
+            this.address = address;
+        }
+
+        @Override
+        public VersionDTO getInfo() {
+            return new VersionDTO();
+        }
+
+        @Override
+        public List<String> getCommandNames() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public Response getCommandNames(String ifNoneMatch) {
+            return Response.ok().build();
+        }
+
+        @Override
+        public Response validateCommand(String name, ExecutionRequest executionRequest) throws Exception {
+            return record(executionRequest);
+        }
+
+        @Override
+        public Response getCommandInput(String name) throws Exception {
+            return Response.ok().build();
+        }
+
+        @Override
+        public Response getCommandInput(String name, String ifNoneMatch) throws Exception {
+            return Response.ok().build();
+        }
+
+        @Override
+        public Response nextStep(String name, ExecutionRequest executionRequest) throws Exception {
+            return record(executionRequest);
+        }
+
+        @Override
+        public Response executeCommand(String name, ExecutionRequest executionRequest) throws Exception {
+            return record(executionRequest);
+        }
+
+        @Override
+        public Response executeCommand(String commandName, Form form) throws Exception {
+            return record(form);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        protected Response record(Object key) throws InterruptedException {
+            keys.add(key);
+            if (started != null) {
+                started.countDown();
+            }
+            if (blocked != null) {
+                blocked.await();
+            }
+            return Response.ok().build();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.dto.ExecutionRequest;
+import io.fabric8.forge.rest.client.dto.InputValueDTO;
+import io.fabric8.forge.rest.client.dto.ValidationResult;
+import io.fabric8.forge.rest.client.stub.StubForgeRule;
+import io.fabric8.forge.rest.client.stub.StubForgeServer;
+import io.fabric8.forge.rest.client.stub.StubWizard;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.fabric8.forge.rest.client.stub.StubWizard.choice;
+import static io.fabric8.forge.rest.client.stub.StubWizard.input;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ */
+@RunWith(Parameterized.class)
+public class MemoizingCommandsAPITest {
+    public static final String QUICKSTART = "stub-quickstart";
+
+    @Rule
+    public StubForgeRule stub;
+    protected StubForgeServer server;
+    protected ForgeClient forgeClient;
+
+    public MemoizingCommandsAPITest(TransportMode transportMode) {
+        this.stub = new StubForgeRule(transportMode);
+        this.server = stub.getServer();
+        this.forgeClient = stub.getForgeClient();
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static List<Object[]> transportModes() {
+        return StubForgeRule.transportModes();
+    }
+
+    @Before
+    public void init() throws Exception {
+        server.addWizard(new StubWizard(QUICKSTART).
+                page(input("named", null), input("version", "1.0.0-SNAPSHOT"), choice("type", 1)));
+        forgeClient.getValidationMemoConfig().setEnabled(true);
+    }
+
+    @Test
+    public void testRepeatedValidationIsMemoized() throws Exception {
+        ExecutionRequest executionRequest = createRequest("demo");
+
+        ValidationResult first = forgeClient.validateCommand(QUICKSTART, executionRequest);
+        ValidationResult second = forgeClient.validateCommand(QUICKSTART, createRequest("demo"));
+
+        assertThat(server.getRequestCount(ForgeOperation.VALIDATE)).isEqualTo(1);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.isValid()).isEqualTo(first.isValid());
+        assertThat(forgeClient.getValidationMemo().getHits()).isEqualTo(1);
+
+        executionRequest.getInputs().get(0).setValue("other");
+        forgeClient.validateCommand(QUICKSTART, executionRequest);
+        assertThat(server.getRequestCount(ForgeOperation.VALIDATE)).isEqualTo(2);
+
+        executionRequest.setStepIndex(1);
+        forgeClient.validateCommand(QUICKSTART, executionRequest);
+        assertThat(server.getRequestCount(ForgeOperation.VALIDATE)).isEqualTo(3);
+        assertThat(forgeClient.getValidationMemo().getSize()).isEqualTo(3);
+    }
+
+    @Test
+    public void testExecuteDiscardsValidations() throws Exception {
+        ExecutionRequest executionRequest = createRequest("demo");
+        forgeClient.validateCommand(QUICKSTART, executionRequest);
+        stub.executeCommandStatus(QUICKSTART, executionRequest);
+        forgeClient.validateCommand(QUICKSTART, executionRequest);
+
+        assertThat(server.getRequestCount(ForgeOperation.VALIDATE)).isEqualTo(2);
+        assertThat(forgeClient.getValidationMemo().getHits()).isEqualTo(0);
+    }
+
+    @Test
+    public void testExpiredValidationsAreNotReused() throws Exception {
+        forgeClient.getValidationMemoConfig().setTtlMillis(0);
+        forgeClient.validateCommand(QUICKSTART, createRequest("demo"));
+        forgeClient.validateCommand(QUICKSTART, createRequest("demo"));
+
+        assertThat(server.getRequestCount(ForgeOperation.VALIDATE)).isEqualTo(2);
+    }
+
+    protected ExecutionRequest createRequest(String name) {
+        ExecutionRequest executionRequest = new ExecutionRequest();
+        executionRequest.setNamespace(forgeClient.getNamespace());
+        List<InputValueDTO> inputs = new ArrayList<>();
+        inputs.add(new InputValueDTO("named", name));
+        inputs.add(new InputValueDTO("version", "1.0.0-SNAPSHOT"));
+        executionRequest.setInputs(inputs);
+        return executionRequest;
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ */
+public class OAuthTokenHolderTest {
+
+    @Test
+    public void testReadsTokenOnceUntilInvalidated() throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        OAuthTokenHolder holder = new OAuthTokenHolder(() -> "token-" + reads.incrementAndGet(), 60 * 1000L);
+
+        assertThat(holder.getToken()).isEqualTo("token-1");
+        assertThat(holder.getToken()).isEqualTo("token-1");
+        assertThat(reads.get()).isEqualTo(1);
+
+        holder.invalidate();
+        assertThat(holder.getToken()).isEqualTo("token-2");
+        assertThat(holder.getToken()).isEqualTo("token-2");
+    }
+
+    @Test
+    public void testCachesMissingTokenUntilExpired() throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        OAuthTokenHolder holder = new OAuthTokenHolder(() -> {
+            reads.incrementAndGet();
+            return null;
+        }, 60 * 1000L);
+
+        assertThat(holder.getToken()).isNull();
+        assertThat(holder.getToken()).isNull();
+        assertThat(reads.get()).isEqualTo(1);
+
+        holder.invalidate();
+        assertThat(holder.getToken()).isNull();
+        assertThat(reads.get()).isEqualTo(2);
+    }
+}
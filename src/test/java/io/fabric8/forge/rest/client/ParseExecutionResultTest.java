@@ -0,0 +1,73 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.dto.ExecutionResult;
+import org.junit.Test;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ */
+public class ParseExecutionResultTest {
+    private static final String JSON = "{\"message\":\"Created project caf\u00e9\",\"status\":\"SUCCESS\"}";
+
+    @Test
+    public void testLazyResultParsesOnFirstAccess() throws Exception {
+        ForgeClient forgeClient = new ForgeClient();
+        forgeClient.setLazyExecutionResults(true);
+        Response response = Response.ok(new ByteArrayInputStream(JSON.getBytes(StandardCharsets.UTF_8)), MediaType.APPLICATION_JSON_TYPE).build();
+
+        ExecutionResult result = forgeClient.parseExecutionResult(response);
+        assertThat(result.getData()).isNotNull();
+        Map<?, ?> data = result.as(Map.class);
+        assertThat(data.get("message")).isEqualTo("Created project caf\u00e9");
+        assertThat(result.getJson().get("status").asText()).isEqualTo("SUCCESS");
+        assertThat(result.getJson()).isSameAs(result.getJson());
+        assertThat(result.getEntity()).isEqualTo(JSON);
+    }
+
+    @Test
+    public void testToStringDoesNotMaterializeLazyResult() throws Exception {
+        ExecutionResult result = new ExecutionResult(500, "not json".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, true, new ForgeJsonCodec().getObjectMapper());
+
+        assertThat(result.toString()).isEqualTo("ExecutionResult{status=500, bytes=8}");
+        assertThat(result.getEntity()).isEqualTo("not json");
+        assertThat(result.toString()).isEqualTo("ExecutionResult{status=500, bytes=8, entity='not json'}");
+    }
+
+    @Test
+    public void testHonoursResponseCharset() throws Exception {
+        MediaType mediaType = MediaType.APPLICATION_JSON_TYPE.withCharset("ISO-8859-1");
+        for (boolean lazy : new boolean[]{false, true}) {
+            ForgeClient forgeClient = new ForgeClient();
+            forgeClient.setLazyExecutionResults(lazy);
+            Response response = Response.ok(JSON.getBytes(StandardCharsets.ISO_8859_1), mediaType).build();
+
+            ExecutionResult result = forgeClient.parseExecutionResult(response);
+            assertThat(result.getEntity()).isEqualTo(JSON);
+            assertThat(result.getJson()).as("JSON with a charset parameter").isNotNull();
+            assertThat(result.getJson().get("message").asText()).isEqualTo("Created project caf\u00e9");
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.dto.ExecutionRequest;
+import io.fabric8.forge.rest.client.stub.StubForgeServer;
+import org.apache.http.pool.PoolStats;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ */
+public class PooledCommandsAPITest {
+    protected StubForgeServer server = new StubForgeServer();
+    protected PooledCommandsAPI api;
+
+    @Before
+    public void init() throws Exception {
+        server.addWizard(WizardRunnerTest.createQuickstartWizard(2));
+        server.start();
+    }
+
+    @After
+    public void destroy() throws Exception {
+        if (api != null) {
+            api.close();
+        }
+        server.stop();
+    }
+
+    @Test
+    public void testSequentialRequestsReuseOneConnection() throws Exception {
+        api = createAPI(new ConnectionPoolConfig());
+
+        for (int i = 0; i < 10; i++) {
+            Response response = api.getCommandInput(WizardRunnerTest.QUICKSTART);
+            assertThat(response.getStatus()).isEqualTo(200);
+            api.validateCommand(WizardRunnerTest.QUICKSTART, new ExecutionRequest());
+        }
+
+        assertThat(server.getConnectionCount()).isEqualTo(1);
+        PoolStats stats = api.getPoolStats();
+        assertThat(stats.getLeased()).isEqualTo(0);
+        assertThat(stats.getAvailable()).isEqualTo(1);
+    }
+
+    @Test
+    public void testConcurrentRequestsAreLimitedToThePoolSize() throws Exception {
+        ConnectionPoolConfig config = new ConnectionPoolConfig();
+        config.setMaxTotal(2);
+        config.setMaxPerRoute(2);
+        api = createAPI(config);
+        server.setLatencyMillis(50);
+
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<Response>> futures = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                futures.add(executor.submit(() -> api.getCommandInput(WizardRunnerTest.QUICKSTART)));
+            }
+            for (Future<Response> future : futures) {
+                assertThat(future.get().getStatus()).isEqualTo(200);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(server.getConnectionCount()).isLessThanOrEqualTo(2);
+        PoolStats stats = api.getPoolStats();
+        assertThat(stats.getMax()).isEqualTo(2);
+        assertThat(stats.getLeased()).isEqualTo(0);
+        assertThat(stats.getPending()).isEqualTo(0);
+        assertThat(stats.getAvailable()).isBetween(1, 2);
+    }
+
+    @Test
+    public void testConnectionRequestTimesOutWhenThePoolIsExhausted() throws Exception {
+        ConnectionPoolConfig config = new ConnectionPoolConfig();
+        config.setMaxTotal(1);
+        config.setMaxPerRoute(1);
+        config.setConnectionRequestTimeoutMillis(50);
+        api = createAPI(config);
+        server.delayNextRequests(1, 1000);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Response> slow = executor.submit(() -> api.getCommandInput(WizardRunnerTest.QUICKSTART));
+            while (api.getPoolStats().getLeased() == 0) {
+                Thread.sleep(5);
+            }
+            try {
+                api.getCommandInput(WizardRunnerTest.QUICKSTART);
+                fail("Should have timed out waiting for a connection");
+            } catch (InterruptedIOException e) {
+                // expected
+            }
+            assertThat(slow.get().getStatus()).isEqualTo(200);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testErrorStatusThrowsWebApplicationException() throws Exception {
+        api = createAPI(new ConnectionPoolConfig());
+        server.failNextRequests(1);
+
+        try {
+            api.executeCommand(WizardRunnerTest.QUICKSTART, new ExecutionRequest());
+            fail("Should have thrown a WebApplicationException");
+        } catch (WebApplicationException e) {
+            assertThat(e.getResponse().getStatus()).isEqualTo(503);
+        }
+        try {
+            api.getCommandInput("unknown");
+            fail("Should have thrown a WebApplicationException");
+        } catch (WebApplicationException e) {
+            assertThat(e.getResponse().getStatus()).isEqualTo(404);
+        }
+        assertThat(api.getCommandNames(null).getStatus()).isEqualTo(200);
+        assertThat(server.getConnectionCount()).isEqualTo(1);
+    }
+
+    protected PooledCommandsAPI createAPI(ConnectionPoolConfig config) {
+        return new PooledCommandsAPI(server.getAddress(), new ForgeJsonCodec(), config, 5000);
+    }
+}
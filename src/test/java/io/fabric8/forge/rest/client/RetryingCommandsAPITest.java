@@ -0,0 +1,162 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.dto.ExecutionRequest;
+import io.fabric8.forge.rest.client.dto.InputValueList;
+import io.fabric8.forge.rest.client.dto.ValidationResult;
+import io.fabric8.forge.rest.client.stub.StubForgeRule;
+import io.fabric8.forge.rest.client.stub.StubForgeServer;
+import io.fabric8.forge.rest.client.stub.StubWizard;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import static io.fabric8.forge.rest.client.stub.StubWizard.input;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ */
+@RunWith(Parameterized.class)
+public class RetryingCommandsAPITest {
+    public static final String COMMAND = "stub-command";
+
+    @Rule
+    public StubForgeRule stub;
+    protected StubForgeServer server;
+    protected ForgeClient forgeClient;
+
+    public RetryingCommandsAPITest(TransportMode transportMode) {
+        this.stub = new StubForgeRule(transportMode);
+        this.server = stub.getServer();
+        this.forgeClient = stub.getForgeClient();
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static List<Object[]> transportModes() {
+        return StubForgeRule.transportModes();
+    }
+
+    @Before
+    public void init() throws Exception {
+        server.addWizard(new StubWizard(COMMAND).page(input("named", "demo")));
+        RetryConfig retryConfig = forgeClient.getRetryConfig();
+        retryConfig.setEnabled(true);
+        for (ForgeOperation operation : ForgeOperation.values()) {
+            RetryPolicy policy = retryConfig.getPolicy(operation);
+            if (policy != null) {
+                policy.setInitialBackoffMillis(1);
+            }
+        }
+    }
+
+    @Test
+    public void testRetriesIdempotentCalls() throws Exception {
+        server.setErrorOperations(EnumSet.of(ForgeOperation.VALIDATE));
+        server.failNextRequests(2);
+
+        ValidationResult result = forgeClient.validateCommand(COMMAND, createRequest());
+
+        assertThat(result.isValid()).isTrue();
+        assertThat(server.getRequestCount(ForgeOperation.VALIDATE)).isEqualTo(3);
+        assertThat(forgeClient.getRetryingCommandsAPI().getRetries()).isEqualTo(2);
+    }
+
+    @Test
+    public void testInterruptedBackoffKeepsInterruptFlag() throws Exception {
+        forgeClient.getRetryConfig().getPolicy(ForgeOperation.COMMAND_NAMES).setInitialBackoffMillis(60000);
+        server.setErrorOperations(EnumSet.of(ForgeOperation.COMMAND_NAMES));
+        server.failNextRequests(1);
+        Thread caller = Thread.currentThread();
+        Thread interrupter = new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                return;
+            }
+            caller.interrupt();
+        });
+        interrupter.start();
+
+        try {
+            forgeClient.getCommandNames();
+            fail("Expected the backoff to be interrupted");
+        } catch (RuntimeException e) {
+            assertThat(e.getCause()).isInstanceOf(InterruptedException.class);
+            assertThat(Thread.interrupted()).describedAs("interrupted").isTrue();
+        } finally {
+            interrupter.join();
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    public void testExecuteIsOnlyRetriedWhenEnabled() throws Exception {
+        server.setErrorOperations(EnumSet.of(ForgeOperation.EXECUTE));
+        server.failNextRequests(1);
+
+        assertThat(stub.executeCommandStatus(COMMAND, createRequest())).isEqualTo(503);
+        assertThat(server.getRequestCount(ForgeOperation.EXECUTE)).isEqualTo(1);
+
+        RetryPolicy policy = new RetryPolicy();
+        policy.setInitialBackoffMillis(1);
+        forgeClient.getRetryConfig().setPolicy(ForgeOperation.EXECUTE, policy);
+        server.failNextRequests(1);
+
+        assertThat(stub.executeCommandStatus(COMMAND, createRequest())).isEqualTo(200);
+        assertThat(server.getRequestCount(ForgeOperation.EXECUTE)).isEqualTo(3);
+    }
+
+    @Test
+    public void testHedgesSlowCalls() throws Exception {
+        RetryPolicy policy = forgeClient.getRetryConfig().getPolicy(ForgeOperation.VALIDATE);
+        policy.setHedgePercentile(95);
+        policy.setHedgeMinSamples(5);
+        policy.setHedgeMinDelayMillis(50);
+        for (int i = 0; i < 5; i++) {
+            forgeClient.validateCommand(COMMAND, createRequest());
+        }
+
+        server.delayNextRequests(1, 2000);
+        long start = System.currentTimeMillis();
+        ValidationResult result = forgeClient.validateCommand(COMMAND, createRequest());
+        long duration = System.currentTimeMillis() - start;
+
+        assertThat(result.isValid()).isTrue();
+        assertThat(duration).describedAs("duration").isLessThan(1500);
+        RetryingCommandsAPI retrying = forgeClient.getRetryingCommandsAPI();
+        assertThat(retrying.getHedges()).describedAs("hedges " + retrying).isEqualTo(1);
+        // on a busy machine the hedge can reach the server before the original call and be the one delayed
+        assertThat(retrying.getHedgeWins()).describedAs("hedge wins " + retrying).isLessThanOrEqualTo(1);
+        assertThat(server.getRequestCount(ForgeOperation.VALIDATE)).isEqualTo(7);
+    }
+
+    protected ExecutionRequest createRequest() {
+        ExecutionRequest executionRequest = new ExecutionRequest();
+        executionRequest.setNamespace(forgeClient.getNamespace());
+        InputValueList inputs = new InputValueList();
+        inputs.setValue("named", "demo");
+        executionRequest.setInputs(inputs);
+        return executionRequest;
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.kubernetes.api.model.Endpoints;
+import io.fabric8.kubernetes.api.model.EndpointsBuilder;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.openshift.api.model.Route;
+import io.fabric8.openshift.api.model.RouteBuilder;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ */
+public class ServiceEndpointResolverTest {
+    protected StubResolver resolver = new StubResolver();
+
+    @Test
+    public void testServiceURLFromCachedEndpoints() throws Exception {
+        Service service = new ServiceBuilder().withNewMetadata().withName("jenkins").endMetadata().
+                withNewSpec().withClusterIP("172.30.1.10").addNewPort().withPort(80).endPort().endSpec().build();
+        Route route = new RouteBuilder().withNewMetadata().withName("jenkins").endMetadata().
+                withNewSpec().withHost("Jenkins.Example.com").endSpec().build();
+
+        assertThat(ServiceEndpointResolver.toServiceURL(service, route, "http", true)).isEqualTo("http://jenkins.example.com");
+        assertThat(ServiceEndpointResolver.toServiceURL(service, null, "http", true)).isNull();
+        assertThat(ServiceEndpointResolver.toServiceURL(service, route, "http", false)).isEqualTo("http://172.30.1.10:80");
+
+        service.getMetadata().getAnnotations().put("fabric8.io/exposeUrl", "https://jenkins.acme.com");
+        assertThat(ServiceEndpointResolver.toServiceURL(service, route, "http", true)).isEqualTo("https://jenkins.acme.com");
+    }
+
+    @Test
+    public void testWatchEventsUpdateCache() throws Exception {
+        assertThat(resolver.getServiceURL("jenkins", "ns", "http", false)).isNull();
+        assertThat(resolver.loads).isEqualTo(1);
+
+        resolver.last.getServiceWatcher().eventReceived(Watcher.Action.ADDED, createService("jenkins", "172.30.1.10"));
+        resolver.last.getRouteWatcher().eventReceived(Watcher.Action.ADDED, new RouteBuilder().withNewMetadata().withName("jenkins").endMetadata().
+                withNewSpec().withHost("jenkins.example.com").endSpec().build());
+        assertThat(resolver.getServiceURL("jenkins", "ns", "http", false)).isEqualTo("http://172.30.1.10:80");
+        assertThat(resolver.getServiceURL("jenkins", "ns", "http", true)).isEqualTo("http://jenkins.example.com");
+
+        resolver.last.getServiceWatcher().eventReceived(Watcher.Action.MODIFIED, createService("jenkins", "172.30.1.11"));
+        assertThat(resolver.getServiceURL("jenkins", "ns", "http", false)).isEqualTo("http://172.30.1.11:80");
+
+        Endpoints endpoints = new EndpointsBuilder().withNewMetadata().withName("generator-backend").endMetadata().build();
+        resolver.last.getEndpointsWatcher().eventReceived(Watcher.Action.ADDED, endpoints);
+        assertThat(resolver.getEndpoints("generator-backend", "ns")).isSameAs(endpoints);
+
+        resolver.last.getServiceWatcher().eventReceived(Watcher.Action.DELETED, createService("jenkins", "172.30.1.11"));
+        assertThat(resolver.getServiceURL("jenkins", "ns", "http", false)).isNull();
+        assertThat(resolver.loads).describedAs("lookups are served from the cache").isEqualTo(1);
+        assertThat(resolver.clusterLookups).isEmpty();
+    }
+
+    @Test
+    public void testClosedWatchReloadsNamespace() throws Exception {
+        resolver.getServiceURL("jenkins", "ns", "http", false);
+        ServiceEndpointResolver.NamespaceEndpoints first = resolver.last;
+
+        first.getServiceWatcher().onClose(null);
+        assertThat(first.isActive()).isFalse();
+
+        resolver.getServiceURL("jenkins", "ns", "http", false);
+        assertThat(resolver.loads).isEqualTo(2);
+        assertThat(resolver.last).isNotSameAs(first);
+        assertThat(resolver.last.isActive()).isTrue();
+
+        resolver.close();
+        assertThat(resolver.last.isActive()).isFalse();
+    }
+
+    @Test
+    public void testFallsBackToClusterLookup() throws Exception {
+        // a head-less service cannot be resolved from the cache
+        resolver.getServiceURL("jenkins", "ns", "http", false);
+        resolver.last.getServiceWatcher().eventReceived(Watcher.Action.ADDED, createService("jenkins", "None"));
+        assertThat(resolver.getServiceURL("jenkins", "ns", "http", false)).isEqualTo("http://cluster/jenkins");
+        assertThat(resolver.getServiceURL("jenkins", "ns", "http", false)).describedAs("cached cluster lookup").isEqualTo("http://cluster/jenkins");
+        assertThat(resolver.clusterLookups).containsExactly("ns/jenkins");
+
+        // an external service without a route is looked up once until the service changes
+        resolver.last.getServiceWatcher().eventReceived(Watcher.Action.MODIFIED, createService("jenkins", "172.30.1.10"));
+        assertThat(resolver.getServiceURL("jenkins", "ns", "http", true)).isEqualTo("http://cluster/jenkins");
+        assertThat(resolver.getServiceURL("jenkins", "ns", "http", true)).isEqualTo("http://cluster/jenkins");
+        assertThat(resolver.clusterLookups).containsExactly("ns/jenkins", "ns/jenkins");
+        resolver.last.getServiceWatcher().eventReceived(Watcher.Action.MODIFIED, createService("jenkins", "172.30.1.11"));
+        assertThat(resolver.getServiceURL("jenkins", "ns", "http", true)).isEqualTo("http://cluster/jenkins");
+        assertThat(resolver.clusterLookups).containsExactly("ns/jenkins", "ns/jenkins", "ns/jenkins");
+        resolver.clusterLookups.clear();
+
+        // a namespace which cannot be watched is looked up each time
+        resolver.failLoads = true;
+        assertThat(resolver.getServiceURL("jenkins", "other", "http", false)).isEqualTo("http://cluster/jenkins");
+        assertThat(resolver.getServiceURL("jenkins", "other", "http", false)).isEqualTo("http://cluster/jenkins");
+        assertThat(resolver.clusterLookups).containsExactly("other/jenkins", "other/jenkins");
+    }
+
+    protected static Service createService(String name, String clusterIP) {
+        return new ServiceBuilder().withNewMetadata().withName(name).endMetadata().
+                withNewSpec().withClusterIP(clusterIP).addNewPort().withPort(80).endPort().endSpec().build();
+    }
+
+    protected static class StubResolver extends ServiceEndpointResolver {
+        protected final List<String> clusterLookups = new ArrayList<>();
+        protected NamespaceEndpoints last;
+        protected int loads;
+        protected boolean failLoads;
+
+        public StubResolver() {
+            super(null);
+        }
+
+        @Override
+        protected NamespaceEndpoints loadNamespaceEndpoints(String namespace) {
+            if (failLoads) {
+                throw new IllegalStateException("Cannot watch namespace " + namespace);
+            }
+            loads++;
+            last = new NamespaceEndpoints();
+            return last;
+        }
+
+        @Override
+        protected String getServiceURLFromCluster(String serviceName, String namespace, String protocol, boolean external) {
+            clusterLookups.add(namespace + "/" + serviceName);
+            return "http://cluster/" + serviceName;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client;
+
+import io.fabric8.forge.rest.client.dto.PropertyDTO;
+import io.fabric8.forge.rest.client.stub.StubForgeRule;
+import io.fabric8.forge.rest.client.stub.StubForgeServer;
+import io.fabric8.forge.rest.client.stub.StubWizard;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import javax.ws.rs.WebApplicationException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static io.fabric8.forge.rest.client.stub.StubWizard.choice;
+import static io.fabric8.forge.rest.client.stub.StubWizard.input;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Runs wizards against a {@link StubForgeServer}
+ */
+@RunWith(Parameterized.class)
+public class WizardRunnerTest {
+    public static final String QUICKSTART = "stub-quickstart";
+
+    @Rule
+    public StubForgeRule stub;
+    protected StubForgeServer server;
+    protected ForgeClient forgeClient;
+
+    public WizardRunnerTest(TransportMode transportMode) {
+        this.stub = new StubForgeRule(transportMode);
+        this.server = stub.getServer();
+        this.forgeClient = stub.getForgeClient();
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static List<Object[]> transportModes() {
+        return StubForgeRule.transportModes();
+    }
+
+    @Before
+    public void init() throws Exception {
+        server.addWizard(createQuickstartWizard(20));
+    }
+
+    /**
+     * Creates the three page quickstart wizard with the given number of pipelines to choose from
+     */
+    public static StubWizard createQuickstartWizard(int pipelineCount) {
+        return new StubWizard(QUICKSTART).
+                page(input("named", null), input("version", "1.0.0-SNAPSHOT"), choice("type", 1)).
+                page(choice("pipeline", pipelineCount)).
+                page(input("gitRepository", null), choice("space", 1));
+    }
+
+    @Test
+    public void testRunWizardWithOneRoundTripPerPage() throws Exception {
+        WizardRunResult result = new WizardRunner(forgeClient).run(QUICKSTART, new ProjectValueProvider("demo"));
+
+        assertThat(result.isSuccessful()).describedAs("successful " + result).isTrue();
+        assertThat(result.getPages()).isEqualTo(3);
+        assertThat(result.getExecutionResult().getStatus()).isEqualTo(200);
+        assertThat(result.getExecutionResult().getEntity()).contains("demo");
+        assertThat(result.getRoundTrips()).isEqualTo(4);
+        assertThat(server.getRequestCount(ForgeOperation.VALIDATE)).isEqualTo(0);
+    }
+
+    @Test
+    public void testRunWizardFailsWhenValueIsMissing() throws Exception {
+        try {
+            new WizardRunner(forgeClient).run(QUICKSTART, new ValueProvider());
+            fail("Should not be able to move past the first page without a project name");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage()).contains("named must be specified");
+        }
+        assertThat(server.getRequestCount(ForgeOperation.VALIDATE)).isGreaterThan(0);
+        assertThat(server.getRequestCount(ForgeOperation.EXECUTE)).isEqualTo(0);
+    }
+
+    @Test
+    public void testRunWizardTakesPagePropertiesFromValidation() throws Exception {
+        server.setEmptyNextSteps(true);
+
+        WizardRunResult result = new WizardRunner(forgeClient).run(QUICKSTART, new ProjectValueProvider("demo"));
+
+        assertThat(result.isSuccessful()).describedAs("successful " + result).isTrue();
+        assertThat(result.getPages()).isEqualTo(3);
+        assertThat(result.getExecutionResult().getEntity()).contains("demo");
+        // each valid but empty next step goes straight to validating the next page without a retry
+        assertThat(server.getRequestCount(ForgeOperation.NEXT_STEP)).isEqualTo(2);
+        assertThat(server.getRequestCount(ForgeOperation.VALIDATE)).isEqualTo(2);
+    }
+
+    @Test
+    public void testInjectedErrors() throws Exception {
+        server.setErrorOperations(EnumSet.of(ForgeOperation.EXECUTE));
+        server.setErrorRate(1.0);
+
+        try {
+            new WizardRunner(forgeClient).run(QUICKSTART, new ProjectValueProvider("demo"));
+            fail("Should have thrown a WebApplicationException");
+        } catch (WebApplicationException e) {
+            assertThat(e.getResponse().getStatus()).isEqualTo(503);
+        }
+        assertThat(forgeClient.getMetrics().getOperationMetrics(ForgeOperation.EXECUTE, QUICKSTART).getStatusCounts()).containsEntry(503, 1L);
+    }
+
+    @Test
+    public void testBulkWizards() throws Exception {
+        server.setLatencyMillis(20);
+        List<WizardJob> jobs = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            String name = "demo" + i;
+            jobs.add(new WizardJob(name, QUICKSTART, new ProjectValueProvider(name), -1));
+        }
+
+        BulkWizardResults results = new BulkWizardRunner(forgeClient, 4).run(jobs);
+
+        assertThat(results.getSucceededCount()).describedAs("succeeded " + results).isEqualTo(12);
+        assertThat(results.getRoundTrips()).isEqualTo(12 * 4);
+        for (int i = 0; i < 12; i++) {
+            assertThat(results.getResults().get(i).getExecutionResult().getEntity()).contains("demo" + i);
+        }
+        assertThat(forgeClient.getMetrics().getInFlight()).isEqualTo(0);
+    }
+
+    /**
+     * Provides the project name and repository and picks the first pipeline
+     */
+    public static class ProjectValueProvider extends ValueProvider {
+        private final String name;
+
+        public ProjectValueProvider(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Object getValue(String propertyName, PropertyDTO property, int pageNumber) {
+            switch (propertyName) {
+                case "named":
+                    return name;
+                case "gitRepository":
+                    return name;
+                case "pipeline":
+                    return property.getValueChoices().get(0);
+                default:
+                    return super.getValue(propertyName, property, pageNumber);
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client.dto;
+
+import io.fabric8.forge.rest.client.ForgeJsonCodec;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ */
+public class ChoiceIndexTest {
+
+    @Test
+    public void testExactMatchOnAnyKey() throws Exception {
+        List<Object> choices = new ArrayList<>();
+        choices.add(choice("value", "fabric8", "name", "Fabric8 Catalog"));
+        choices.add(choice("id", "central", "name", "Maven Central"));
+        choices.add(choice("name", "local"));
+        choices.add(choice("value", "other", "id", "central"));
+        ChoiceIndex index = ChoiceIndex.of(choices);
+
+        assertThat(index.get("fabric8")).isSameAs(choices.get(0));
+        assertThat(index.get("Fabric8 Catalog")).isSameAs(choices.get(0));
+        assertThat(index.get("central")).describedAs("first choice with the key wins").isSameAs(choices.get(1));
+        assertThat(index.get("local")).isSameAs(choices.get(2));
+        assertThat(index.get("missing")).isNull();
+        assertThat(index.get(null)).isNull();
+
+        assertThat(ChoiceIndex.primaryKey(choices.get(0))).isEqualTo("fabric8");
+        assertThat(ChoiceIndex.primaryKey(choices.get(1))).isEqualTo("central");
+        assertThat(ChoiceIndex.primaryKey("plain")).isEqualTo("plain");
+    }
+
+    @Test
+    public void testPrimaryKeyWinsOverSecondaryKeyOfEarlierChoice() throws Exception {
+        List<Object> choices = new ArrayList<>();
+        choices.add(choice("value", "foo", "id", "x"));
+        choices.add(choice("id", "x"));
+        choices.add(choice("name", "foo"));
+        ChoiceIndex index = ChoiceIndex.of(choices);
+
+        assertThat(index.get("x")).describedAs("the choice whose primary key is x").isSameAs(choices.get(1));
+        assertThat(ChoiceIndex.primaryKey(index.get("x"))).isEqualTo("x");
+        assertThat(index.get("foo")).describedAs("the first choice whose primary key is foo").isSameAs(choices.get(0));
+    }
+
+    @Test
+    public void testPrefixSearch() throws Exception {
+        List<Object> choices = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            choices.add("archetype-" + i);
+        }
+        choices.add(choice("id", "camel-cdi", "name", "camel with CDI"));
+        ChoiceIndex index = ChoiceIndex.of(choices);
+
+        assertThat(index.findByPrefix("archetype-499")).containsExactly(
+                "archetype-499", "archetype-4990", "archetype-4991", "archetype-4992", "archetype-4993",
+                "archetype-4994", "archetype-4995", "archetype-4996", "archetype-4997", "archetype-4998", "archetype-4999");
+        assertThat(index.findByPrefix("archetype-", 3)).hasSize(3);
+        assertThat(index.findByPrefix("camel")).describedAs("a choice matching on several keys is found once").containsExactly(choices.get(5000));
+        assertThat(index.findByPrefix("zzz")).isEmpty();
+    }
+
+    @Test
+    public void testPropertyIndexIsReusedUntilChoicesChange() throws Exception {
+        PropertyDTO property = new PropertyDTO();
+        assertThat(property.getChoiceIndex().isEmpty()).isTrue();
+
+        property.setTypeaheadData(new ArrayList<>(Arrays.asList("a", "b")));
+        ChoiceIndex typeahead = property.getChoiceIndex();
+        assertThat(typeahead.contains("b")).isTrue();
+        assertThat(property.getChoiceIndex()).isSameAs(typeahead);
+
+        property.setValueChoices(new ArrayList<>(Arrays.asList("c")));
+        assertThat(property.getChoiceIndex().contains("c")).isTrue();
+        assertThat(property.getChoiceIndex().contains("b")).describedAs("value choices are used before typeahead data").isFalse();
+
+        String json = new ForgeJsonCodec().getObjectMapper().writeValueAsString(property);
+        assertThat(json).doesNotContain("choiceIndex");
+    }
+
+    protected static Map<String, Object> choice(String... keyValues) {
+        Map<String, Object> answer = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            answer.put(keyValues[i], keyValues[i + 1]);
+        }
+        return answer;
+    }
+}
@@ -0,0 +1,186 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client.dto;
+
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.KeyDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.cfg.HandlerInstantiator;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.jsontype.TypeIdResolver;
+import com.fasterxml.jackson.databind.jsontype.TypeResolverBuilder;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.fabric8.forge.rest.client.ForgeJsonCodec;
+import io.fabric8.utils.cxf.JsonHelper;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ */
+public class ChoiceListDeserializerTest {
+    // lets not fill the JVM wide pool used by the other tests
+    protected ChoicePool pool = new ChoicePool(64 * 1024, 4 * 1024);
+    protected ForgeJsonCodec jsonCodec = new ForgeJsonCodec(createObjectMapper(pool));
+    protected ObjectMapper objectMapper = jsonCodec.getObjectMapper();
+
+    @Test
+    public void testChoicesAreSharedAcrossResponses() throws Exception {
+        byte[] json = createValidationResult(100);
+        ValidationResult first = jsonCodec.readerFor(ValidationResult.class).readValue(json);
+        ValidationResult second = jsonCodec.readerFor(ValidationResult.class).readValue(json);
+
+        PropertyDTO pipeline = first.getInputs().get(0);
+        PropertyDTO catalog = first.getInputs().get(1);
+        assertThat(pipeline.getValueChoices()).hasSize(100).contains("pipeline-42");
+        assertThat(pipeline.getTypeaheadData()).isSameAs(pipeline.getValueChoices());
+        assertThat(second.getInputs().get(0).getValueChoices()).isSameAs(pipeline.getValueChoices());
+        assertThat(pool.getListCount()).describedAs("lists in the pool of the test").isGreaterThan(0);
+
+        Object choice = catalog.getValueChoices().get(7);
+        assertThat(choice).isInstanceOf(ChoiceMap.class);
+        Map<String, Object> map = (ChoiceMap) choice;
+        assertThat(map.get("id")).isEqualTo("catalog-7");
+        assertThat(map.get("size")).isEqualTo(7);
+        assertThat(map.keySet()).containsExactly("id", "name", "size");
+        try {
+            pipeline.getValueChoices().add("other");
+            fail("The shared choices should not be modifiable");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+
+        String text = objectMapper.writeValueAsString(catalog.getValueChoices().get(7));
+        assertThat(text).isEqualTo("{\"id\":\"catalog-7\",\"name\":\"Catalog 7\",\"size\":7}");
+    }
+
+    @Test
+    public void testHeapFootprintOfRepeatedChoices() throws Exception {
+        int responses = 50;
+        byte[] json = createValidationResult(500);
+        ObjectMapper plainMapper = new ObjectMapper();
+
+        List<Object> plain = new ArrayList<>();
+        List<Object> compact = new ArrayList<>();
+        for (int i = 0; i < responses; i++) {
+            plain.add(plainMapper.readValue(json, Map.class));
+            compact.add(jsonCodec.readerFor(ValidationResult.class).readValue(json));
+        }
+
+        long plainObjects = countChoiceObjects(plain);
+        long compactObjects = countChoiceObjects(compact);
+        assertThat(compactObjects * responses).describedAs("retained choice objects for " + responses + " responses: compact " + compactObjects + " plain " + plainObjects).isLessThan(plainObjects * 2);
+    }
+
+    /**
+     * Creates the object mapper whose {@link ChoiceListDeserializer}s use the given pool
+     */
+    protected static ObjectMapper createObjectMapper(ChoicePool pool) {
+        ObjectMapper answer = JsonHelper.createObjectMapper();
+        answer.setHandlerInstantiator(new HandlerInstantiator() {
+            @Override
+            public JsonDeserializer<?> deserializerInstance(DeserializationConfig config, Annotated annotated, Class<?> deserClass) {
+                return deserClass == ChoiceListDeserializer.class ? new ChoiceListDeserializer(pool) : null;
+            }
+
+            @Override
+            public KeyDeserializer keyDeserializerInstance(DeserializationConfig config, Annotated annotated, Class<?> keyDeserClass) {
+                return null;
+            }
+
+            @Override
+            public JsonSerializer<?> serializerInstance(SerializationConfig config, Annotated annotated, Class<?> serClass) {
+                return null;
+            }
+
+            @Override
+            public TypeResolverBuilder<?> typeResolverBuilderInstance(MapperConfig<?> config, Annotated annotated, Class<?> builderClass) {
+                return null;
+            }
+
+            @Override
+            public TypeIdResolver typeIdResolverInstance(MapperConfig<?> config, Annotated annotated, Class<?> resolverClass) {
+                return null;
+            }
+        });
+        return answer;
+    }
+
+    /**
+     * Counts the distinct collections, maps and strings reachable from the given object by identity which
+     * approximates the heap held by the choices as each of them is at least one object header
+     */
+    protected static long countChoiceObjects(Object root) {
+        IdentityHashMap<Object, Boolean> visited = new IdentityHashMap<>();
+        List<Object> stack = new ArrayList<>();
+        stack.add(root);
+        while (!stack.isEmpty()) {
+            Object value = stack.remove(stack.size() - 1);
+            if (value == null || visited.put(value, Boolean.TRUE) != null) {
+                continue;
+            }
+            if (value instanceof ValidationResult) {
+                stack.addAll(((ValidationResult) value).getInputs());
+            } else if (value instanceof PropertyDTO) {
+                stack.add(((PropertyDTO) value).getValueChoices());
+                stack.add(((PropertyDTO) value).getTypeaheadData());
+            } else if (value instanceof Map) {
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    stack.add(entry.getKey());
+                    stack.add(entry.getValue());
+                }
+            } else if (value instanceof Iterable) {
+                for (Object element : (Iterable<?>) value) {
+                    stack.add(element);
+                }
+            }
+        }
+        return visited.size();
+    }
+
+    protected byte[] createValidationResult(int choiceCount) throws Exception {
+        ObjectNode property = objectMapper.createObjectNode();
+        property.put("name", "pipeline");
+        ArrayNode pipelines = property.putArray("valueChoices");
+        for (int i = 0; i < choiceCount; i++) {
+            pipelines.add("pipeline-" + i);
+        }
+        property.set("typeaheadData", pipelines.deepCopy());
+
+        ObjectNode catalog = objectMapper.createObjectNode();
+        catalog.put("name", "catalog");
+        ArrayNode catalogs = catalog.putArray("valueChoices");
+        for (int i = 0; i < choiceCount; i++) {
+            catalogs.addObject().put("id", "catalog-" + i).put("name", "Catalog " + i).put("size", i);
+        }
+
+        ObjectNode result = objectMapper.createObjectNode();
+        result.putArray("inputs").add(property).add(catalog);
+        return objectMapper.writeValueAsBytes(result);
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import javax.ws.rs.core.Form;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ */
+public class InputValueListTest {
+    protected ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testLookupAndUpdateByName() throws Exception {
+        InputValueList inputs = new InputValueList();
+        inputs.setValue("named", "demo");
+        inputs.setValue("version", "1.0");
+        inputs.setValue("named", "other");
+        inputs.add(new InputValueDTO("type", "jar"));
+
+        assertThat(inputs).hasSize(3);
+        assertThat(inputs.getValue("named")).isEqualTo("other");
+        assertThat(inputs.getValue("type")).isEqualTo("jar");
+        assertThat(inputs.getValue("missing")).isNull();
+        assertThat(inputs.toMap().keySet()).containsExactly("named", "version", "type");
+
+        inputs.remove(0);
+        assertThat(inputs.indexOfName("version")).isEqualTo(0);
+        assertThat(inputs.indexOfName("named")).isEqualTo(-1);
+
+        inputs.set(1, new InputValueDTO("space", "default"));
+        assertThat(inputs.getValue("space")).isEqualTo("default");
+        assertThat(inputs.get("type")).isNull();
+    }
+
+    @Test
+    public void testSerializationIsUnchanged() throws Exception {
+        List<InputValueDTO> plain = new ArrayList<>();
+        plain.add(new InputValueDTO("named", "demo"));
+        plain.add(new InputValueDTO("version", "1.0"));
+
+        ExecutionRequest plainRequest = new ExecutionRequest();
+        plainRequest.setInputs(plain);
+        ExecutionRequest indexedRequest = new ExecutionRequest();
+        indexedRequest.setInputs(new InputValueList(plain));
+
+        String json = objectMapper.writeValueAsString(indexedRequest);
+        assertThat(json).isEqualTo(objectMapper.writeValueAsString(plainRequest));
+
+        ExecutionRequest parsed = objectMapper.readValue(json, ExecutionRequest.class);
+        assertThat(parsed.getInputs()).isInstanceOf(InputValueList.class).hasSize(2);
+        assertThat(((InputValueList) parsed.getInputs()).toMap()).containsEntry("named", "demo").containsEntry("version", "1.0");
+
+        Form form = new Form();
+        for (InputValueDTO input : parsed.getInputs()) {
+            input.addToForm(form);
+        }
+        assertThat(form.asMap().getFirst("named")).isEqualTo("demo");
+    }
+}
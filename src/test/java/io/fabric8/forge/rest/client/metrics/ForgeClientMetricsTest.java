@@ -0,0 +1,73 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client.metrics;
+
+import io.fabric8.forge.rest.client.ForgeOperation;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ */
+public class ForgeClientMetricsTest {
+
+    @Test
+    public void testRecordsLatencyStatusAndInFlight() throws Exception {
+        ForgeClientMetrics metrics = new ForgeClientMetrics();
+        OperationMetrics validate = metrics.getOperationMetrics(ForgeOperation.VALIDATE, "project-new");
+        assertThat(metrics.getOperationMetrics(ForgeOperation.VALIDATE, "project-new")).isSameAs(validate);
+
+        validate.requestStarted();
+        validate.requestStarted();
+        validate.requestStarted();
+        assertThat(metrics.getInFlight()).isEqualTo(3);
+
+        validate.requestCompleted(200, TimeUnit.MILLISECONDS.toNanos(3));
+        validate.requestCompleted(400, TimeUnit.MILLISECONDS.toNanos(40));
+        validate.requestFailed(TimeUnit.MILLISECONDS.toNanos(200));
+
+        assertThat(metrics.getInFlight()).isEqualTo(0);
+        assertThat(validate.getStatusCounts()).containsEntry(200, 1L).containsEntry(400, 1L);
+        assertThat(validate.getFailures()).isEqualTo(1);
+        LatencyHistogram latency = validate.getLatency();
+        assertThat(latency.getCount()).isEqualTo(3);
+        assertThat(latency.getPercentileMillis(50)).isEqualTo(50);
+        assertThat(latency.getPercentileMillis(100)).isEqualTo(250);
+    }
+
+    @Test
+    public void testPrometheusText() throws Exception {
+        ForgeClientMetrics metrics = new ForgeClientMetrics();
+        OperationMetrics version = metrics.getOperationMetrics(ForgeOperation.VERSION, null);
+        version.requestStarted();
+        version.requestCompleted(200, TimeUnit.MILLISECONDS.toNanos(7));
+        OperationMetrics execute = metrics.getOperationMetrics(ForgeOperation.EXECUTE, "say \"hi\"");
+        execute.requestStarted();
+
+        String text = metrics.toPrometheusText();
+
+        assertThat(text).contains("# TYPE forge_client_request_duration_seconds histogram");
+        assertThat(text).contains("forge_client_request_duration_seconds_bucket{operation=\"version\",command=\"\",le=\"0.005\"} 0");
+        assertThat(text).contains("forge_client_request_duration_seconds_bucket{operation=\"version\",command=\"\",le=\"0.01\"} 1");
+        assertThat(text).contains("forge_client_request_duration_seconds_bucket{operation=\"version\",command=\"\",le=\"+Inf\"} 1");
+        assertThat(text).contains("forge_client_request_duration_seconds_count{operation=\"version\",command=\"\"} 1");
+        assertThat(text).contains("forge_client_responses_total{operation=\"version\",command=\"\",status=\"200\"} 1");
+        assertThat(text).contains("forge_client_requests_in_flight{operation=\"execute\",command=\"say \\\"hi\\\"\"} 1");
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client.stub;
+
+import io.fabric8.forge.rest.client.ForgeClient;
+import io.fabric8.forge.rest.client.TransportMode;
+import io.fabric8.forge.rest.client.dto.ExecutionRequest;
+import org.junit.rules.ExternalResource;
+
+import javax.ws.rs.WebApplicationException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A JUnit rule which starts a {@link StubForgeServer} before each test along with a {@link ForgeClient}
+ * using the given {@link TransportMode} to talk to it, and closes both after the test.
+ * <p>
+ * Use {@link #transportModes()} as the parameters of a <code>Parameterized</code> test to run it on every transport.
+ */
+public class StubForgeRule extends ExternalResource {
+    public static final String NAMESPACE = "myproject";
+
+    private final TransportMode transportMode;
+    private final StubForgeServer server = new StubForgeServer();
+    private final ForgeClient forgeClient = new ForgeClient();
+
+    public StubForgeRule(TransportMode transportMode) {
+        this.transportMode = transportMode;
+    }
+
+    /**
+     * Returns the parameters of a <code>Parameterized</code> test which runs on each {@link TransportMode}
+     */
+    public static List<Object[]> transportModes() {
+        List<Object[]> answer = new ArrayList<>();
+        for (TransportMode transportMode : TransportMode.values()) {
+            answer.add(new Object[]{transportMode});
+        }
+        return answer;
+    }
+
+    @Override
+    protected void before() throws Throwable {
+        server.start();
+        forgeClient.setAddress(server.getAddress());
+        forgeClient.setNamespace(NAMESPACE);
+        forgeClient.setTransportMode(transportMode);
+    }
+
+    @Override
+    protected void after() {
+        forgeClient.close();
+        server.stop();
+    }
+
+    public StubForgeRule addWizard(StubWizard wizard) {
+        server.addWizard(wizard);
+        return this;
+    }
+
+    /**
+     * Executes the command and returns the status of the response; both transports throw a
+     * {@link WebApplicationException} for an error status rather than returning it
+     */
+    public int executeCommandStatus(String name, ExecutionRequest executionRequest) throws Exception {
+        try {
+            return forgeClient.executeCommand(name, executionRequest).getStatus();
+        } catch (WebApplicationException e) {
+            if (e.getResponse() == null) {
+                throw e;
+            }
+            return e.getResponse().getStatus();
+        }
+    }
+
+    public TransportMode getTransportMode() {
+        return transportMode;
+    }
+
+    public StubForgeServer getServer() {
+        return server;
+    }
+
+    public ForgeClient getForgeClient() {
+        return forgeClient;
+    }
+}
@@ -0,0 +1,573 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client.stub;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.fabric8.forge.rest.client.ForgeJsonCodec;
+import io.fabric8.forge.rest.client.ForgeOperation;
+import io.fabric8.forge.rest.client.dto.CommandInputDTO;
+import io.fabric8.forge.rest.client.dto.CommandMetadataDTO;
+import io.fabric8.forge.rest.client.dto.ExecutionRequest;
+import io.fabric8.forge.rest.client.dto.InputValueDTO;
+import io.fabric8.forge.rest.client.dto.NextStepResult;
+import io.fabric8.forge.rest.client.dto.PropertyDTO;
+import io.fabric8.forge.rest.client.dto.UIMessageDTO;
+import io.fabric8.forge.rest.client.dto.ValidationResult;
+import io.fabric8.forge.rest.client.dto.VersionDTO;
+import io.fabric8.forge.rest.client.dto.WizardState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An embedded stand in for the Forge backend which implements the {@link io.fabric8.forge.rest.client.CommandsAPI}
+ * paths for scripted {@link StubWizard}s so the client can be tested and load tested without a cluster.
+ * <p>
+ * The latency, the size of the responses and the rate of errors returned can be configured.
+ */
+public class StubForgeServer {
+    private static final transient Logger LOG = LoggerFactory.getLogger(StubForgeServer.class);
+
+    private final Map<String, StubWizard> wizards = new ConcurrentHashMap<>();
+    private final Map<ForgeOperation, LongAdder> requestCounts = new ConcurrentHashMap<>();
+    private final LongAdder compressedRequestCount = new LongAdder();
+    private final LongAdder compressedResponseCount = new LongAdder();
+    private final Set<InetSocketAddress> clientAddresses = ConcurrentHashMap.newKeySet();
+    private final ObjectMapper objectMapper = new ForgeJsonCodec().getObjectMapper();
+    private HttpServer server;
+    private ExecutorService executor;
+    private volatile String backendVersion = "1.0.0";
+    private volatile String forgeVersion = "3.6.0.Final";
+    private volatile long latencyMillis;
+    private volatile long latencyJitterMillis;
+    private volatile int extraChoiceCount;
+    private volatile boolean emptyNextSteps;
+    private volatile double errorRate;
+    private volatile int errorStatus = 503;
+    private volatile Set<ForgeOperation> errorOperations = EnumSet.allOf(ForgeOperation.class);
+    private final AtomicInteger failingRequests = new AtomicInteger();
+    private final AtomicInteger delayedRequests = new AtomicInteger();
+    private volatile long delayedRequestMillis;
+
+    public StubForgeServer addWizard(StubWizard wizard) {
+        wizards.put(wizard.getName(), wizard);
+        return this;
+    }
+
+    /**
+     * Starts the server on a free port
+     */
+    public void start() throws IOException {
+        // the JDK server writes the headers and body separately so avoid Nagle adding a delayed ACK to each response
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stub-forge-server-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/forge", this::handle);
+        server.start();
+        LOG.info("Started stub forge server at " + getAddress());
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Returns the URL to use as the address of the {@link io.fabric8.forge.rest.client.ForgeClient}
+     */
+    public String getAddress() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    public long getRequestCount(ForgeOperation operation) {
+        LongAdder count = requestCounts.get(operation);
+        return count != null ? count.sum() : 0;
+    }
+
+    public void resetRequestCounts() {
+        requestCounts.clear();
+        compressedRequestCount.reset();
+        compressedResponseCount.reset();
+        clientAddresses.clear();
+    }
+
+    /**
+     * Returns the number of requests received with a gzipped body
+     */
+    public long getCompressedRequestCount() {
+        return compressedRequestCount.sum();
+    }
+
+    /**
+     * Returns the number of responses sent gzipped as the client accepted gzip
+     */
+    public long getCompressedResponseCount() {
+        return compressedResponseCount.sum();
+    }
+
+    /**
+     * Returns the number of distinct client connections which have sent requests
+     */
+    public int getConnectionCount() {
+        return clientAddresses.size();
+    }
+
+    protected void handle(HttpExchange exchange) throws IOException {
+        clientAddresses.add(exchange.getRemoteAddress());
+        try {
+            String path = exchange.getRequestURI().getPath().substring("/forge".length());
+            String[] paths = path.startsWith("/") ? path.substring(1).split("/") : path.split("/");
+            String method = exchange.getRequestMethod();
+            byte[] body = readBody(exchange);
+            if ("GET".equals(method) && paths.length == 1 && "version".equals(paths[0])) {
+                if (begin(exchange, ForgeOperation.VERSION)) {
+                    VersionDTO version = new VersionDTO();
+                    version.setBackendVersion(backendVersion);
+                    version.setForgeVersion(forgeVersion);
+                    sendJson(exchange, 200, version, null);
+                }
+            } else if ("GET".equals(method) && paths.length == 1 && "commandNames".equals(paths[0])) {
+                if (begin(exchange, ForgeOperation.COMMAND_NAMES)) {
+                    List<String> names = new ArrayList<>(wizards.keySet());
+                    Collections.sort(names);
+                    sendJson(exchange, 200, names, entityTag());
+                }
+            } else if (paths.length >= 2 && "commands".equals(paths[0])) {
+                StubWizard wizard = wizards.get(paths[1]);
+                if (wizard == null) {
+                    sendJson(exchange, 404, Collections.singletonMap("message", "No command called " + paths[1]), null);
+                } else if ("GET".equals(method) && paths.length == 2) {
+                    if (begin(exchange, ForgeOperation.COMMAND_INPUT)) {
+                        sendJson(exchange, 200, createCommandInput(wizard), entityTag());
+                    }
+                } else if ("POST".equals(method) && paths.length == 3 && "validate".equals(paths[2])) {
+                    if (begin(exchange, ForgeOperation.VALIDATE)) {
+                        sendJson(exchange, 200, validate(wizard, readRequest(body)), null);
+                    }
+                } else if ("POST".equals(method) && paths.length == 3 && "next".equals(paths[2])) {
+                    if (begin(exchange, ForgeOperation.NEXT_STEP)) {
+                        sendJson(exchange, 200, nextStep(wizard, readRequest(body)), null);
+                    }
+                } else if ("POST".equals(method) && paths.length == 3 && "execute".equals(paths[2])) {
+                    if (begin(exchange, ForgeOperation.EXECUTE)) {
+                        execute(exchange, wizard, readValues(exchange, body));
+                    }
+                } else {
+                    sendJson(exchange, 404, Collections.singletonMap("message", "Unknown path " + path), null);
+                }
+            } else {
+                sendJson(exchange, 404, Collections.singletonMap("message", "Unknown path " + path), null);
+            }
+        } catch (Exception e) {
+            LOG.warn("Failed to handle " + exchange.getRequestURI() + ". " + e, e);
+            sendJson(exchange, 500, Collections.singletonMap("message", e.toString()), null);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Counts the request and applies the configured latency and error injection returning false if an error was sent
+     */
+    protected boolean begin(HttpExchange exchange, ForgeOperation operation) throws IOException {
+        requestCounts.computeIfAbsent(operation, key -> new LongAdder()).increment();
+        long delay = latencyMillis;
+        if (latencyJitterMillis > 0) {
+            delay += ThreadLocalRandom.current().nextLong(latencyJitterMillis + 1);
+        }
+        if (delayedRequests.getAndUpdate(n -> n > 0 ? n - 1 : 0) > 0) {
+            delay += delayedRequestMillis;
+        }
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        boolean failing = errorOperations.contains(operation) && failingRequests.getAndUpdate(n -> n > 0 ? n - 1 : 0) > 0;
+        if (failing || (errorRate > 0 && errorOperations.contains(operation) && ThreadLocalRandom.current().nextDouble() < errorRate)) {
+            sendJson(exchange, errorStatus, Collections.singletonMap("message", "Injected error for " + operation.getLabel()), null);
+            return false;
+        }
+        return true;
+    }
+
+    protected CommandInputDTO createCommandInput(StubWizard wizard) {
+        CommandInputDTO answer = new CommandInputDTO();
+        answer.setMetadata(createMetadata(wizard));
+        answer.setState(createState(wizard, 0, true));
+        answer.setInputs(createInputs(wizard, 0, Collections.emptyMap()));
+        return answer;
+    }
+
+    protected ValidationResult validate(StubWizard wizard, ExecutionRequest request) {
+        int page = pageIndex(wizard, request);
+        Map<String, Object> values = toMap(request.getInputs());
+        List<UIMessageDTO> messages = validatePage(wizard, page, values);
+        ValidationResult answer = new ValidationResult();
+        populateResult(answer, wizard, page, values, messages);
+        return answer;
+    }
+
+    protected NextStepResult nextStep(StubWizard wizard, ExecutionRequest request) {
+        int page = pageIndex(wizard, request);
+        Map<String, Object> values = toMap(request.getInputs());
+        List<UIMessageDTO> messages = validatePage(wizard, page, values);
+        NextStepResult answer = new NextStepResult();
+        answer.setMetadata(createMetadata(wizard));
+        if (!messages.isEmpty() || page + 1 >= wizard.getPages().size()) {
+            // like the backend we cannot move on so return no inputs
+            populateResult(answer, wizard, page, values, messages);
+            answer.setInputs(new ArrayList<>());
+        } else {
+            populateResult(answer, wizard, page + 1, values, messages);
+            if (emptyNextSteps) {
+                answer.setInputs(new ArrayList<>());
+            }
+        }
+        return answer;
+    }
+
+    protected void execute(HttpExchange exchange, StubWizard wizard, Map<String, Object> values) throws IOException {
+        List<UIMessageDTO> messages = new ArrayList<>();
+        for (int page = 0; page < wizard.getPages().size(); page++) {
+            messages.addAll(validatePage(wizard, page, values));
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (messages.isEmpty()) {
+            result.put("status", "SUCCESS");
+            result.put("message", "Executed " + wizard.getName());
+            result.put("values", values);
+            sendJson(exchange, 200, result, null);
+        } else {
+            result.put("status", "FAILED");
+            result.put("messages", messages);
+            sendJson(exchange, 400, result, null);
+        }
+    }
+
+    private void populateResult(ValidationResult result, StubWizard wizard, int page, Map<String, Object> values, List<UIMessageDTO> messages) {
+        boolean valid = messages.isEmpty();
+        WizardState state = createState(wizard, page, valid);
+        result.setState(state);
+        result.setInputs(createInputs(wizard, page, values));
+        result.setMessages(messages);
+    }
+
+    private CommandMetadataDTO createMetadata(StubWizard wizard) {
+        CommandMetadataDTO metadata = new CommandMetadataDTO();
+        metadata.setName(wizard.getName());
+        metadata.setDescription(wizard.getDescription());
+        metadata.setCategory("Stub");
+        return metadata;
+    }
+
+    private WizardState createState(StubWizard wizard, int page, boolean valid) {
+        int pageCount = wizard.getPages().size();
+        WizardState state = new WizardState();
+        state.setWizard(pageCount > 1);
+        state.setValid(valid);
+        state.setCanMoveToPreviousStep(page > 0);
+        state.setCanMoveToNextStep(valid && page + 1 < pageCount);
+        state.setCanExecute(valid && page + 1 >= pageCount);
+        List<String> steps = new ArrayList<>();
+        for (int i = 0; i < pageCount; i++) {
+            steps.add(wizard.getName() + ": Step " + (i + 1));
+        }
+        state.setSteps(steps);
+        return state;
+    }
+
+    private List<PropertyDTO> createInputs(StubWizard wizard, int page, Map<String, Object> values) {
+        List<PropertyDTO> answer = new ArrayList<>();
+        if (page >= wizard.getPages().size()) {
+            return answer;
+        }
+        for (PropertyDTO template : wizard.getPages().get(page)) {
+            PropertyDTO property = objectMapper.convertValue(template, PropertyDTO.class);
+            Object value = values.get(property.getName());
+            if (value != null) {
+                property.setValue(value);
+            }
+            if (extraChoiceCount > 0 && property.getValueChoices() != null) {
+                List<Object> choices = new ArrayList<>(property.getValueChoices());
+                for (int i = 0; i < extraChoiceCount; i++) {
+                    choices.add(property.getName() + "-extra-" + i);
+                }
+                property.setValueChoices(choices);
+                property.setTypeaheadData(new ArrayList<>(choices));
+            }
+            answer.add(property);
+        }
+        return answer;
+    }
+
+    private List<UIMessageDTO> validatePage(StubWizard wizard, int page, Map<String, Object> values) {
+        List<UIMessageDTO> messages = new ArrayList<>();
+        if (page >= wizard.getPages().size()) {
+            return messages;
+        }
+        for (PropertyDTO property : wizard.getPages().get(page)) {
+            Object value = values.get(property.getName());
+            if (value == null) {
+                value = property.getValue();
+            }
+            if (property.isRequired() && (value == null || value.toString().isEmpty())) {
+                UIMessageDTO message = new UIMessageDTO();
+                message.setInput(property.getName());
+                message.setSeverity("ERROR");
+                message.setDescription(property.getLabel() + " must be specified.");
+                messages.add(message);
+            }
+        }
+        return messages;
+    }
+
+    private static int pageIndex(StubWizard wizard, ExecutionRequest request) {
+        Integer stepIndex = request.getStepIndex();
+        int page = stepIndex != null ? stepIndex : 0;
+        return Math.max(0, Math.min(page, wizard.getPages().size() - 1));
+    }
+
+    private static Map<String, Object> toMap(List<InputValueDTO> inputs) {
+        Map<String, Object> answer = new HashMap<>();
+        if (inputs != null) {
+            for (InputValueDTO input : inputs) {
+                if (input.getValue() != null) {
+                    answer.put(input.getName(), input.getValue());
+                }
+            }
+        }
+        return answer;
+    }
+
+    private ExecutionRequest readRequest(byte[] body) throws IOException {
+        if (body.length == 0) {
+            return new ExecutionRequest();
+        }
+        return objectMapper.readValue(body, ExecutionRequest.class);
+    }
+
+    private Map<String, Object> readValues(HttpExchange exchange, byte[] body) throws IOException {
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (contentType != null && contentType.startsWith("application/x-www-form-urlencoded")) {
+            Map<String, Object> answer = new HashMap<>();
+            String text = new String(body, StandardCharsets.UTF_8);
+            for (String pair : text.split("&")) {
+                int idx = pair.indexOf('=');
+                if (idx > 0) {
+                    answer.put(URLDecoder.decode(pair.substring(0, idx), "UTF-8"), URLDecoder.decode(pair.substring(idx + 1), "UTF-8"));
+                }
+            }
+            return answer;
+        }
+        return toMap(readRequest(body).getInputs());
+    }
+
+    private String entityTag() {
+        return "\"" + backendVersion + "-" + forgeVersion + "\"";
+    }
+
+    private void sendJson(HttpExchange exchange, int status, Object body, String entityTag) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        if (entityTag != null) {
+            exchange.getResponseHeaders().set("ETag", entityTag);
+            if (entityTag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+        }
+        byte[] data = objectMapper.writeValueAsBytes(body);
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+                out.write(data);
+            }
+            data = buffer.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            compressedResponseCount.increment();
+        }
+        exchange.sendResponseHeaders(status, data.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(data);
+        }
+    }
+
+    private byte[] readBody(HttpExchange exchange) throws IOException {
+        InputStream inputStream = exchange.getRequestBody();
+        if ("gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+            compressedRequestCount.increment();
+            inputStream = new GZIPInputStream(inputStream);
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] bytes = new byte[8192];
+        int length;
+        while ((length = inputStream.read(bytes)) > 0) {
+            buffer.write(bytes, 0, length);
+        }
+        return buffer.toByteArray();
+    }
+
+    public String getBackendVersion() {
+        return backendVersion;
+    }
+
+    /**
+     * Sets the backend version; changing it simulates a redeployment of the backend
+     */
+    public void setBackendVersion(String backendVersion) {
+        this.backendVersion = backendVersion;
+    }
+
+    public String getForgeVersion() {
+        return forgeVersion;
+    }
+
+    public void setForgeVersion(String forgeVersion) {
+        this.forgeVersion = forgeVersion;
+    }
+
+    public long getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    /**
+     * Sets the time each request takes before a response is sent
+     */
+    public void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    public long getLatencyJitterMillis() {
+        return latencyJitterMillis;
+    }
+
+    /**
+     * Sets the maximum random time added to the latency of each request
+     */
+    public void setLatencyJitterMillis(long latencyJitterMillis) {
+        this.latencyJitterMillis = latencyJitterMillis;
+    }
+
+    public int getExtraChoiceCount() {
+        return extraChoiceCount;
+    }
+
+    /**
+     * Sets the number of extra value choices and typeahead entries added to every select input to grow the responses
+     */
+    public void setExtraChoiceCount(int extraChoiceCount) {
+        this.extraChoiceCount = extraChoiceCount;
+    }
+
+    public boolean isEmptyNextSteps() {
+        return emptyNextSteps;
+    }
+
+    /**
+     * Sets whether a successful next step returns no inputs so that clients have to validate the next page to get them
+     */
+    public void setEmptyNextSteps(boolean emptyNextSteps) {
+        this.emptyNextSteps = emptyNextSteps;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    /**
+     * Sets the fraction of requests, between 0 and 1, which fail with the error status
+     */
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    public int getErrorStatus() {
+        return errorStatus;
+    }
+
+    public void setErrorStatus(int errorStatus) {
+        this.errorStatus = errorStatus;
+    }
+
+    /**
+     * Makes the next requests of the error operations fail with the error status
+     */
+    public void failNextRequests(int count) {
+        failingRequests.set(count);
+    }
+
+    /**
+     * Adds the given delay to the next requests, such as to simulate a slow or restarting backend pod
+     */
+    public void delayNextRequests(int count, long delayMillis) {
+        delayedRequestMillis = delayMillis;
+        delayedRequests.set(count);
+    }
+
+    public Set<ForgeOperation> getErrorOperations() {
+        return errorOperations;
+    }
+
+    /**
+     * Sets the operations which errors are injected into
+     */
+    public void setErrorOperations(Set<ForgeOperation> errorOperations) {
+        this.errorOperations = errorOperations;
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fabric8.forge.rest.client.stub;
+
+import io.fabric8.forge.rest.client.dto.PropertyDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A scripted wizard served by {@link StubForgeServer} made of pages of input properties
+ */
+public class StubWizard {
+    private final String name;
+    private final List<List<PropertyDTO>> pages = new ArrayList<>();
+    private String description;
+
+    public StubWizard(String name) {
+        this.name = name;
+        this.description = "Stub wizard " + name;
+    }
+
+    /**
+     * Creates a text input with the given default value which is required when the default value is null
+     */
+    public static PropertyDTO input(String name, String defaultValue) {
+        PropertyDTO property = createProperty(name);
+        property.setRequired(defaultValue == null);
+        property.setValue(defaultValue);
+        return property;
+    }
+
+    /**
+     * Creates a required select input with the given number of choices named <code>name-0</code>, <code>name-1</code> etc
+     */
+    public static PropertyDTO choice(String name, int choiceCount) {
+        PropertyDTO property = createProperty(name);
+        property.setRequired(true);
+        property.setInputType("org.jboss.forge.inputType.DROPDOWN");
+        property.setType("UISelectOne");
+        List<Object> choices = new ArrayList<>(choiceCount);
+        for (int i = 0; i < choiceCount; i++) {
+            choices.add(name + "-" + i);
+        }
+        property.setValueChoices(choices);
+        property.setTypeaheadData(new ArrayList<>(choices));
+        return property;
+    }
+
+    private static PropertyDTO createProperty(String name) {
+        PropertyDTO property = new PropertyDTO();
+        property.setName(name);
+        property.setLabel(name);
+        property.setDescription("The " + name);
+        property.setValueType("java.lang.String");
+        property.setInputType("org.jboss.forge.inputType.DEFAULT");
+        property.setType("UIInput");
+        property.setEnabled(true);
+        return property;
+    }
+
+    /**
+     * Adds a page with the given properties
+     */
+    public StubWizard page(PropertyDTO... properties) {
+        pages.add(new ArrayList<>(Arrays.asList(properties)));
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "StubWizard{" +
+                "name='" + name + '\'' +
+                ", pages=" + pages.size() +
+                '}';
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public List<List<PropertyDTO>> getPages() {
+        return pages;
+    }
+}